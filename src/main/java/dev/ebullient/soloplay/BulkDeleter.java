@@ -0,0 +1,209 @@
+package dev.ebullient.soloplay;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+
+import io.quarkus.logging.Log;
+
+/**
+ * Deletes large sets of nodes label by label, committing in fixed-size batches
+ * ({@code CALL (n) { } IN TRANSACTIONS}) so a large delete neither holds locks for
+ * long nor builds one huge transaction state.
+ *
+ * Deletes larger than {@code campaign.delete.background-threshold} nodes run on
+ * a background thread; progress is available from {@link #status(String)}
+ * (and {@code GET /api/deletions/{id}}).
+ */
+@ApplicationScoped
+public class BulkDeleter {
+    /** Number of batches deleted per statement; progress is updated between statements */
+    static final int BATCHES_PER_ROUND = 10;
+    static final Duration RETAIN_FINISHED = Duration.ofHours(1);
+
+    @Inject
+    Driver driver;
+
+    @ConfigProperty(name = "campaign.delete.batch-size", defaultValue = "1000")
+    int batchSize;
+
+    @ConfigProperty(name = "campaign.delete.background-threshold", defaultValue = "10000")
+    long backgroundThreshold;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * One label's worth of nodes to delete.
+     *
+     * @param label Label, used for progress reporting
+     * @param match MATCH clause binding {@code n}; should be able to use an index
+     * @param params Query parameters
+     */
+    public record Step(String label, String match, Map<String, Object> params) {
+    }
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    public record DeletionStatus(
+            String id,
+            String description,
+            State state,
+            long total,
+            long deleted,
+            String currentLabel,
+            String error,
+            Instant startedAt,
+            Instant finishedAt) {
+
+        public boolean done() {
+            return state != State.RUNNING;
+        }
+    }
+
+    /**
+     * Delete all nodes matched by the given steps, in order.
+     * Runs synchronously for small deletes, in the background otherwise.
+     *
+     * @return a handle on the deletion; {@link Deletion#completion()} completes when all steps are done
+     */
+    public Deletion delete(String description, List<Step> steps) {
+        pruneFinished();
+
+        Map<Step, Long> counts = new HashMap<>();
+        long total = 0;
+        try (Session session = driver.session()) {
+            for (Step step : steps) {
+                long count = session.run(step.match() + "\nRETURN count(n) AS count", step.params())
+                        .single().get("count").asLong();
+                counts.put(step, count);
+                total += count;
+            }
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), description, total);
+        jobs.put(job.id, job);
+
+        if (total > backgroundThreshold) {
+            Log.infof("Deleting %d nodes in the background (%s): %s", total, job.id, description);
+            CompletableFuture.runAsync(() -> run(job, steps, counts), executor);
+        } else {
+            run(job, steps, counts);
+            if (job.state == State.FAILED) {
+                throw new IllegalStateException("Failed to delete %s: %s".formatted(description, job.error));
+            }
+        }
+        return new Deletion(job.id, job.completion);
+    }
+
+    /**
+     * @return current status of a deletion, or null if unknown (or expired)
+     */
+    public DeletionStatus status(String id) {
+        Job job = jobs.get(id);
+        return job == null ? null : job.status();
+    }
+
+    private void run(Job job, List<Step> steps, Map<Step, Long> counts) {
+        try (Session session = driver.session()) {
+            for (Step step : steps) {
+                if (counts.getOrDefault(step, 0L) == 0) {
+                    continue;
+                }
+                job.currentLabel = step.label();
+                String cypher = """
+                        %s
+                        WITH n LIMIT $roundSize
+                        CALL (n) { DETACH DELETE n } IN TRANSACTIONS OF %d ROWS
+                        RETURN count(*) AS deleted
+                        """.formatted(step.match(), batchSize);
+
+                Map<String, Object> params = new HashMap<>(step.params());
+                params.put("roundSize", (long) batchSize * BATCHES_PER_ROUND);
+
+                long deleted;
+                do {
+                    deleted = session.run(cypher, params).single().get("deleted").asLong();
+                    job.deleted.addAndGet(deleted);
+                } while (deleted > 0);
+            }
+            job.finish(State.COMPLETED, null);
+            Log.infof("Deleted %d nodes (%s): %s", job.deleted.get(), job.id, job.description);
+        } catch (Exception e) {
+            Log.errorf(e, "Error deleting %s: %s", job.description, e.getMessage());
+            job.finish(State.FAILED, e.getMessage());
+        }
+    }
+
+    private void pruneFinished() {
+        Instant cutoff = Instant.now().minus(RETAIN_FINISHED);
+        jobs.values().removeIf(j -> j.finishedAt != null && j.finishedAt.isBefore(cutoff));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Handle returned to callers of {@link BulkDeleter#delete(String, List)}.
+     */
+    public record Deletion(String id, CompletableFuture<DeletionStatus> completion) {
+        public boolean done() {
+            return completion.isDone();
+        }
+    }
+
+    static class Job {
+        final String id;
+        final String description;
+        final long total;
+        final Instant startedAt = Instant.now();
+        final AtomicLong deleted = new AtomicLong();
+        final CompletableFuture<DeletionStatus> completion = new CompletableFuture<>();
+
+        volatile State state = State.RUNNING;
+        volatile String currentLabel;
+        volatile String error;
+        volatile Instant finishedAt;
+
+        Job(String id, String description, long total) {
+            this.id = id;
+            this.description = description;
+            this.total = total;
+        }
+
+        void finish(State state, String error) {
+            this.error = error;
+            this.currentLabel = null;
+            this.finishedAt = Instant.now();
+            this.state = state;
+            completion.complete(status());
+        }
+
+        DeletionStatus status() {
+            return new DeletionStatus(id, description, state, total, deleted.get(),
+                    currentLabel, error, startedAt, finishedAt);
+        }
+    }
+}
@@ -2,57 +2,274 @@ package dev.ebullient.soloplay;
 
 import static dev.ebullient.soloplay.StringUtils.normalize;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import org.neo4j.ogm.session.Session;
 import org.neo4j.ogm.session.SessionFactory;
 import org.neo4j.ogm.transaction.Transaction;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 import dev.ebullient.soloplay.play.model.Actor;
 import dev.ebullient.soloplay.play.model.BaseEntity;
 import dev.ebullient.soloplay.play.model.Event;
 import dev.ebullient.soloplay.play.model.GameState;
+import dev.ebullient.soloplay.play.model.GameSummary;
 import dev.ebullient.soloplay.play.model.Location;
+import dev.ebullient.soloplay.play.model.PendingRoll;
+import dev.ebullient.soloplay.play.model.PlayMessage;
 import dev.ebullient.soloplay.play.model.PlayerActor;
+import dev.ebullient.soloplay.play.model.PlayerActorCreationPatch;
+import dev.ebullient.soloplay.play.model.PlayerActorDraft;
+import dev.ebullient.soloplay.play.model.Stash;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.logging.Log;
 
 @ApplicationScoped
 public class GameRepository {
 
+    static final String FIND_GAME = """
+            MATCH (g:Game {gameId: $gameId})
+            RETURN g
+            """;
+
+    static final String GET_OR_CREATE_GAME = """
+            MERGE (g:Game {gameId: $gameId})
+            ON CREATE SET g.gamePhase = $gamePhase, g.playedAt = timestamp()
+            RETURN g
+            """;
+
+    // Keyset paging on the game_played_at range index: most recently played first, then by gameId.
+    // The first page starts after (Long.MAX_VALUE, "").
+    static final String LIST_GAME_SUMMARIES = """
+            MATCH (g:Game)
+            WHERE g.playedAt <= $afterPlayedAt
+              AND (g.playedAt < $afterPlayedAt OR g.gameId > $afterGameId)
+            RETURN g.gameId AS gameId, g.adventureName AS adventureName, g.gamePhase AS gamePhase,
+                   g.turnNumber AS turnNumber, g.lastPlayedAt AS lastPlayedAt, g.playedAt AS playedAt
+            ORDER BY g.playedAt DESC, g.gameId ASC
+            LIMIT $limit
+            """;
+
+    static final String FIND_PARTY = """
+            MATCH (a:PlayerActor {gameId: $gameId})
+            RETURN a
+            UNION
+            MATCH (t:Tag {gameId: $gameId})
+            WHERE t.name IN ['party', 'player-controlled']
+            MATCH (t)<-[:TAGGED]-(a:Actor)
+            RETURN a
+            """;
+
+    static final String LIST_PLAYER_ACTORS = """
+            MATCH (a:PlayerActor {gameId: $gameId})
+            RETURN a
+            """;
+
+    static final String FIND_PLAYER_ACTOR_BY_NAME = """
+            MATCH (a:PlayerActor {gameId: $gameId})
+            WHERE a.normalizedName = $name OR $name IN a.aliases
+            RETURN a
+            LIMIT 1
+            """;
+
+    static final String LIST_ACTORS = """
+            MATCH (a:Actor {gameId: $gameId})
+            RETURN a
+            """;
+
+    static final String FIND_ACTOR_BY_NAME = """
+            MATCH (a:Actor {gameId: $gameId})
+            WHERE a.normalizedName = $name OR $name IN a.aliases
+            RETURN a
+            LIMIT 1
+            """;
+
+    static final String FIND_ACTORS_BY_TAG = """
+            MATCH (:Tag {gameId: $gameId, name: $tag})<-[:TAGGED]-(a:Actor)
+            RETURN a
+            """;
+
+    static final String LIST_LOCATIONS = """
+            MATCH (l:Location {gameId: $gameId})
+            RETURN l
+            """;
+
+    static final String FIND_LOCATION_BY_NAME = """
+            MATCH (l:Location {gameId: $gameId})
+            WHERE l.normalizedName = $name OR $name IN l.aliases
+            RETURN l
+            LIMIT 1
+            """;
+
+    static final String FIND_LOCATIONS_BY_TAG = """
+            MATCH (:Tag {gameId: $gameId, name: $tag})<-[:TAGGED]-(l:Location)
+            RETURN l
+            """;
+
+    static final String LIST_EVENTS = """
+            MATCH (e:Event {gameId: $gameId})
+            RETURN e
+            ORDER BY e.turnNumber
+            """;
+
+    static final String FIND_LATEST_EVENT = """
+            MATCH (e:Event {gameId: $gameId})
+            RETURN e
+            ORDER BY e.turnNumber DESC, e.createdAt DESC
+            LIMIT 1
+            """;
+
+    static final String FIND_MEMORY_SUMMARY = """
+            MATCH (:Tag {gameId: $gameId, name: $tag})<-[:TAGGED]-(e:Event)
+            RETURN e
+            ORDER BY e.updatedAt DESC
+            LIMIT 1
+            """;
+
+    static final String FIND_EVENTS_BY_TAG = """
+            MATCH (:Tag {gameId: $gameId, name: $tag})<-[:TAGGED]-(e:Event)
+            RETURN e
+            ORDER BY e.turnNumber
+            """;
+
+    static final String SAVE_PLAY_MESSAGE = """
+            MERGE (m:PlayMessage {gameId: $gameId, seq: $seq})
+            SET m.role = $role, m.markdown = $markdown, m.html = $html, m.ts = $ts
+            """;
+
+    // Newest first: reversed by the caller
+    static final String LIST_PLAY_MESSAGES_BEFORE = """
+            MATCH (m:PlayMessage {gameId: $gameId})
+            WHERE m.seq < $before
+            RETURN m.seq AS seq, m.role AS role, m.markdown AS markdown, m.html AS html, m.ts AS ts
+            ORDER BY m.seq DESC
+            LIMIT $limit
+            """;
+
+    static final String LIST_PLAY_MESSAGES_AFTER = """
+            MATCH (m:PlayMessage {gameId: $gameId})
+            WHERE m.seq > $after
+            RETURN m.seq AS seq, m.role AS role, m.markdown AS markdown, m.html AS html, m.ts AS ts
+            ORDER BY m.seq ASC
+            LIMIT $limit
+            """;
+
+    /**
+     * Keep (:Tag)<-[:TAGGED]- relationships in step with the entity's tags property.
+     * Formatted with the entity label (Actor, Location, Event).
+     */
+    static final String SYNC_TAGS = """
+            MATCH (n:%s {id: $id})
+            OPTIONAL MATCH (n)-[r:TAGGED]->(t:Tag)
+            WHERE NOT t.name IN $tags
+            DELETE r
+            WITH DISTINCT n
+            UNWIND $tags AS tag
+            MERGE (t:Tag {gameId: $gameId, name: tag})
+            MERGE (n)-[:TAGGED]->(t)
+            """;
+
+    /**
+     * Stash values that are persisted with the game, by type name.
+     * Entities (e.g. the previous Event) are saved as nodes of their own and are not included.
+     */
+    static final Map<String, Class<? extends Stash>> STASH_TYPES = Map.of(
+            "PendingRoll", PendingRoll.class,
+            "PlayerActorDraft", PlayerActorDraft.class,
+            "PlayerActorCreationPatch", PlayerActorCreationPatch.class);
+
     @Inject
     SessionFactory sessionFactory;
 
-    private Map<String, List<Actor>> partyCache = new java.util.concurrent.ConcurrentHashMap<>();
-    private Map<String, List<PlayerActor>> playerActorCache = new java.util.concurrent.ConcurrentHashMap<>();
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    BulkDeleter bulkDeleter;
+
+    @Inject
+    GameWriteBehind writeBehind;
+
+    /**
+     * Party members by gameId.
+     * Bounded and idle-evicted (see quarkus.cache.caffeine."game-party" in application.properties).
+     * Invalidated whenever actors for the game are saved.
+     */
+    @Inject
+    @CacheName("game-party")
+    Cache partyCache;
+
+    /**
+     * Player actors by gameId. Same eviction and invalidation rules as {@link #partyCache}.
+     */
+    @Inject
+    @CacheName("game-player-actors")
+    Cache playerActorCache;
+
+    /**
+     * Live game state shared by all connections (see GameSessions); dropped when the game is deleted.
+     */
+    @Inject
+    @CacheName("game-sessions")
+    Cache sessionCache;
+
+    /**
+     * Fired (synchronously) when the game's cached state is dropped, so holders of live
+     * state outside the caches (see GameSessions) drop it too.
+     */
+    @Inject
+    jakarta.enterprise.event.Event<GameCachesInvalidated> cachesInvalidated;
+
+    /**
+     * Recent play history per game (see PlayHistory); dropped when the game is deleted.
+     */
+    @Inject
+    @CacheName("play-history")
+    Cache historyCache;
+
+    /**
+     * Games whose deletion is still running. Reads hide them (and do not fill the caches)
+     * until the deletion completes.
+     */
+    private final Set<String> deleting = ConcurrentHashMap.newKeySet();
 
     // ========= GAME ===============
 
     public GameState findGameById(String gameId) {
+        if (isDeleting(gameId)) {
+            return null;
+        }
         var session = sessionFactory.openSession();
-        String cypher = """
-                MATCH (g:Game {gameId: $gameId})
-                RETURN g
-                """;
-        return session.queryForObject(GameState.class, cypher, Map.of("gameId", gameId));
+        return restoreStash(session.queryForObject(GameState.class, FIND_GAME, Map.of("gameId", gameId)));
     }
 
     public GameState getOrCreateGameById(String gameId) {
+        rejectIfDeleting(gameId);
         var session = sessionFactory.openSession();
-        String cypher = """
-                MERGE (g:Game {gameId: $gameId})
-                ON CREATE SET g.gamePhase = $gamePhase
-                RETURN g
-                """;
-        return session.queryForObject(GameState.class, cypher, Map.of(
+        return restoreStash(session.queryForObject(GameState.class, GET_OR_CREATE_GAME, Map.of(
                 "gameId", gameId,
-                "gamePhase", GameState.GamePhase.CHARACTER_CREATION.name()));
+                "gamePhase", GameState.GamePhase.CHARACTER_CREATION.name())));
     }
 
     public GameState createGame(String gameId, String adventureName) {
+        rejectIfDeleting(gameId);
         GameState game = new GameState();
         game.setGameId(gameId);
         game.setAdventureName(adventureName);
@@ -62,6 +279,7 @@ public class GameRepository {
     }
 
     public void saveGame(GameState game) {
+        game.setStashData(encodeStash(game.dumpStash()));
         var session = sessionFactory.openSession();
         try (Transaction tx = session.beginTransaction()) {
             session.save(game);
@@ -70,92 +288,148 @@ public class GameRepository {
         }
     }
 
-    public List<GameState> listGames() {
+    /**
+     * List games, most recently played first.
+     *
+     * @param cursor Cursor from a previous page ({@link GameSummary.Page#nextCursor()}), or null for the first page
+     * @param limit Maximum number of games to return
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public GameSummary.Page listGames(String cursor, int limit) {
+        GameSummary.Cursor after = cursor == null || cursor.isBlank()
+                ? null
+                : GameSummary.Cursor.decode(cursor);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("afterPlayedAt", after == null ? Long.MAX_VALUE : after.playedAt());
+        params.put("afterGameId", after == null ? "" : after.gameId());
+        params.put("limit", limit + 1); // one extra to detect a next page
+
         var session = sessionFactory.openSession();
-        return new ArrayList<>(session.loadAll(GameState.class));
+        List<GameSummary> games = new ArrayList<>();
+        for (Map<String, Object> row : session.query(LIST_GAME_SUMMARIES, params)) {
+            String phase = (String) row.get("gamePhase");
+            Number turn = (Number) row.get("turnNumber");
+            Number lastPlayedAt = (Number) row.get("lastPlayedAt");
+            games.add(new GameSummary(
+                    (String) row.get("gameId"),
+                    (String) row.get("adventureName"),
+                    phase == null ? GameState.GamePhase.UNKNOWN : GameState.GamePhase.valueOf(phase),
+                    turn == null ? 0 : turn.intValue(),
+                    lastPlayedAt == null ? null : lastPlayedAt.longValue(),
+                    ((Number) row.get("playedAt")).longValue()));
+        }
+
+        if (games.size() > limit) {
+            games = games.subList(0, limit);
+            return new GameSummary.Page(games, games.get(limit - 1).cursor().encode());
+        }
+        return new GameSummary.Page(games, null);
     }
 
-    public void deleteGame(String gameId) {
-        var session = sessionFactory.openSession();
-        try (Transaction tx = session.beginTransaction()) {
-            // Delete all nodes related to this game
-            String cypher = """
-                    MATCH (n {gameId: $gameId})
-                    DETACH DELETE n
-                    """;
-            session.query(cypher, Map.of("gameId", gameId));
-
-            // Also delete chat memory for this game.
-            // - Gameplay memoryId: gameId
-            // - Character creation memoryId: gameId + "-character"
-            String memoryCypher = """
-                    MATCH (m:ChatMemory)
-                    WHERE m.id IN [$gameId, $characterMemoryId]
-                    DELETE m
-                    """;
-            session.query(memoryCypher, Map.of(
-                    "gameId", gameId,
-                    "characterMemoryId", gameId + "-character"));
+    /**
+     * Delete a game and all nodes that belong to it.
+     * Large games are deleted in the background; see {@link BulkDeleter}.
+     * Until the deletion completes the game is hidden from reads ({@link #isDeleting(String)}),
+     * so its caches can't be refilled from a partly deleted game.
+     */
+    public BulkDeleter.Deletion deleteGame(String gameId) {
+        deleting.add(gameId);
+        try {
+            writeBehind.drain(gameId); // don't let queued turn writes recreate nodes
+            writeBehind.reset(gameId);
+            invalidateGameCaches(gameId);
+            var deletion = bulkDeleter.delete("game " + gameId, deleteGameSteps(gameId));
+            deletion.completion().whenComplete((status, error) -> {
+                invalidateGameCaches(gameId);
+                deleting.remove(gameId);
+            });
+            return deletion;
+        } catch (RuntimeException e) {
+            deleting.remove(gameId);
+            throw e;
+        }
+    }
 
-            tx.commit();
+    /**
+     * @return true while the game's deletion is running
+     */
+    public boolean isDeleting(String gameId) {
+        return deleting.contains(gameId);
+    }
+
+    private void rejectIfDeleting(String gameId) {
+        if (isDeleting(gameId)) {
+            throw new IllegalStateException("Game %s is being deleted".formatted(gameId));
         }
+    }
 
-        // Clear caches for this gameId
-        partyCache.remove(gameId);
-        playerActorCache.remove(gameId);
+    /**
+     * Nodes belonging to a game, label by label (each step can use an index).
+     * The Game node goes first so the game disappears from listings immediately.
+     */
+    static List<BulkDeleter.Step> deleteGameSteps(String gameId) {
+        Map<String, Object> params = Map.of("gameId", gameId);
+        return List.of(
+                new BulkDeleter.Step("Game", "MATCH (n:Game {gameId: $gameId})", params),
+                new BulkDeleter.Step("Event", "MATCH (n:Event {gameId: $gameId})", params),
+                new BulkDeleter.Step("Actor", "MATCH (n:Actor {gameId: $gameId})", params),
+                new BulkDeleter.Step("Location", "MATCH (n:Location {gameId: $gameId})", params),
+                new BulkDeleter.Step("Tag", "MATCH (n:Tag {gameId: $gameId}) WHERE n.name IS NOT NULL", params),
+                new BulkDeleter.Step("PlayMessage", "MATCH (n:PlayMessage {gameId: $gameId}) WHERE n.seq IS NOT NULL", params),
+                new BulkDeleter.Step("GameLease", "MATCH (n:GameLease {gameId: $gameId})", params),
+                // Chat memory: gameplay memoryId is gameId, character creation is gameId + "-character"
+                new BulkDeleter.Step("ChatMemory", "MATCH (n:ChatMemory) WHERE n.id IN $memoryIds",
+                        Map.of("memoryIds", List.of(gameId, gameId + "-character"))));
     }
 
     // ========= ACTORS ===============
 
     public List<Actor> findTheParty(String gameId) {
-        return partyCache.computeIfAbsent(gameId, this::loadTheParty);
+        if (isDeleting(gameId)) {
+            return List.of();
+        }
+        return partyCache.get(gameId, this::loadTheParty).await().indefinitely();
     }
 
     public List<Actor> refreshTheParty(String gameId) {
         // clear caches (refreshParty command)
-        partyCache.remove(gameId);
-        playerActorCache.remove(gameId);
+        invalidateActorCaches(gameId);
         return findTheParty(gameId);
     }
 
     private List<Actor> loadTheParty(String gameId) {
         var session = sessionFactory.openSession();
         // PlayerActors + Actors tagged as "party" or "player-controlled"
-        String cypher = """
-                MATCH (a {gameId: $gameId})
-                WHERE a:PlayerActor OR (a:Actor AND ('party' IN a.tags OR 'player-controlled' IN a.tags))
-                RETURN a
-                """;
-        Iterable<Actor> result = session.query(Actor.class, cypher, Map.of("gameId", gameId));
+        Iterable<Actor> result = session.query(Actor.class, FIND_PARTY, Map.of("gameId", gameId));
         List<Actor> party = new ArrayList<>();
         result.forEach(party::add);
         return party;
     }
 
     public List<PlayerActor> listPlayerActors(String gameId) {
-        return playerActorCache.computeIfAbsent(gameId, k -> {
-            var session = sessionFactory.openSession();
-            String cypher = """
-                    MATCH (a:PlayerActor {gameId: $gameId})
-                    RETURN a
-                    """;
-            Iterable<PlayerActor> result = session.query(PlayerActor.class, cypher, Map.of("gameId", gameId));
-            List<PlayerActor> actors = new ArrayList<>();
-            result.forEach(actors::add);
-            return actors;
-        });
+        if (isDeleting(gameId)) {
+            return List.of();
+        }
+        return playerActorCache.get(gameId, this::loadPlayerActors).await().indefinitely();
+    }
+
+    private List<PlayerActor> loadPlayerActors(String gameId) {
+        var session = sessionFactory.openSession();
+        Iterable<PlayerActor> result = session.query(PlayerActor.class, LIST_PLAYER_ACTORS, Map.of("gameId", gameId));
+        List<PlayerActor> actors = new ArrayList<>();
+        result.forEach(actors::add);
+        return actors;
     }
 
     public PlayerActor findPlayerActorByNameOrAlias(String gameId, String nameOrAlias) {
+        if (isDeleting(gameId)) {
+            return null;
+        }
         var session = sessionFactory.openSession();
         String normalized = normalize(nameOrAlias);
-        String cypher = """
-                MATCH (a:PlayerActor {gameId: $gameId})
-                WHERE a.normalizedName = $name OR $name IN a.aliases
-                RETURN a
-                LIMIT 1
-                """;
-        return session.queryForObject(PlayerActor.class, cypher, Map.of("gameId", gameId, "name", normalized));
+        return session.queryForObject(PlayerActor.class, FIND_PLAYER_ACTOR_BY_NAME,
+                Map.of("gameId", gameId, "name", normalized));
     }
 
     public boolean hasProtagonists(String gameId) {
@@ -164,12 +438,11 @@ public class GameRepository {
     }
 
     public List<Actor> listActors(String gameId) {
+        if (isDeleting(gameId)) {
+            return List.of();
+        }
         var session = sessionFactory.openSession();
-        String cypher = """
-                MATCH (a:Actor {gameId: $gameId})
-                RETURN a
-                """;
-        Iterable<Actor> result = session.query(Actor.class, cypher, Map.of("gameId", gameId));
+        Iterable<Actor> result = session.query(Actor.class, LIST_ACTORS, Map.of("gameId", gameId));
         List<Actor> actors = new ArrayList<>();
         result.forEach(actors::add);
         return actors;
@@ -179,35 +452,25 @@ public class GameRepository {
         var session = sessionFactory.openSession();
         try (Transaction tx = session.beginTransaction()) {
             session.save(actor);
+            syncTags(session, actor, -1, new HashSet<>());
             tx.commit();
             actor.markClean();
         }
+        invalidateActorCaches(actor.getGameId());
     }
 
     public Actor findActorByNameOrAlias(String gameId, String nameOrAlias) {
         var session = sessionFactory.openSession();
         String normalized = normalize(nameOrAlias);
-        String cypher = """
-                MATCH (a {gameId: $gameId})
-                WHERE (a:Actor OR a:PlayerActor)
-                  AND (a.normalizedName = $name OR $name IN a.aliases)
-                RETURN a
-                LIMIT 1
-                """;
         // Use query() instead of queryForObject() for polymorphic resolution
-        Iterable<Actor> result = session.query(Actor.class, cypher, Map.of("gameId", gameId, "name", normalized));
+        Iterable<Actor> result = session.query(Actor.class, FIND_ACTOR_BY_NAME, Map.of("gameId", gameId, "name", normalized));
         return result.iterator().hasNext() ? result.iterator().next() : null;
     }
 
     public List<Actor> findActorsByTag(String gameId, String tag) {
         var session = sessionFactory.openSession();
         String normalized = normalize(tag);
-        String cypher = """
-                MATCH (a:Actor {gameId: $gameId})
-                WHERE $tag IN a.tags
-                RETURN a
-                """;
-        Iterable<Actor> result = session.query(Actor.class, cypher, Map.of("gameId", gameId, "tag", normalized));
+        Iterable<Actor> result = session.query(Actor.class, FIND_ACTORS_BY_TAG, Map.of("gameId", gameId, "tag", normalized));
         List<Actor> actors = new ArrayList<>();
         result.forEach(actors::add);
         return actors;
@@ -216,12 +479,11 @@ public class GameRepository {
     // ========= LOCATIONS ===============
 
     public List<Location> listLocations(String gameId) {
+        if (isDeleting(gameId)) {
+            return List.of();
+        }
         var session = sessionFactory.openSession();
-        String cypher = """
-                MATCH (l:Location {gameId: $gameId})
-                RETURN l
-                """;
-        Iterable<Location> result = session.query(Location.class, cypher, Map.of("gameId", gameId));
+        Iterable<Location> result = session.query(Location.class, LIST_LOCATIONS, Map.of("gameId", gameId));
         List<Location> locations = new ArrayList<>();
         result.forEach(locations::add);
         return locations;
@@ -230,24 +492,15 @@ public class GameRepository {
     public Location findLocationByNameOrAlias(String gameId, String nameOrAlias) {
         var session = sessionFactory.openSession();
         String normalized = normalize(nameOrAlias);
-        String cypher = """
-                MATCH (l:Location {gameId: $gameId})
-                WHERE l.normalizedName = $name OR $name IN l.aliases
-                RETURN l
-                LIMIT 1
-                """;
-        return session.queryForObject(Location.class, cypher, Map.of("gameId", gameId, "name", normalized));
+        return session.queryForObject(Location.class, FIND_LOCATION_BY_NAME,
+                Map.of("gameId", gameId, "name", normalized));
     }
 
     public List<Location> findLocationsByTag(String gameId, String tag) {
         var session = sessionFactory.openSession();
         String normalized = normalize(tag);
-        String cypher = """
-                MATCH (l:Location {gameId: $gameId})
-                WHERE $tag IN l.tags
-                RETURN l
-                """;
-        Iterable<Location> result = session.query(Location.class, cypher, Map.of("gameId", gameId, "tag", normalized));
+        Iterable<Location> result = session.query(Location.class, FIND_LOCATIONS_BY_TAG,
+                Map.of("gameId", gameId, "tag", normalized));
         List<Location> locations = new ArrayList<>();
         result.forEach(locations::add);
         return locations;
@@ -256,48 +509,247 @@ public class GameRepository {
     // ========= EVENTS ===============
 
     public List<Event> listEvents(String gameId) {
+        if (isDeleting(gameId)) {
+            return List.of();
+        }
         var session = sessionFactory.openSession();
-        String cypher = """
-                MATCH (e:Event {gameId: $gameId})
-                RETURN e
-                ORDER BY e.turnNumber
-                """;
-        Iterable<Event> result = session.query(Event.class, cypher, Map.of("gameId", gameId));
+        Iterable<Event> result = session.query(Event.class, LIST_EVENTS, Map.of("gameId", gameId));
         List<Event> events = new ArrayList<>();
         result.forEach(e -> events.add(session.load(Event.class, e.getId(), 1)));
         return events;
     }
 
+    /**
+     * @return the most recent event for the game (with participants and locations), or null
+     */
+    public Event findLatestEvent(String gameId) {
+        var session = sessionFactory.openSession();
+        Event latest = session.queryForObject(Event.class, FIND_LATEST_EVENT, Map.of("gameId", gameId));
+        return latest == null ? null : session.load(Event.class, latest.getId(), 1);
+    }
+
+    /**
+     * @return the rolling summary of play that has left the GM's chat memory, or null
+     */
+    public Event findMemorySummary(String gameId) {
+        var session = sessionFactory.openSession();
+        return session.queryForObject(Event.class, FIND_MEMORY_SUMMARY,
+                Map.of("gameId", gameId, "tag", Event.MEMORY_SUMMARY_TAG));
+    }
+
     public List<Event> findEventsByTag(String gameId, String tag) {
         var session = sessionFactory.openSession();
         String normalized = normalize(tag);
-        String cypher = """
-                MATCH (e:Event {gameId: $gameId})
-                WHERE $tag IN e.tags
-                RETURN e
-                ORDER BY e.turnNumber
-                """;
-        Iterable<Event> result = session.query(Event.class, cypher, Map.of("gameId", gameId, "tag", normalized));
+        Iterable<Event> result = session.query(Event.class, FIND_EVENTS_BY_TAG, Map.of("gameId", gameId, "tag", normalized));
         List<Event> events = new ArrayList<>();
         result.forEach(events::add);
         return events;
     }
 
+    // ========= PLAY HISTORY ===============
+
+    public void savePlayMessage(PlayMessage message) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("gameId", message.gameId());
+        params.put("seq", message.seq());
+        params.put("role", message.role());
+        params.put("markdown", message.markdown());
+        params.put("html", message.html());
+        params.put("ts", message.ts().toEpochMilli());
+        var session = sessionFactory.openSession();
+        try (Transaction tx = session.beginTransaction()) {
+            session.query(SAVE_PLAY_MESSAGE, params);
+            tx.commit();
+        }
+    }
+
+    /**
+     * @param before Only messages with a lower sequence number (Long.MAX_VALUE for the latest)
+     * @param limit Maximum number of messages
+     * @return the latest messages before {@code before}, oldest first
+     */
+    public List<PlayMessage> listPlayMessagesBefore(String gameId, long before, int limit) {
+        List<PlayMessage> messages = queryPlayMessages(gameId, LIST_PLAY_MESSAGES_BEFORE,
+                Map.of("gameId", gameId, "before", before, "limit", limit));
+        Collections.reverse(messages);
+        return messages;
+    }
+
+    /**
+     * @param after Only messages with a higher sequence number
+     * @param limit Maximum number of messages
+     * @return the first messages after {@code after}, oldest first
+     */
+    public List<PlayMessage> listPlayMessagesAfter(String gameId, long after, int limit) {
+        return queryPlayMessages(gameId, LIST_PLAY_MESSAGES_AFTER,
+                Map.of("gameId", gameId, "after", after, "limit", limit));
+    }
+
+    private List<PlayMessage> queryPlayMessages(String gameId, String cypher, Map<String, Object> params) {
+        if (isDeleting(gameId)) {
+            return new ArrayList<>();
+        }
+        var session = sessionFactory.openSession();
+        List<PlayMessage> messages = new ArrayList<>();
+        for (Map<String, Object> row : session.query(cypher, params)) {
+            messages.add(new PlayMessage(
+                    gameId,
+                    ((Number) row.get("seq")).longValue(),
+                    (String) row.get("role"),
+                    (String) row.get("markdown"),
+                    (String) row.get("html"),
+                    Instant.ofEpochMilli(((Number) row.get("ts")).longValue())));
+        }
+        return messages;
+    }
+
     public void saveAll(Collection<? extends BaseEntity> entities) {
         if (entities.isEmpty()) {
             return;
         }
 
+        // Only actor changes affect the party and player actor caches
+        Set<String> actorGames = new HashSet<>();
+        Set<BaseEntity> synced = new HashSet<>();
         var session = sessionFactory.openSession();
         try (Transaction tx = session.beginTransaction()) {
             for (var entity : entities) {
                 if (entity.isDirty()) {
                     session.save(entity, 1);
+                    syncTags(session, entity, 1, synced);
                     entity.markClean();
+                    if (entity instanceof Actor) {
+                        actorGames.add(entity.getGameId());
+                    }
                 }
             }
             tx.commit();
         }
+        actorGames.forEach(this::invalidateActorCaches);
     }
 
+    /**
+     * Sync tags of the entity and of the related entities saved with it: the save depth
+     * (-1 for unlimited) reaches event participants and locations, and the events of
+     * actors and locations. Entities already in {@code synced} are skipped.
+     */
+    private void syncTags(Session session, BaseEntity entity, int depth, Set<BaseEntity> synced) {
+        if (entity == null || !synced.add(entity)) {
+            return;
+        }
+        syncTags(session, entity);
+        if (depth == 0) {
+            return;
+        }
+        Collection<? extends BaseEntity> related = switch (entity) {
+            case Actor actor -> actor.getEvents();
+            case Location location -> location.getEvents();
+            case Event event -> {
+                List<BaseEntity> nested = new ArrayList<>();
+                if (event.getParticipants() != null) {
+                    nested.addAll(event.getParticipants());
+                }
+                if (event.getLocations() != null) {
+                    nested.addAll(event.getLocations());
+                }
+                yield nested;
+            }
+            default -> List.of();
+        };
+        if (related != null) {
+            for (var next : related) {
+                syncTags(session, next, depth - 1, synced);
+            }
+        }
+    }
+
+    /**
+     * Tags are also modeled as (:Tag {gameId, name}) nodes so tag lookups are an index seek.
+     * Call within the transaction that saves the entity.
+     */
+    private void syncTags(Session session, BaseEntity entity) {
+        String label;
+        String id;
+        if (entity instanceof Actor actor) {
+            label = "Actor";
+            id = actor.getId();
+        } else if (entity instanceof Location location) {
+            label = "Location";
+            id = location.getId();
+        } else if (entity instanceof Event event) {
+            label = "Event";
+            id = event.getId();
+        } else {
+            return;
+        }
+        session.query(SYNC_TAGS.formatted(label), Map.of(
+                "id", id,
+                "gameId", entity.getGameId(),
+                "tags", entity.getTags() == null ? List.of() : List.copyOf(entity.getTags())));
+    }
+
+    /**
+     * Compact JSON for the persistent part of the stash: <code>{"key":{"Type":{...}}}</code>,
+     * null fields omitted. Returns null if there is nothing to keep.
+     */
+    String encodeStash(Map<String, Stash> stash) {
+        ObjectNode root = objectMapper.createObjectNode();
+        stash.forEach((key, value) -> {
+            String type = value.getClass().getSimpleName();
+            if (STASH_TYPES.containsKey(type)) {
+                JsonNode node = objectMapper.valueToTree(value);
+                if (node instanceof ObjectNode object) {
+                    object.properties().removeIf(e -> e.getValue().isNull());
+                }
+                root.putObject(key).set(type, node);
+            }
+        });
+        if (root.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(root);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize stash: " + e.getMessage(), e);
+        }
+    }
+
+    private GameState restoreStash(GameState game) {
+        if (game == null || game.getStashData() == null || game.getStashData().isBlank()) {
+            return game;
+        }
+        try {
+            JsonNode root = objectMapper.readTree(game.getStashData());
+            root.properties().forEach(entry -> entry.getValue().properties().forEach(typed -> {
+                Class<? extends Stash> type = STASH_TYPES.get(typed.getKey());
+                if (type == null) {
+                    Log.warnf("Ignoring stash entry %s of unknown type %s for game %s",
+                            entry.getKey(), typed.getKey(), game.getGameId());
+                    return;
+                }
+                game.putStash(entry.getKey(), objectMapper.convertValue(typed.getValue(), type));
+            }));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            Log.warnf(e, "Ignoring unreadable stash for game %s", game.getGameId());
+        }
+        return game;
+    }
+
+    private void invalidateGameCaches(String gameId) {
+        sessionCache.invalidate(gameId).await().indefinitely();
+        cachesInvalidated.fire(new GameCachesInvalidated(gameId));
+        historyCache.invalidate(gameId).await().indefinitely();
+        invalidateActorCaches(gameId);
+    }
+
+    private void invalidateActorCaches(String gameId) {
+        partyCache.invalidate(gameId).await().indefinitely();
+        playerActorCache.invalidate(gameId).await().indefinitely();
+    }
+
+    /**
+     * @param gameId Game whose cached state was dropped (e.g. it is being deleted)
+     */
+    public record GameCachesInvalidated(String gameId) {
+    }
 }
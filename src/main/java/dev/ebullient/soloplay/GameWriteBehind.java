@@ -0,0 +1,160 @@
+package dev.ebullient.soloplay;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.logging.Log;
+
+/**
+ * Per-game write-behind queue for turn results.
+ *
+ * Writes for a game run in submission order on a virtual thread, so the player
+ * gets the GM's reply without waiting on Neo4j. Callers must {@link #await(String)}
+ * before starting the next turn (or reloading the game) so a turn's writes are
+ * durable before anything reads them.
+ *
+ * A failed write does not stop later writes for the game, but the game stays marked
+ * failed: every {@link #await(String)} reports the first failure until the game's state
+ * has been reloaded from Neo4j (or the game deleted) and {@link #reset(String)} is called.
+ * Later writes can't make up for the lost one, so the in-memory state must be discarded.
+ *
+ * Disabled with {@code campaign.write-behind.enabled=false}: writes then run inline.
+ */
+@ApplicationScoped
+public class GameWriteBehind {
+
+    @ConfigProperty(name = "campaign.write-behind.enabled", defaultValue = "true")
+    boolean enabled;
+
+    @ConfigProperty(name = "campaign.write-behind.flush-timeout", defaultValue = "30s")
+    Duration flushTimeout;
+
+    private final Map<String, Queue> queues = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Queue a write for a game; it runs after all previously submitted writes for that game.
+     *
+     * @param gameId Game the write belongs to
+     * @param description Short description, used in errors
+     * @param write Write to perform
+     */
+    public void submit(String gameId, String description, Runnable write) {
+        if (!enabled) {
+            write.run();
+            return;
+        }
+        queues.computeIfAbsent(gameId, k -> new Queue()).append(gameId, description, write, executor);
+    }
+
+    /**
+     * Wait for all queued writes for a game to complete.
+     *
+     * @throws IllegalStateException if a write for the game failed (since the last {@link #reset(String)}),
+     *         or queued writes did not finish within {@code campaign.write-behind.flush-timeout}
+     */
+    public void await(String gameId) {
+        Queue queue = queues.get(gameId);
+        if (queue == null) {
+            return;
+        }
+        try {
+            queue.tail().get(flushTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out saving game " + gameId + " after " + flushTimeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while saving game " + gameId, e);
+        } catch (ExecutionException e) {
+            // not expected: failures are captured per write
+            throw new IllegalStateException("Unable to save game " + gameId, e.getCause());
+        }
+        String failure = queue.failure();
+        if (failure != null) {
+            throw new IllegalStateException(failure);
+        }
+    }
+
+    /**
+     * Wait for queued writes for a game before reading it back from Neo4j (or deleting it).
+     * Failures are logged, not thrown; the game stays marked failed until {@link #reset(String)}.
+     */
+    public void drain(String gameId) {
+        try {
+            await(gameId);
+        } catch (IllegalStateException e) {
+            Log.warnf("Game %s has unsaved changes: %s", gameId, e.getMessage());
+            return;
+        }
+        queues.computeIfPresent(gameId, (k, q) -> q.idle() ? null : q);
+    }
+
+    /**
+     * Clear a game's failure once its state has been reloaded from Neo4j (or the game deleted):
+     * changes that could not be saved have been discarded.
+     */
+    public void reset(String gameId) {
+        queues.computeIfPresent(gameId, (k, q) -> {
+            q.clearFailure();
+            return q.idle() ? null : q;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        for (String gameId : queues.keySet()) {
+            drain(gameId);
+        }
+        executor.shutdown();
+    }
+
+    static class Queue {
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+        private String failure;
+
+        synchronized void append(String gameId, String description, Runnable write, ExecutorService executor) {
+            tail = tail.thenRunAsync(() -> {
+                try {
+                    write.run();
+                } catch (RuntimeException e) {
+                    Log.errorf(e, "Unable to save %s for game %s: %s", description, gameId, e.getMessage());
+                    fail("Unable to save " + description + ": " + e.getMessage());
+                }
+            }, executor);
+        }
+
+        synchronized CompletableFuture<Void> tail() {
+            return tail;
+        }
+
+        synchronized void fail(String message) {
+            if (failure == null) {
+                failure = message;
+            }
+        }
+
+        synchronized String failure() {
+            return failure;
+        }
+
+        synchronized void clearFailure() {
+            failure = null;
+        }
+
+        synchronized boolean idle() {
+            return failure == null && tail.isDone();
+        }
+    }
+}
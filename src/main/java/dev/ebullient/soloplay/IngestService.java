@@ -47,6 +47,9 @@ public class IngestService {
     @Inject
     MarkdownDocumentParser markdownParser;
 
+    @Inject
+    BulkDeleter bulkDeleter;
+
     public void ingestFile(String filename, String content) {
         Log.infof("Processing file: %s (size: %d bytes)", filename, content.length());
 
@@ -324,77 +327,21 @@ public class IngestService {
 
     /**
      * Delete all embeddings for a specific file.
-     * Returns the number of embeddings deleted.
+     * Large files are deleted in the background; see {@link BulkDeleter}.
      */
-    public int deleteFile(String sourceFile) {
-        var session = sessionFactory.openSession();
-        var tx = session.beginTransaction();
-
-        try {
-            String cypher = """
-                    MATCH (n:Document)
-                    WHERE n.sourceFile = $sourceFile
-                    WITH count(n) as deleteCount
-                    MATCH (n:Document)
-                    WHERE n.sourceFile = $sourceFile
-                    DETACH DELETE n
-                    RETURN deleteCount
-                    """;
-
-            Iterable<Map<String, Object>> results = session.query(cypher,
-                    Map.of("sourceFile", sourceFile));
-
-            int deleteCount = 0;
-            for (Map<String, Object> row : results) {
-                deleteCount = ((Long) row.get("deleteCount")).intValue();
-            }
-
-            tx.commit();
-            Log.infof("Deleted %d embeddings for file: %s", deleteCount, sourceFile);
-            return deleteCount;
-        } catch (Exception e) {
-            tx.rollback();
-            Log.errorf(e, "Error deleting file: %s", e.getMessage());
-            throw new RuntimeException("Failed to delete file: " + e.getMessage(), e);
-        } finally {
-            tx.close();
-        }
+    public BulkDeleter.Deletion deleteFile(String sourceFile) {
+        return bulkDeleter.delete("lore file " + sourceFile, List.of(
+                new BulkDeleter.Step("Document", "MATCH (n:Document {sourceFile: $sourceFile})",
+                        Map.of("sourceFile", sourceFile))));
     }
 
     /**
      * Delete all document embeddings.
-     * Returns the number of embeddings deleted.
+     * Large deletes run in the background; see {@link BulkDeleter}.
      */
-    public int deleteAllDocuments() {
-        var session = sessionFactory.openSession();
-        var tx = session.beginTransaction();
-
-        try {
-            String cypher = """
-                    MATCH (n:Document)
-                    WITH count(n) as deleteCount
-                    MATCH (n:Document)
-                    DETACH DELETE n
-                    RETURN deleteCount
-                    """;
-
-            Iterable<Map<String, Object>> results = session.query(cypher, Map.of());
-
-            int deleteCount = 0;
-            for (Map<String, Object> row : results) {
-                deleteCount = ((Long) row.get("deleteCount")).intValue();
-            }
-
-            tx.commit();
-            Log.infof("Deleted %d document embeddings", deleteCount);
-            return deleteCount;
-        } catch (Exception e) {
-            tx.rollback();
-            Log.errorf(e, "Error deleting documents: %s", e.getMessage());
-            throw new RuntimeException("Failed to delete documents: " + e.getMessage(), e);
-        } finally {
-            tx.close();
-        }
+    public BulkDeleter.Deletion deleteAllDocuments() {
+        return bulkDeleter.delete("all lore documents", List.of(
+                new BulkDeleter.Step("Document", "MATCH (n:Document)", Map.of())));
     }
 
     /**
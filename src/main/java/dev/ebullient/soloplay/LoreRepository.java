@@ -13,6 +13,46 @@ import io.quarkus.logging.Log;
 
 @ApplicationScoped
 public class LoreRepository {
+    static final String DOCUMENT_BY_FILENAME = """
+            MATCH (n:Document)
+            WHERE n.filename = $filename
+            RETURN n.text as text
+            ORDER BY n.sectionIndex, n.chunkIndex
+            """;
+
+    static final String LIST_ADVENTURES = """
+            MATCH (n:Document)
+            WHERE n.adventureName IS NOT NULL
+            RETURN DISTINCT n.adventureName as adventureName
+            ORDER BY adventureName
+            """;
+
+    static final String SEARCH_ADVENTURE_CONTENT = """
+            MATCH (n:Document)
+            WHERE n.adventureName = $adventureName
+              AND ('lore/adventure-part' IN n.tags OR 'lore/adventure-reference' IN n.tags)
+              AND toLower(n.text) CONTAINS toLower($keyword)
+            RETURN n.text as text, n.section as section
+            ORDER BY n.sectionIndex, n.chunkIndex
+            LIMIT $limit
+            """;
+
+    static final String LIST_ADVENTURE_FILES = """
+            MATCH (n:Document)
+            WHERE n.adventureName = $adventureName
+              AND n.filename IS NOT NULL
+            RETURN DISTINCT n.filename as filename
+            ORDER BY filename
+            """;
+
+    static final String LIST_ADVENTURE_CHAPTERS = """
+            MATCH (n:Document)
+            WHERE n.adventureName = $adventureName
+              AND n.chapterName IS NOT NULL
+            RETURN DISTINCT n.chapterNumber as chapterNumber, n.chapterName as chapterName
+            ORDER BY chapterNumber
+            """;
+
     @Inject
     SessionFactory sessionFactory;
 
@@ -27,14 +67,7 @@ public class LoreRepository {
         var session = sessionFactory.openSession();
 
         try {
-            String cypher = """
-                    MATCH (n:Document)
-                    WHERE n.filename = $filename
-                    RETURN n.text as text
-                    ORDER BY n.sectionIndex, n.chunkIndex
-                    """;
-
-            Iterable<Map<String, Object>> results = session.query(cypher, Map.of("filename", filename));
+            Iterable<Map<String, Object>> results = session.query(DOCUMENT_BY_FILENAME, Map.of("filename", filename));
 
             StringBuilder content = new StringBuilder();
             for (Map<String, Object> row : results) {
@@ -69,14 +102,7 @@ public class LoreRepository {
 
         try {
             // Query for documents with adventureName attribute
-            String cypher = """
-                    MATCH (n:Document)
-                    WHERE n.adventureName IS NOT NULL
-                    RETURN DISTINCT n.adventureName as adventureName
-                    ORDER BY adventureName
-                    """;
-
-            Iterable<Map<String, Object>> results = session.query(cypher, Map.of());
+            Iterable<Map<String, Object>> results = session.query(LIST_ADVENTURES, Map.of());
             results.forEach(row -> {
                 String adventureName = (String) row.get("adventureName");
                 if (adventureName != null && !adventureName.isBlank()) {
@@ -117,17 +143,7 @@ public class LoreRepository {
         List<String> results = new ArrayList<>();
 
         try {
-            String cypher = """
-                    MATCH (n:Document)
-                    WHERE n.adventureName = $adventureName
-                      AND ('lore/adventure-part' IN n.tags OR 'lore/adventure-reference' IN n.tags)
-                      AND toLower(n.text) CONTAINS toLower($keyword)
-                    RETURN n.text as text, n.section as section
-                    ORDER BY n.sectionIndex, n.chunkIndex
-                    LIMIT $limit
-                    """;
-
-            Iterable<Map<String, Object>> rows = session.query(cypher, Map.of(
+            Iterable<Map<String, Object>> rows = session.query(SEARCH_ADVENTURE_CONTENT, Map.of(
                     "adventureName", adventureName,
                     "keyword", keyword,
                     "limit", limit));
@@ -156,15 +172,7 @@ public class LoreRepository {
         List<String> results = new ArrayList<>();
 
         try {
-            String cypher = """
-                    MATCH (n:Document)
-                    WHERE n.adventureName = $adventureName
-                      AND n.filename IS NOT NULL
-                    RETURN DISTINCT n.filename as filename
-                    ORDER BY filename
-                    """;
-
-            Iterable<Map<String, Object>> rows = session.query(cypher, Map.of(
+            Iterable<Map<String, Object>> rows = session.query(LIST_ADVENTURE_FILES, Map.of(
                     "adventureName", adventureName));
 
             for (Map<String, Object> row : rows) {
@@ -191,15 +199,7 @@ public class LoreRepository {
         List<String> results = new ArrayList<>();
 
         try {
-            String cypher = """
-                    MATCH (n:Document)
-                    WHERE n.adventureName = $adventureName
-                      AND n.chapterName IS NOT NULL
-                    RETURN DISTINCT n.chapterNumber as chapterNumber, n.chapterName as chapterName
-                    ORDER BY chapterNumber
-                    """;
-
-            Iterable<Map<String, Object>> rows = session.query(cypher, Map.of(
+            Iterable<Map<String, Object>> rows = session.query(LIST_ADVENTURE_CHAPTERS, Map.of(
                     "adventureName", adventureName));
 
             for (Map<String, Object> row : rows) {
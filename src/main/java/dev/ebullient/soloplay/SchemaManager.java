@@ -0,0 +1,266 @@
+package dev.ebullient.soloplay;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Session;
+
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.StartupEvent;
+
+/**
+ * Applies versioned Neo4j schema migrations (indexes and constraints) at startup,
+ * and verifies that the vector index used for lore retrieval matches the
+ * configured embedding dimension.
+ *
+ * Migrations live in {@code src/main/resources/neo4j/migrations}. Each applied
+ * migration is recorded as a {@code (:SchemaMigration {version})} node.
+ */
+@ApplicationScoped
+public class SchemaManager {
+    static final String MIGRATION_PATH = "neo4j/migrations/";
+    static final int INDEX_TIMEOUT_SECONDS = 300;
+
+    /**
+     * Ordered list of migrations. Append new files here; never edit a migration that has shipped.
+     */
+    static final List<String> MIGRATIONS = List.of(
+            "V001__baseline.cypher",
+            "V002__normalized_name_indexes.cypher",
+            "V003__tag_nodes.cypher",
+            "V004__play_messages.cypher",
+            "V005__game_leases.cypher",
+            "V006__game_played_at.cypher");
+
+    @Inject
+    Driver driver;
+
+    @ConfigProperty(name = "campaign.schema.migrate", defaultValue = "true")
+    boolean migrate;
+
+    @ConfigProperty(name = "quarkus.langchain4j.neo4j.index-name", defaultValue = "document-index")
+    String vectorIndexName;
+
+    @ConfigProperty(name = "quarkus.langchain4j.neo4j.label", defaultValue = "Document")
+    String vectorLabel;
+
+    @ConfigProperty(name = "quarkus.langchain4j.neo4j.embedding-property", defaultValue = "embedding")
+    String vectorProperty;
+
+    @ConfigProperty(name = "quarkus.langchain4j.neo4j.dimension")
+    int dimension;
+
+    void onStart(@Observes StartupEvent event) {
+        if (!migrate) {
+            Log.info("Neo4j schema migrations are disabled (campaign.schema.migrate=false)");
+            return;
+        }
+        migrate();
+        verifyVectorIndex();
+    }
+
+    /**
+     * Apply all pending migrations in order.
+     *
+     * @return the schema version after migration
+     */
+    public int migrate() {
+        try (Session session = driver.session()) {
+            int current = currentVersion(session);
+            int applied = 0;
+            for (Migration migration : migrations()) {
+                if (migration.version() <= current) {
+                    continue;
+                }
+                Log.infof("Applying Neo4j schema migration %d: %s", migration.version(), migration.description());
+                for (String statement : migration.statements()) {
+                    // Schema commands can't share a transaction with writes: run each in auto-commit
+                    session.run(statement).consume();
+                }
+                session.run("""
+                        MERGE (m:SchemaMigration {version: $version})
+                        SET m.description = $description,
+                            m.appliedAt = $appliedAt
+                        """,
+                        Map.of(
+                                "version", migration.version(),
+                                "description", migration.description(),
+                                "appliedAt", Instant.now().toEpochMilli()))
+                        .consume();
+                current = migration.version();
+                applied++;
+            }
+            if (applied > 0) {
+                // New indexes populate in the background; queries planned before they are online use scans
+                session.run("CALL db.awaitIndexes($timeout)", Map.of("timeout", INDEX_TIMEOUT_SECONDS)).consume();
+            }
+            Log.infof("Neo4j schema is at version %d", current);
+            return current;
+        }
+    }
+
+    /**
+     * Ensure the vector index exists and uses the configured dimension.
+     * The index is created if it is missing; a dimension mismatch is a fatal configuration error.
+     */
+    public void verifyVectorIndex() {
+        try (Session session = driver.session()) {
+            var result = session.run("""
+                    SHOW INDEXES YIELD name, type, options
+                    WHERE name = $name
+                    RETURN type, options
+                    """, Map.of("name", vectorIndexName)).list();
+
+            if (result.isEmpty()) {
+                Log.infof("Creating vector index %s (%s.%s, dimension %d)",
+                        vectorIndexName, vectorLabel, vectorProperty, dimension);
+                session.run("""
+                        CREATE VECTOR INDEX `%s` IF NOT EXISTS
+                        FOR (n:%s) ON (n.%s)
+                        OPTIONS {indexConfig: {`vector.dimensions`: %d, `vector.similarity_function`: 'cosine'}}
+                        """.formatted(vectorIndexName, vectorLabel, vectorProperty, dimension))
+                        .consume();
+                return;
+            }
+
+            Record index = result.get(0);
+            String type = index.get("type").asString();
+            if (!"VECTOR".equals(type)) {
+                throw new IllegalStateException("Index %s exists but is a %s index, not a vector index"
+                        .formatted(vectorIndexName, type));
+            }
+            Object indexConfig = index.get("options").asMap().get("indexConfig");
+            Object configured = indexConfig instanceof Map<?, ?> map ? map.get("vector.dimensions") : null;
+            if (!(configured instanceof Number actual) || actual.intValue() != dimension) {
+                throw new IllegalStateException("""
+                        Vector index %s has dimension %s, but quarkus.langchain4j.neo4j.dimension=%d.
+                        Drop the index and re-ingest documents after changing the embedding model."""
+                        .formatted(vectorIndexName, configured, dimension));
+            }
+            Log.debugf("Vector index %s verified (dimension %d)", vectorIndexName, dimension);
+        }
+    }
+
+    private int currentVersion(Session session) {
+        return session.run("""
+                MATCH (m:SchemaMigration)
+                RETURN coalesce(max(m.version), 0) AS version
+                """)
+                .single()
+                .get("version")
+                .asInt();
+    }
+
+    static List<Migration> migrations() {
+        List<Migration> migrations = new ArrayList<>();
+        for (String filename : MIGRATIONS) {
+            migrations.add(Migration.from(filename, readResource(MIGRATION_PATH + filename)));
+        }
+        return migrations;
+    }
+
+    private static String readResource(String path) {
+        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing schema migration resource: " + path);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read schema migration: " + path, e);
+        }
+    }
+
+    /**
+     * A single versioned migration.
+     *
+     * @param version Version parsed from the filename (V001__... → 1)
+     * @param description Description parsed from the filename
+     * @param statements Cypher statements, in order
+     */
+    record Migration(int version, String description, List<String> statements) {
+
+        static Migration from(String filename, String content) {
+            if (!filename.matches("V\\d+__.+\\.cypher")) {
+                throw new IllegalArgumentException("Invalid migration filename: " + filename);
+            }
+            int separator = filename.indexOf("__");
+            int version = Integer.parseInt(filename.substring(1, separator));
+            String description = filename.substring(separator + 2, filename.length() - ".cypher".length())
+                    .replace('_', ' ');
+            return new Migration(version, description, parseStatements(content));
+        }
+
+        /**
+         * Split a migration into statements on {@code ;} outside string literals,
+         * quoted identifiers, and comments. Comments are dropped.
+         */
+        static List<String> parseStatements(String content) {
+            List<String> statements = new ArrayList<>();
+            StringBuilder sb = new StringBuilder();
+            int i = 0;
+            while (i < content.length()) {
+                char c = content.charAt(i);
+                if (c == '/' && content.startsWith("//", i)) {
+                    int end = content.indexOf('\n', i);
+                    i = end < 0 ? content.length() : end;
+                } else if (c == '/' && content.startsWith("/*", i)) {
+                    int end = content.indexOf("*/", i + 2);
+                    if (end < 0) {
+                        throw new IllegalArgumentException("Unterminated comment in migration");
+                    }
+                    sb.append(' ');
+                    i = end + 2;
+                } else if (c == '\'' || c == '"' || c == '`') {
+                    int end = closingQuote(content, i);
+                    sb.append(content, i, end + 1);
+                    i = end + 1;
+                } else if (c == ';') {
+                    addStatement(statements, sb);
+                    i++;
+                } else {
+                    sb.append(c);
+                    i++;
+                }
+            }
+            addStatement(statements, sb);
+            return statements;
+        }
+
+        private static int closingQuote(String content, int start) {
+            char quote = content.charAt(start);
+            for (int i = start + 1; i < content.length(); i++) {
+                char c = content.charAt(i);
+                if (c == '\\' && quote != '`') {
+                    i++; // escaped character
+                } else if (c == quote) {
+                    if (quote == '`' && i + 1 < content.length() && content.charAt(i + 1) == '`') {
+                        i++; // doubled backtick
+                    } else {
+                        return i;
+                    }
+                }
+            }
+            throw new IllegalArgumentException("Unterminated %s in migration".formatted(
+                    quote == '`' ? "quoted identifier" : "string literal"));
+        }
+
+        private static void addStatement(List<String> statements, StringBuilder sb) {
+            if (!sb.toString().isBlank()) {
+                statements.add(sb.toString().trim());
+            }
+            sb.setLength(0);
+        }
+    }
+}
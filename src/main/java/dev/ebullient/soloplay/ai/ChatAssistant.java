@@ -11,7 +11,8 @@ import io.quarkiverse.langchain4j.RegisterAiService;
         Be conversational and friendly. Provide clear, concise answers.
         When uncertain, say so rather than guessing.
         """)
-@RegisterAiService(chatMemoryProviderSupplier = RegisterAiService.NoChatMemoryProviderSupplier.class)
+@RegisterAiService(chatLanguageModelSupplier = StructuredOutput.ChatModelSupplier.class, //
+        chatMemoryProviderSupplier = RegisterAiService.NoChatMemoryProviderSupplier.class)
 @OutputGuardrails(JsonChatResponseGuardrail.class)
 public interface ChatAssistant {
 
@@ -0,0 +1,32 @@
+package dev.ebullient.soloplay.ai;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counts responses rejected by the output guardrails
+ * ({@code soloplay.guardrail.failures{guardrail, reason}}), and invalid JSON
+ * responses that were repaired locally instead ({@code soloplay.guardrail.repairs{guardrail}}).
+ * With schema-constrained output failures should be rare; a rising count means the
+ * model (or the schema) needs attention.
+ */
+@ApplicationScoped
+public class GuardrailMetrics {
+    public static final String INVALID_JSON = "invalid_json";
+    public static final String INVALID_CONTENT = "invalid_content";
+
+    @Inject
+    MeterRegistry registry;
+
+    public void failure(String guardrail, String reason) {
+        registry.counter("soloplay.guardrail.failures", "guardrail", guardrail, "reason", reason)
+                .increment();
+    }
+
+    public void repaired(String guardrail) {
+        registry.counter("soloplay.guardrail.repairs", "guardrail", guardrail)
+                .increment();
+    }
+}
@@ -0,0 +1,214 @@
+package dev.ebullient.soloplay.ai;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Incremental JSON tokenizer for responses that arrive as a stream of partial chunks.
+ *
+ * Watches for one top-level string field (e.g. "narration") and passes its unescaped
+ * text to a sink as it arrives. Every chunk is scanned exactly once; keys and escape
+ * sequences may be split across chunks. Nested objects and arrays are skipped
+ * (a nested field with the same name is not matched).
+ *
+ * The complete response is buffered so it can be parsed and validated once the
+ * stream ends ({@link #json()}).
+ */
+public class IncrementalJsonParser implements Consumer<String> {
+
+    enum State {
+        /** Between tokens */
+        STRUCTURE,
+        /** Inside a string */
+        STRING,
+        /** After a backslash inside a string */
+        ESCAPE,
+        /** Reading the four hex digits of a unicode escape */
+        UNICODE
+    }
+
+    private final String field;
+    private final Consumer<String> sink;
+
+    private final StringBuilder json = new StringBuilder();
+    private final StringBuilder text = new StringBuilder();
+    /** Reused for the text emitted from each chunk */
+    private final StringBuilder out = new StringBuilder();
+
+    private State state = State.STRUCTURE;
+    /** For each open container: true if it is an object, false if it is an array */
+    private boolean[] objects = new boolean[8];
+    private int depth;
+
+    /** The next string in the current object is a key */
+    private boolean expectKey;
+    /** The current string is a top-level key */
+    private boolean inKey;
+    /** Characters of the current key matched against the field name so far; -1 once it can't match */
+    private int keyMatch;
+    /** The last top-level key was the watched field */
+    private boolean fieldKey;
+    /** The current string is the watched field's value */
+    private boolean inValue;
+    private boolean complete;
+
+    private int unicodeDigits;
+    private int unicodeValue;
+
+    public IncrementalJsonParser(String field, Consumer<String> sink) {
+        this.field = field;
+        this.sink = sink;
+    }
+
+    @Override
+    public void accept(String chunk) {
+        if (chunk == null || chunk.isEmpty()) {
+            return;
+        }
+        json.append(chunk);
+        if (complete) {
+            return; // nothing left to extract; just buffer
+        }
+
+        out.setLength(0);
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            switch (state) {
+                case STRUCTURE -> structure(c);
+                case STRING -> {
+                    if (c == '"') {
+                        endString();
+                    } else if (c == '\\') {
+                        state = State.ESCAPE;
+                    } else {
+                        stringChar(c);
+                    }
+                }
+                case ESCAPE -> {
+                    if (c == 'u') {
+                        unicodeDigits = 0;
+                        unicodeValue = 0;
+                        state = State.UNICODE;
+                    } else {
+                        state = State.STRING;
+                        stringChar(switch (c) {
+                            case 'n' -> '\n';
+                            case 't' -> '\t';
+                            case 'r' -> '\r';
+                            case 'b' -> '\b';
+                            case 'f' -> '\f';
+                            default -> c; // \" \\ \/
+                        });
+                    }
+                }
+                case UNICODE -> {
+                    int digit = Character.digit(c, 16);
+                    unicodeValue = (unicodeValue << 4) | Math.max(digit, 0);
+                    if (++unicodeDigits == 4) {
+                        state = State.STRING;
+                        stringChar((char) unicodeValue);
+                    }
+                }
+            }
+        }
+
+        if (!out.isEmpty()) {
+            text.append(out);
+            sink.accept(out.toString());
+        }
+    }
+
+    private void structure(char c) {
+        switch (c) {
+            case '{' -> push(true);
+            case '[' -> push(false);
+            case '}', ']' -> {
+                if (depth > 0) {
+                    depth--;
+                }
+                expectKey = false;
+            }
+            case ',' -> {
+                expectKey = depth > 0 && objects[depth - 1];
+                if (depth == 1) {
+                    fieldKey = false;
+                }
+            }
+            case ':' -> expectKey = false;
+            case '"' -> startString();
+            default -> {
+                // whitespace, numbers, true/false/null
+            }
+        }
+    }
+
+    private void push(boolean object) {
+        if (depth == objects.length) {
+            objects = Arrays.copyOf(objects, depth * 2);
+        }
+        objects[depth++] = object;
+        expectKey = object;
+    }
+
+    private void startString() {
+        state = State.STRING;
+        if (depth != 1) {
+            return;
+        }
+        if (expectKey) {
+            inKey = true;
+            keyMatch = 0;
+        } else if (fieldKey) {
+            inValue = true;
+        }
+    }
+
+    private void stringChar(char c) {
+        if (inValue) {
+            out.append(c);
+        } else if (inKey && keyMatch >= 0) {
+            keyMatch = keyMatch < field.length() && field.charAt(keyMatch) == c
+                    ? keyMatch + 1
+                    : -1;
+        }
+    }
+
+    private void endString() {
+        state = State.STRUCTURE;
+        if (inKey) {
+            fieldKey = keyMatch == field.length();
+            inKey = false;
+        } else if (inValue) {
+            inValue = false;
+            complete = true;
+        }
+    }
+
+    /**
+     * @return true if any of the field value has been emitted
+     */
+    public boolean streamed() {
+        return !text.isEmpty();
+    }
+
+    /**
+     * @return true once the closing quote of the field value has been seen
+     */
+    public boolean fieldComplete() {
+        return complete;
+    }
+
+    /**
+     * @return field text emitted so far
+     */
+    public String text() {
+        return text.toString();
+    }
+
+    /**
+     * @return the complete response received so far
+     */
+    public String json() {
+        return json.toString();
+    }
+}
@@ -0,0 +1,150 @@
+package dev.ebullient.soloplay.ai;
+
+import java.util.Arrays;
+
+/**
+ * Deterministic repair of the mechanical mistakes small models make when emitting JSON:
+ *
+ * <ul>
+ * <li>Markdown code fences or prose around the object</li>
+ * <li>Raw newlines, tabs and other control characters inside strings</li>
+ * <li>Trailing commas before a closing brace or bracket</li>
+ * <li>Truncation: an unterminated string, a dangling comma or colon, unclosed objects and arrays</li>
+ * </ul>
+ *
+ * The result is not guaranteed to be valid JSON; callers should parse it again and
+ * fall back to reprompting if that fails.
+ */
+public final class JsonRepair {
+
+    private JsonRepair() {
+    }
+
+    /**
+     * @param json Response text
+     * @return the repaired text (unchanged if there was nothing to repair)
+     */
+    public static String repair(String json) {
+        if (json == null) {
+            return null;
+        }
+        String text = stripFences(json.strip());
+        int start = firstContainer(text);
+        if (start < 0) {
+            return json;
+        }
+
+        StringBuilder out = new StringBuilder(text.length() + 16);
+        char[] stack = new char[16];
+        int depth = 0;
+        boolean inString = false;
+        boolean escape = false;
+
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (inString) {
+                if (escape) {
+                    out.append(c);
+                    escape = false;
+                } else if (c == '\\') {
+                    out.append(c);
+                    escape = true;
+                } else if (c == '"') {
+                    out.append(c);
+                    inString = false;
+                } else if (c == '\n') {
+                    out.append("\\n");
+                } else if (c == '\r') {
+                    out.append("\\r");
+                } else if (c == '\t') {
+                    out.append("\\t");
+                } else if (c < 0x20) {
+                    out.append(String.format("\\u%04x", (int) c));
+                } else {
+                    out.append(c);
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> {
+                    inString = true;
+                    out.append(c);
+                }
+                case '{', '[' -> {
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+                    stack[depth++] = c == '{' ? '}' : ']';
+                    out.append(c);
+                }
+                case '}', ']' -> {
+                    dropTrailingComma(out);
+                    if (depth > 0) {
+                        depth--;
+                        out.append(stack[depth]);
+                    }
+                    if (depth == 0) {
+                        return out.toString(); // ignore anything after the root value
+                    }
+                }
+                default -> out.append(c);
+            }
+        }
+
+        // Truncated: close whatever is still open
+        if (inString) {
+            if (escape) {
+                out.setLength(out.length() - 1);
+            }
+            out.append('"');
+        }
+        int last = lastNonWhitespace(out);
+        if (last >= 0 && out.charAt(last) == ':') {
+            out.append("null");
+        }
+        while (depth > 0) {
+            dropTrailingComma(out);
+            out.append(stack[--depth]);
+        }
+        return out.toString();
+    }
+
+    static String stripFences(String text) {
+        if (!text.startsWith("```")) {
+            return text;
+        }
+        int firstLine = text.indexOf('\n');
+        if (firstLine < 0) {
+            return text;
+        }
+        String body = text.substring(firstLine + 1);
+        int end = body.lastIndexOf("```");
+        return end < 0 ? body : body.substring(0, end);
+    }
+
+    static int firstContainer(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '{' || c == '[') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static void dropTrailingComma(StringBuilder out) {
+        int last = lastNonWhitespace(out);
+        if (last >= 0 && out.charAt(last) == ',') {
+            out.setLength(last);
+        }
+    }
+
+    static int lastNonWhitespace(StringBuilder out) {
+        int i = out.length() - 1;
+        while (i >= 0 && Character.isWhitespace(out.charAt(i))) {
+            i--;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,103 @@
+package dev.ebullient.soloplay.ai;
+
+import jakarta.inject.Inject;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.guardrail.OutputGuardrail;
+import dev.langchain4j.guardrail.OutputGuardrailResult;
+import io.quarkus.logging.Log;
+
+/**
+ * Shared validation for AI services that return a JSON object.
+ *
+ * Invalid JSON is first run through {@link JsonRepair}; the model is only asked
+ * for another generation if the repaired text still can't be parsed or the parsed
+ * response fails {@link #problem(Object)}. Repairs and failures are counted
+ * separately ({@link GuardrailMetrics}).
+ *
+ * @param <T> Response type
+ */
+public abstract class JsonResponseGuardrail<T> implements OutputGuardrail {
+    /**
+     * The default message to use when reprompting (JsonExtractorOutputGuardrail)
+     */
+    public static final String REPROMPT_MESSAGE = "Invalid JSON";
+
+    /**
+     * The default prompt to append to the LLM during a reprompt (JsonExtractorOutputGuardrail)
+     */
+    public static final String REPROMPT_PROMPT = "Make sure you return a valid JSON object following the specified format";
+
+    @Inject
+    protected ObjectMapper objectMapper;
+
+    @Inject
+    protected GuardrailMetrics metrics;
+
+    /**
+     * @return guardrail name, used as a metric tag
+     */
+    protected abstract String name();
+
+    protected abstract Class<T> responseType();
+
+    /**
+     * @return a description of the problem with a parsed response, or null if it is acceptable
+     */
+    protected String problem(T response) {
+        return null;
+    }
+
+    @Override
+    public OutputGuardrailResult validate(AiMessage responseFromLLM) {
+        try {
+            T response = parse(responseFromLLM.text());
+            String problem = check(response);
+            if (problem != null) {
+                return reprompt(problem, REPROMPT_PROMPT);
+            }
+            return OutputGuardrailResult.successWith(responseFromLLM.text(), response);
+        } catch (JsonProcessingException e) {
+            return reprompt(REPROMPT_MESSAGE, e, REPROMPT_PROMPT);
+        }
+    }
+
+    /**
+     * Parse a complete (e.g. streamed) response, repairing it if necessary.
+     *
+     * @throws JsonProcessingException if the response could not be parsed, even after repair
+     */
+    public T parse(String json) throws JsonProcessingException {
+        try {
+            return objectMapper.readValue(json, responseType());
+        } catch (JsonProcessingException e) {
+            String repaired = JsonRepair.repair(json);
+            if (repaired != null && !repaired.equals(json)) {
+                try {
+                    T response = objectMapper.readValue(repaired, responseType());
+                    metrics.repaired(name());
+                    Log.debugf("Repaired %s response: %s", name(), e.getOriginalMessage());
+                    return response;
+                } catch (JsonProcessingException ignored) {
+                    // fall through: report the original error
+                }
+            }
+            metrics.failure(name(), GuardrailMetrics.INVALID_JSON);
+            throw e;
+        }
+    }
+
+    /**
+     * @return a description of the problem with the response, or null if it is acceptable
+     */
+    public String check(T response) {
+        String problem = response == null ? "Empty response" : problem(response);
+        if (problem != null) {
+            metrics.failure(name(), GuardrailMetrics.INVALID_CONTENT);
+        }
+        return problem;
+    }
+}
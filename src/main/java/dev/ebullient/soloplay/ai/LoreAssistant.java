@@ -41,7 +41,8 @@ import io.quarkiverse.langchain4j.ToolBox;
         - Focus on providing accurate, useful information
         - If a question requires GM judgment, present options rather than deciding
         """)
-@RegisterAiService(retrievalAugmentor = LoreRetriever.class)
+@RegisterAiService(chatLanguageModelSupplier = StructuredOutput.LoreModelSupplier.class, //
+        retrievalAugmentor = LoreRetriever.class)
 @OutputGuardrails(JsonChatResponseGuardrail.class)
 public interface LoreAssistant {
 
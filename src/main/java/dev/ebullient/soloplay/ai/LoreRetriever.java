@@ -25,6 +25,38 @@ import io.quarkus.logging.Log;
 
 @ApplicationScoped
 public class LoreRetriever implements Supplier<RetrievalAugmentor> {
+    /**
+     * Vector similarity search restricted to a contentType, including neighboring chunks.
+     * Uses a larger candidate pool (5x) to ensure enough matches after filtering.
+     */
+    public static final String VECTOR_SEARCH_BY_CONTENT_TYPE = """
+            CALL db.index.vector.queryNodes($indexName, $maxResults * 5, $embedding)
+            YIELD node, score
+            WHERE score >= $minScore AND node.contentType = $contentType
+            OPTIONAL MATCH (prev)-[:NEXT]->(node)
+            OPTIONAL MATCH (node)-[:NEXT]->(next)
+            RETURN node.text AS text, node.name AS name, node.filename AS filename,
+                   node.contentType AS contentType, node.sourceFile AS sourceFile, score,
+                   prev.text AS prevText, next.text AS nextText
+            ORDER BY score DESC
+            LIMIT $maxResults
+            """;
+
+    /**
+     * Unfiltered vector similarity search, including neighboring chunks.
+     */
+    public static final String VECTOR_SEARCH = """
+            CALL db.index.vector.queryNodes($indexName, $maxResults, $embedding)
+            YIELD node, score
+            WHERE score >= $minScore
+            OPTIONAL MATCH (prev)-[:NEXT]->(node)
+            OPTIONAL MATCH (node)-[:NEXT]->(next)
+            RETURN node.text AS text, node.name AS name, node.filename AS filename,
+                   node.contentType AS contentType, node.sourceFile AS sourceFile, score,
+                   prev.text AS prevText, next.text AS nextText
+            ORDER BY score DESC
+            """;
+
     private final RetrievalAugmentor augmentor;
 
     /**
@@ -174,19 +206,7 @@ public class LoreRetriever implements Supplier<RetrievalAugmentor> {
 
             if (contentType != null && !contentType.isBlank()) {
                 // Filter by contentType metadata property, include neighbors
-                // Use larger candidate pool (5x) to ensure enough matches after filtering
-                cypher = """
-                        CALL db.index.vector.queryNodes($indexName, $maxResults * 5, $embedding)
-                        YIELD node, score
-                        WHERE score >= $minScore AND node.contentType = $contentType
-                        OPTIONAL MATCH (prev)-[:NEXT]->(node)
-                        OPTIONAL MATCH (node)-[:NEXT]->(next)
-                        RETURN node.text AS text, node.name AS name, node.filename AS filename,
-                               node.contentType AS contentType, node.sourceFile AS sourceFile, score,
-                               prev.text AS prevText, next.text AS nextText
-                        ORDER BY score DESC
-                        LIMIT $maxResults
-                        """;
+                cypher = VECTOR_SEARCH_BY_CONTENT_TYPE;
                 params = Map.of(
                         "indexName", indexName,
                         "embedding", queryEmbedding,
@@ -195,17 +215,7 @@ public class LoreRetriever implements Supplier<RetrievalAugmentor> {
                         "contentType", contentType);
             } else {
                 // No filtering, include neighbors
-                cypher = """
-                        CALL db.index.vector.queryNodes($indexName, $maxResults, $embedding)
-                        YIELD node, score
-                        WHERE score >= $minScore
-                        OPTIONAL MATCH (prev)-[:NEXT]->(node)
-                        OPTIONAL MATCH (node)-[:NEXT]->(next)
-                        RETURN node.text AS text, node.name AS name, node.filename AS filename,
-                               node.contentType AS contentType, node.sourceFile AS sourceFile, score,
-                               prev.text AS prevText, next.text AS nextText
-                        ORDER BY score DESC
-                        """;
+                cypher = VECTOR_SEARCH;
                 params = Map.of(
                         "indexName", indexName,
                         "embedding", queryEmbedding,
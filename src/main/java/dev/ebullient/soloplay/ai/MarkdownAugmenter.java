@@ -1,25 +1,86 @@
 package dev.ebullient.soloplay.ai;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 
 import org.commonmark.node.Node;
 import org.commonmark.parser.Parser;
 import org.commonmark.renderer.html.HtmlRenderer;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.logging.Log;
 
 /**
  * Service that augments AI responses by converting markdown to HTML.
+ *
+ * Markdown is split into top-level blocks (paragraphs, lists, fenced code, ...) and
+ * each block is rendered once: its HTML is cached by a hash of the block's text
+ * ({@code quarkus.cache.caffeine."markdown-html"}). Rendering a message again, or a
+ * message that shares blocks with one already rendered, only parses what is new.
+ *
+ * Streamed narration can be rendered as it arrives ({@link #incremental()}): each
+ * block is rendered on the render executor once the next one starts, so when the
+ * reply is complete only its last block is parsed on the caller's thread.
  */
 @ApplicationScoped
 public class MarkdownAugmenter {
 
+    static final Pattern FENCE = Pattern.compile("^ {0,3}(`{3,}|~{3,}).*");
+    static final Pattern LIST_ITEM = Pattern.compile("^([-+*]|\\d{1,9}[.)])(\\s.*)?$");
+    // Link reference definitions and raw HTML blocks can span blank lines:
+    // documents that contain them are rendered whole
+    static final Pattern WHOLE_DOCUMENT = Pattern.compile(
+            "(?im)^ {0,3}(\\[[^\\]]+\\]:|<!--|<\\?|<![a-z\\[]|<pre|<script|<style|<textarea)");
+
     private final Parser parser;
     private final HtmlRenderer renderer;
 
+    @Inject
+    @CacheName("markdown-html")
+    Cache cache;
+
+    @ConfigProperty(name = "campaign.render.threads", defaultValue = "2")
+    int threads;
+
+    private ExecutorService executor;
+
     public MarkdownAugmenter() {
         this.parser = Parser.builder().build();
         this.renderer = HtmlRenderer.builder().build();
     }
 
+    @PostConstruct
+    void init() {
+        AtomicInteger count = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "markdown-render-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
     /**
      * Converts markdown text to HTML.
      *
@@ -30,7 +91,176 @@ public class MarkdownAugmenter {
         if (markdownText == null || markdownText.isBlank()) {
             return "";
         }
-        Node document = parser.parse(markdownText);
+        StringBuilder html = new StringBuilder();
+        for (String block : blocks(markdownText)) {
+            html.append(renderBlock(block));
+        }
+        return html.toString();
+    }
+
+    /**
+     * Start rendering a message that is still being streamed.
+     */
+    public IncrementalRender incremental() {
+        return new IncrementalRender();
+    }
+
+    /**
+     * Renders completed blocks of a streamed message in the background.
+     * Not shared between threads: feed it from the thread consuming the stream.
+     *
+     * Only the text after the last completed block is split again when a delta arrives.
+     * Feed it the message only (no status text), so its blocks match the final message.
+     */
+    public class IncrementalRender {
+        private final StringBuilder text = new StringBuilder();
+        private int pending; // offset of the block that may still be growing
+        private final List<String> submitted = new ArrayList<>();
+        private final List<CompletableFuture<String>> rendered = new ArrayList<>();
+
+        public void append(String delta) {
+            if (delta == null || delta.isEmpty()) {
+                return;
+            }
+            text.append(delta);
+            if (delta.indexOf('\n') < 0) {
+                return; // no block can have ended
+            }
+            Split split = split(text.substring(pending));
+            List<String> blocks = split.blocks();
+            for (int i = 0; i < blocks.size() - 1; i++) {
+                String block = blocks.get(i);
+                submitted.add(block);
+                rendered.add(CompletableFuture.supplyAsync(() -> renderBlock(block), executor));
+            }
+            pending += split.lastStart();
+        }
+
+        /**
+         * @param markdown The complete message; blocks already rendered from the stream are reused
+         * @return HTML for the complete message
+         */
+        public String html(String markdown) {
+            if (markdown == null || markdown.isBlank()) {
+                return "";
+            }
+            List<String> blocks = blocks(markdown);
+            StringBuilder html = new StringBuilder();
+            for (int i = 0; i < blocks.size(); i++) {
+                String block = blocks.get(i);
+                html.append(i < submitted.size() && submitted.get(i).equals(block)
+                        ? rendered.get(i).join()
+                        : renderBlock(block));
+            }
+            return html.toString();
+        }
+    }
+
+    private String renderBlock(String block) {
+        if (cache == null) {
+            return render(block);
+        }
+        try {
+            return cache.get(hash(block), k -> render(block)).await().indefinitely();
+        } catch (RuntimeException e) {
+            Log.debugf(e, "Unable to cache rendered markdown: %s", e.getMessage());
+            return render(block);
+        }
+    }
+
+    private String render(String markdown) {
+        Node document = parser.parse(markdown);
         return renderer.render(document);
     }
+
+    /**
+     * Split markdown into top-level blocks that render the same on their own as they
+     * do in the whole document: blocks end at a blank line (outside fenced code) that is
+     * followed by a line that cannot continue the block (not indented, and not another
+     * item of a list that is still open).
+     */
+    static List<String> blocks(String markdown) {
+        return split(markdown).blocks();
+    }
+
+    /**
+     * @param blocks Top-level blocks (see {@link #blocks(String)})
+     * @param lastStart Offset of the last block in the markdown (splitting from there gives the same blocks)
+     */
+    record Split(List<String> blocks, int lastStart) {
+    }
+
+    static Split split(String markdown) {
+        if (WHOLE_DOCUMENT.matcher(markdown).find()) {
+            return new Split(List.of(markdown), 0);
+        }
+        List<String> blocks = new ArrayList<>();
+        StringBuilder block = new StringBuilder();
+        String fence = null;
+        boolean listOpen = false;
+        int blanks = 0;
+        int offset = 0;
+        int lastStart = 0;
+        for (String line : markdown.split("\n", -1)) {
+            int lineStart = offset;
+            offset += line.length() + 1;
+            if (fence != null) {
+                block.append(line).append('\n');
+                if (closesFence(line, fence)) {
+                    fence = null;
+                }
+                continue;
+            }
+            if (line.isBlank()) {
+                blanks++;
+                continue;
+            }
+            boolean listItem = LIST_ITEM.matcher(line).matches();
+            if (blanks > 0 && !block.isEmpty()) {
+                if (indented(line) || (listItem && listOpen)) {
+                    block.append("\n".repeat(blanks));
+                } else {
+                    blocks.add(block.toString());
+                    block.setLength(0);
+                    listOpen = false;
+                }
+            }
+            if (block.isEmpty()) {
+                lastStart = lineStart;
+            }
+            if (listItem) {
+                listOpen = true;
+            }
+            blanks = 0;
+            block.append(line).append('\n');
+            Matcher m = FENCE.matcher(line);
+            if (m.matches()) {
+                fence = m.group(1);
+            }
+        }
+        if (!block.isEmpty()) {
+            blocks.add(block.toString());
+        }
+        return new Split(blocks, lastStart);
+    }
+
+    private static boolean indented(String line) {
+        char first = line.charAt(0);
+        return first == ' ' || first == '\t';
+    }
+
+    private static boolean closesFence(String line, String fence) {
+        String t = line.strip();
+        char c = fence.charAt(0);
+        return t.length() >= fence.length() && t.chars().allMatch(x -> x == c);
+    }
+
+    static String hash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
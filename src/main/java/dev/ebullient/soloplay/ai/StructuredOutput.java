@@ -0,0 +1,233 @@
+package dev.ebullient.soloplay.ai;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.spi.CDI;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.Config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.langchain4j.internal.JsonSchemaElementUtils;
+import dev.langchain4j.model.chat.Capability;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.listener.ChatModelListener;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.request.ChatRequestParameters;
+import dev.langchain4j.model.chat.request.ResponseFormat;
+import dev.langchain4j.model.chat.request.ResponseFormatType;
+import dev.langchain4j.model.chat.request.json.JsonSchema;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import io.quarkiverse.langchain4j.ollama.OllamaStreamingChatLanguageModel;
+import io.quarkiverse.langchain4j.ollama.Options;
+import io.quarkus.logging.Log;
+
+/**
+ * Constrains model output to the JSON schema of a response record.
+ *
+ * Ollama accepts a JSON schema as its {@code format}; the model then can only produce
+ * JSON of that shape, rather than any JSON ({@code format=json}), which is what makes
+ * the output guardrails reprompt. Schemas are generated from the response records,
+ * so they can't drift from what the guardrails parse. Every field is required unless
+ * it is marked {@code @JsonProperty(required = false)}.
+ *
+ * The chat model takes the schema as the request's response format. The Ollama streaming
+ * model only sends the {@code format} it was built with, so each response type gets a
+ * streaming model of its own, configured like the default one
+ * ({@code quarkus.langchain4j.ollama.*}) but with the schema as its format.
+ *
+ * Enabled per AI service with {@code campaign.structured-output.<service>=true|false}
+ * (default true). When disabled, the default model (and its configured format) is used.
+ */
+@ApplicationScoped
+public class StructuredOutput {
+    static final String OLLAMA = "quarkus.langchain4j.ollama.";
+    static final String CHAT_MODEL = OLLAMA + "chat-model.";
+
+    @Inject
+    ChatModel chatModel;
+
+    @Inject
+    StreamingChatModel streamingChatModel;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    Config config;
+
+    private final Map<Class<?>, ResponseFormat> formats = new ConcurrentHashMap<>();
+    private final Map<Class<?>, StreamingChatModel> streamingModels = new ConcurrentHashMap<>();
+
+    /**
+     * @param service Service name used for configuration (e.g. "chat")
+     * @param responseType Record the response should conform to
+     * @return a chat model constrained to the response schema, or the default model if disabled
+     */
+    public ChatModel chatModel(String service, Class<?> responseType) {
+        if (!enabled(service)) {
+            return chatModel;
+        }
+        return new SchemaChatModel(chatModel, responseFormat(responseType));
+    }
+
+    /**
+     * @param service Service name used for configuration (e.g. "gameplay")
+     * @param responseType Record the streamed response should conform to
+     * @return a streaming model constrained to the response schema, or the default model if disabled
+     */
+    public StreamingChatModel streamingChatModel(String service, Class<?> responseType) {
+        if (!enabled(service)) {
+            return streamingChatModel;
+        }
+        return streamingModels.computeIfAbsent(responseType,
+                type -> schemaStreamingChatModel(type, config.getOptionalValue(OLLAMA + "base-url", String.class)
+                        .orElse("http://localhost:11434")));
+    }
+
+    boolean enabled(String service) {
+        return config.getOptionalValue("campaign.structured-output." + service, Boolean.class)
+                .orElse(true);
+    }
+
+    ResponseFormat responseFormat(Class<?> responseType) {
+        return formats.computeIfAbsent(responseType, type -> ResponseFormat.builder()
+                .type(ResponseFormatType.JSON)
+                .jsonSchema(jsonSchema(type))
+                .build());
+    }
+
+    /**
+     * @return the JSON schema of a response record; fields are required unless marked
+     *         {@code @JsonProperty(required = false)}
+     */
+    static JsonSchema jsonSchema(Class<?> responseType) {
+        JsonSchema schema = JsonSchema.builder()
+                .name(responseType.getSimpleName())
+                .rootElement(JsonSchemaElementUtils.jsonSchemaElementFrom(
+                        responseType, responseType, null, true, new LinkedHashMap<>()))
+                .build();
+        Log.debugf("Structured output schema for %s: %s", responseType.getSimpleName(), schema);
+        return schema;
+    }
+
+    /**
+     * @return the schema as Ollama's {@code format}
+     */
+    String ollamaFormat(Class<?> responseType) {
+        try {
+            return objectMapper.writeValueAsString(
+                    JsonSchemaElementUtils.toMap(responseFormat(responseType).jsonSchema().rootElement()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize schema for " + responseType.getName(), e);
+        }
+    }
+
+    /**
+     * A streaming model configured like the default Ollama chat model, with the
+     * response schema as its format.
+     */
+    StreamingChatModel schemaStreamingChatModel(Class<?> responseType, String baseUrl) {
+        Options.Builder options = Options.builder()
+                .temperature(chatModelValue("temperature", Double.class))
+                .topK(chatModelValue("top-k", Integer.class))
+                .topP(chatModelValue("top-p", Double.class))
+                .numPredict(chatModelValue("num-predict", Integer.class))
+                .seed(chatModelValue("seed", Integer.class));
+        config.getOptionalValues(CHAT_MODEL + "stop", String.class).ifPresent(options::stop);
+
+        return OllamaStreamingChatLanguageModel.builder()
+                .baseUrl(baseUrl)
+                .tlsConfigurationName(config.getOptionalValue(OLLAMA + "tls-configuration-name", String.class)
+                        .orElse(null))
+                .timeout(config.getOptionalValue(OLLAMA + "timeout", Duration.class)
+                        .or(() -> config.getOptionalValue("quarkus.langchain4j.timeout", Duration.class))
+                        .orElse(Duration.ofSeconds(10)))
+                .model(config.getOptionalValue(CHAT_MODEL + "model-id", String.class)
+                        .or(() -> config.getOptionalValue(CHAT_MODEL + "model-name", String.class))
+                        .orElse("llama3.2"))
+                .format(ollamaFormat(responseType))
+                .options(options.build())
+                .logRequests(logging("log-requests"))
+                .logResponses(logging("log-responses"))
+                .listeners(streamingChatModel.listeners())
+                .build();
+    }
+
+    private <T> T chatModelValue(String name, Class<T> type) {
+        return config.getOptionalValue(CHAT_MODEL + name, type).orElse(null);
+    }
+
+    private boolean logging(String name) {
+        return config.getOptionalValue(CHAT_MODEL + name, Boolean.class)
+                .or(() -> config.getOptionalValue(OLLAMA + name, Boolean.class))
+                .or(() -> config.getOptionalValue("quarkus.langchain4j." + name, Boolean.class))
+                .orElse(false);
+    }
+
+    static ChatRequest withFormat(ChatRequest request, ResponseFormat format) {
+        return ChatRequest.builder()
+                .messages(request.messages())
+                .parameters(request.parameters().overrideWith(
+                        ChatRequestParameters.builder()
+                                .responseFormat(format)
+                                .build()))
+                .build();
+    }
+
+    static StructuredOutput get() {
+        return CDI.current().select(StructuredOutput.class).get();
+    }
+
+    record SchemaChatModel(ChatModel delegate, ResponseFormat format) implements ChatModel {
+        @Override
+        public ChatResponse chat(ChatRequest request) {
+            return delegate.chat(withFormat(request, format));
+        }
+
+        @Override
+        public ChatRequestParameters defaultRequestParameters() {
+            return delegate.defaultRequestParameters();
+        }
+
+        @Override
+        public List<ChatModelListener> listeners() {
+            return delegate.listeners();
+        }
+
+        @Override
+        public Set<Capability> supportedCapabilities() {
+            return delegate.supportedCapabilities();
+        }
+    }
+
+    /**
+     * Model supplier for {@link ChatAssistant}
+     */
+    public static class ChatModelSupplier implements Supplier<ChatModel> {
+        @Override
+        public ChatModel get() {
+            return StructuredOutput.get().chatModel("chat", JsonChatResponse.class);
+        }
+    }
+
+    /**
+     * Model supplier for {@link LoreAssistant}
+     */
+    public static class LoreModelSupplier implements Supplier<ChatModel> {
+        @Override
+        public ChatModel get() {
+            return StructuredOutput.get().chatModel("lore", JsonChatResponse.class);
+        }
+    }
+}
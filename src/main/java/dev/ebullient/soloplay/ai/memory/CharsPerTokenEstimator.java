@@ -0,0 +1,78 @@
+package dev.ebullient.soloplay.ai.memory;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.Content;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.TextContent;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.TokenCountEstimator;
+import io.quarkus.arc.DefaultBean;
+
+/**
+ * Estimates tokens locally from text length ({@code campaign.chat-memory.chars-per-token},
+ * about 4 for English with Llama-family tokenizers), without calling the model.
+ *
+ * Replace it by providing another {@link TokenCountEstimator} bean (e.g. an exact tokenizer).
+ */
+@DefaultBean
+@ApplicationScoped
+public class CharsPerTokenEstimator implements TokenCountEstimator {
+
+    /** Role markers and separators the chat template adds around each message */
+    static final int MESSAGE_OVERHEAD = 4;
+
+    @ConfigProperty(name = "campaign.chat-memory.chars-per-token", defaultValue = "4")
+    double charsPerToken = 4;
+
+    @Override
+    public int estimateTokenCountInText(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        return (int) Math.ceil(text.length() / charsPerToken);
+    }
+
+    @Override
+    public int estimateTokenCountInMessage(ChatMessage message) {
+        int tokens = MESSAGE_OVERHEAD;
+        switch (message) {
+            case SystemMessage system -> tokens += estimateTokenCountInText(system.text());
+            case UserMessage user -> {
+                for (Content content : user.contents()) {
+                    if (content instanceof TextContent text) {
+                        tokens += estimateTokenCountInText(text.text());
+                    }
+                }
+            }
+            case AiMessage ai -> {
+                tokens += estimateTokenCountInText(ai.text());
+                if (ai.hasToolExecutionRequests()) {
+                    for (ToolExecutionRequest request : ai.toolExecutionRequests()) {
+                        tokens += estimateTokenCountInText(request.name())
+                                + estimateTokenCountInText(request.arguments());
+                    }
+                }
+            }
+            case ToolExecutionResultMessage result -> tokens += estimateTokenCountInText(result.text());
+            default -> {
+            }
+        }
+        return tokens;
+    }
+
+    @Override
+    public int estimateTokenCountInMessages(Iterable<ChatMessage> messages) {
+        int tokens = 0;
+        for (ChatMessage message : messages) {
+            tokens += estimateTokenCountInMessage(message);
+        }
+        return tokens;
+    }
+}
@@ -5,7 +5,7 @@ import java.util.List;
 import dev.langchain4j.data.message.ChatMessage;
 
 /**
- * CDI event fired when chat memory is compacted (older messages dropped).
+ * CDI event fired (asynchronously) when chat memory is compacted (older messages dropped).
  *
  * This event allows listeners to create durable story artifacts from
  * the dropped messages before they're lost.
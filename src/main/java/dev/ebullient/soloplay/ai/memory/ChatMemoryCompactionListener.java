@@ -1,32 +1,141 @@
 package dev.ebullient.soloplay.ai.memory;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.ObservesAsync;
+import jakarta.inject.Inject;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.ebullient.soloplay.GameRepository;
+import dev.ebullient.soloplay.play.model.Event;
+import dev.ebullient.soloplay.play.model.GameState;
+import dev.langchain4j.data.message.AiMessage;
 import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
 import io.quarkus.logging.Log;
 
 /**
- * Listens for chat memory compaction events and creates StoryEvents
- * to preserve important context that would otherwise be lost.
+ * Listens for chat memory compaction events and folds the dropped messages into a
+ * rolling summary, so the story context they carried is not lost.
+ *
+ * Runs asynchronously ({@link ObservesAsync}): the turn that caused the compaction does
+ * not wait for the summary. The summary is written by {@link MemorySummaryAssistant}
+ * and kept as a single {@link Event} per game tagged {@link Event#MEMORY_SUMMARY_TAG},
+ * which later prompts include ahead of the recent chat memory.
  *
- * When the chat memory window overflows and older messages are dropped,
- * this listener creates a summary event tagged with "memory" and "summary".
+ * Disabled with {@code campaign.memory.summarize=false}.
  */
 @ApplicationScoped
 public class ChatMemoryCompactionListener {
+
+    /** Only what the player typed is kept from the GM prompts (see GamePlayAssistant) */
+    static final String PLAYER_INPUT_MARKER = "Player says:";
+
+    static final int LOCK_STRIPES = 64;
+
+    @Inject
+    MemorySummaryAssistant summaryAssistant;
+
+    @Inject
+    GameRepository gameRepository;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "campaign.memory.summarize", defaultValue = "true")
+    boolean enabled;
+
+    /** Summaries for one game are folded one at a time, so none are lost (games share a fixed set of locks) */
+    private final Object[] locks = Stream.generate(Object::new).limit(LOCK_STRIPES).toArray();
+
     /**
-     * Handle chat memory compaction by creating a StoryEvent.
+     * Handle chat memory compaction by updating the game's summary event.
      */
-    public void onCompaction(@Observes ChatMemoryCompactedEvent event) {
-        String storyThreadId = event.gameId();
+    public void onCompaction(@ObservesAsync ChatMemoryCompactedEvent event) {
+        String gameId = event.gameId();
         List<ChatMessage> droppedMessages = event.droppedMessages();
+        if (!enabled) {
+            return;
+        }
 
         Log.infof("Processing compaction for %s: %d messages to summarize",
-                storyThreadId, droppedMessages.size());
+                gameId, droppedMessages.size());
+
+        String transcript = transcript(droppedMessages);
+        if (transcript.isBlank()) {
+            return;
+        }
+
+        try {
+            synchronized (locks[Math.floorMod(gameId.hashCode(), LOCK_STRIPES)]) {
+                summarize(gameId, transcript);
+            }
+        } catch (RuntimeException e) {
+            // Play goes on without the summary; the next compaction tries again
+            Log.errorf(e, "Unable to summarize compacted memory for %s: %s", gameId, e.getMessage());
+        }
+    }
+
+    void summarize(String gameId, String transcript) {
+        Event summary = gameRepository.findMemorySummary(gameId);
+        if (summary == null) {
+            GameState game = gameRepository.findGameById(gameId);
+            if (game == null) {
+                Log.debugf("No game for compacted memory %s; not summarizing", gameId);
+                return;
+            }
+            summary = new Event(gameId, 0, null);
+            summary.addTag(Event.MEMORY_SUMMARY_TAG);
+        }
+
+        String text = summaryAssistant.summarize(summary.getSummary(), transcript);
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        summary.setSummary(text.trim());
+
+        // Saved before the lock is released, so the next compaction folds into this summary
+        gameRepository.saveAll(List.of(summary));
+        Log.infof("Updated memory summary event for %s", gameId);
+    }
+
+    /**
+     * Condense dropped messages into a transcript: what the player typed, and the GM's narration
+     * (the GM responds with JSON; other fields are already kept as game state).
+     */
+    String transcript(List<ChatMessage> messages) {
+        StringBuilder sb = new StringBuilder();
+        for (ChatMessage message : messages) {
+            String text = switch (message) {
+                case UserMessage user when user.hasSingleText() -> "Player: " + playerInput(user.singleText());
+                case AiMessage ai when ai.text() != null -> "GM: " + narration(ai.text()).strip();
+                default -> null; // system prompts, tool calls and results
+            };
+            if (text != null) {
+                sb.append(text).append("\n\n");
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    static String playerInput(String prompt) {
+        int i = prompt.lastIndexOf(PLAYER_INPUT_MARKER);
+        return (i < 0 ? prompt : prompt.substring(i + PLAYER_INPUT_MARKER.length())).strip();
+    }
 
-        Log.infof("Created memory summary event for %s", storyThreadId);
+    String narration(String response) {
+        try {
+            JsonNode narration = objectMapper.readTree(response).path("narration");
+            return narration.isTextual() ? narration.asText() : response;
+        } catch (JsonProcessingException e) {
+            return response;
+        }
     }
 }
@@ -0,0 +1,42 @@
+package dev.ebullient.soloplay.ai.memory;
+
+import dev.langchain4j.service.SystemMessage;
+import dev.langchain4j.service.UserMessage;
+import io.quarkiverse.langchain4j.RegisterAiService;
+
+/**
+ * Folds play that has left the GM's chat memory into a rolling summary
+ * (see {@link ChatMemoryCompactionListener}).
+ *
+ * Uses the {@code summary} model ({@code quarkus.langchain4j.ollama.summary.*}), which can be
+ * smaller and faster than the GM's model, and no chat memory of its own.
+ */
+@SystemMessage("""
+        You keep the running summary of a solo D&D adventure for its Game Master.
+
+        Write plain prose (no JSON, no headings), past tense, third person.
+        Keep names of characters, places, items, and factions exactly as written.
+        Keep what matters for continuity: goals, promises, debts, clues, injuries,
+        relationships, and unresolved threads. Drop dice mechanics and small talk.
+        Stay under 250 words; compress older events more than recent ones.
+        """)
+@RegisterAiService(modelName = "summary", //
+        chatMemoryProviderSupplier = RegisterAiService.NoChatMemoryProviderSupplier.class)
+public interface MemorySummaryAssistant {
+
+    @UserMessage("""
+            === SUMMARY SO FAR ===
+            {#if previousSummary}
+            {previousSummary}
+            {#else}
+            (none yet)
+            {/if}
+
+            === LATER PLAY ===
+            {transcript}
+
+            Rewrite the summary so it also covers the later play.
+            Respond with the new summary only.
+            """)
+    String summarize(String previousSummary, String transcript);
+}
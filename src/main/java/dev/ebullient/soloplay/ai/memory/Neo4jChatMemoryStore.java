@@ -15,6 +15,7 @@ import org.neo4j.ogm.session.SessionFactory;
 import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.ChatMessageDeserializer;
 import dev.langchain4j.data.message.ChatMessageSerializer;
+import dev.langchain4j.data.message.ChatMessageType;
 import dev.langchain4j.store.memory.chat.ChatMemoryStore;
 import io.quarkus.logging.Log;
 
@@ -72,7 +73,8 @@ public class Neo4jChatMemoryStore implements ChatMemoryStore {
         if (!droppedMessages.isEmpty()) {
             Log.infof("Memory compaction detected for %s: %d messages dropped",
                     id, droppedMessages.size());
-            compactedEvent.fire(new ChatMemoryCompactedEvent(id, droppedMessages));
+            // Summarized in the background (ChatMemoryCompactionListener); the turn does not wait
+            compactedEvent.fireAsync(new ChatMemoryCompactedEvent(id, droppedMessages));
         }
 
         // Persist the new messages
@@ -94,8 +96,13 @@ public class Neo4jChatMemoryStore implements ChatMemoryStore {
      * Detect messages that were dropped during compaction.
      * Compares the start of the previous list with the new list to find
      * messages that are no longer present.
+     *
+     * The system message is ignored: windowed memories keep it first while
+     * evicting the messages after it.
      */
-    private List<ChatMessage> detectDroppedMessages(List<ChatMessage> previous, List<ChatMessage> current) {
+    static List<ChatMessage> detectDroppedMessages(List<ChatMessage> previous, List<ChatMessage> current) {
+        previous = withoutSystemMessages(previous);
+        current = withoutSystemMessages(current);
         if (previous.isEmpty() || current.isEmpty()) {
             return List.of();
         }
@@ -120,16 +127,22 @@ public class Neo4jChatMemoryStore implements ChatMemoryStore {
         }
 
         // If we didn't find a match, assume all previous messages were dropped
-        // (this shouldn't normally happen but handles edge cases)
+        // (e.g. a single turn larger than the whole token budget)
         return dropped;
     }
 
+    private static List<ChatMessage> withoutSystemMessages(List<ChatMessage> messages) {
+        return messages.stream()
+                .filter(m -> m.type() != ChatMessageType.SYSTEM)
+                .toList();
+    }
+
     /**
      * Compare two ChatMessages for equality.
      * Uses JSON serialization for comparison since ChatMessage subtypes
      * have different accessor methods (UserMessage.singleText(), AiMessage.text(), etc.)
      */
-    private boolean messagesEqual(ChatMessage a, ChatMessage b) {
+    private static boolean messagesEqual(ChatMessage a, ChatMessage b) {
         if (a.type() != b.type()) {
             return false;
         }
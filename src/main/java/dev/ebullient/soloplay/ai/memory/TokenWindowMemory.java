@@ -0,0 +1,66 @@
+package dev.ebullient.soloplay.ai.memory;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.spi.CDI;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.Config;
+
+import dev.langchain4j.memory.chat.ChatMemoryProvider;
+import dev.langchain4j.memory.chat.TokenWindowChatMemory;
+import dev.langchain4j.model.TokenCountEstimator;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import io.quarkus.logging.Log;
+
+/**
+ * Chat memory bounded by an estimated token budget rather than a message count, so one
+ * long (lore-heavy) turn can't overflow the model's context, and many short turns don't
+ * waste it.
+ *
+ * The budget is set per AI service with {@code campaign.chat-memory.<service>.max-tokens}.
+ * Messages are persisted with {@link Neo4jChatMemoryStore}; the oldest are evicted first
+ * (the system message is kept), which the store reports as a compaction.
+ * Tokens are counted with the {@link TokenCountEstimator} bean ({@link CharsPerTokenEstimator}
+ * unless another is provided).
+ */
+@ApplicationScoped
+public class TokenWindowMemory {
+
+    static final int DEFAULT_MAX_TOKENS = 4000;
+
+    @Inject
+    ChatMemoryStore chatMemoryStore;
+
+    @Inject
+    TokenCountEstimator estimator;
+
+    @Inject
+    Config config;
+
+    /**
+     * @param service Service name used for configuration (e.g. "gameplay")
+     * @return a provider of token-bounded chat memory for the service
+     */
+    public ChatMemoryProvider provider(String service) {
+        int maxTokens = maxTokens(service);
+        Log.debugf("Chat memory for %s: up to %d tokens", service, maxTokens);
+        return provider(maxTokens);
+    }
+
+    ChatMemoryProvider provider(int maxTokens) {
+        return memoryId -> TokenWindowChatMemory.builder()
+                .id(memoryId)
+                .maxTokens(maxTokens, estimator)
+                .chatMemoryStore(chatMemoryStore)
+                .build();
+    }
+
+    int maxTokens(String service) {
+        return config.getOptionalValue("campaign.chat-memory." + service + ".max-tokens", Integer.class)
+                .orElse(DEFAULT_MAX_TOKENS);
+    }
+
+    public static TokenWindowMemory get() {
+        return CDI.current().select(TokenWindowMemory.class).get();
+    }
+}
@@ -0,0 +1,53 @@
+package dev.ebullient.soloplay.api;
+
+import java.net.URI;
+import java.util.Map;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import org.jboss.resteasy.reactive.RestPath;
+
+import dev.ebullient.soloplay.BulkDeleter;
+
+/**
+ * Progress of bulk deletions (games, lore files) that continue in the background.
+ */
+@ApplicationScoped
+@Path("/api/deletions")
+public class DeletionResource {
+
+    @Inject
+    BulkDeleter bulkDeleter;
+
+    /**
+     * Get the status of a deletion.
+     *
+     * @param id The deletion identifier
+     * @return Deletion status, or 404 if not found (finished deletions expire after an hour)
+     */
+    @GET
+    @Path("/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response get(@RestPath String id) {
+        BulkDeleter.DeletionStatus status = bulkDeleter.status(id);
+        if (status == null) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        return Response.ok(status).build();
+    }
+
+    /**
+     * 202 Accepted response for a deletion running in the background.
+     */
+    static Response accepted(BulkDeleter.Deletion deletion) {
+        return Response.accepted(Map.of("deletionId", deletion.id()))
+                .location(URI.create("/api/deletions/" + deletion.id()))
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package dev.ebullient.soloplay.api;
 
+import java.net.URI;
 import java.util.List;
 
 import jakarta.enterprise.context.ApplicationScoped;
@@ -12,13 +13,17 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriBuilder;
 
 import org.jboss.resteasy.reactive.RestPath;
+import org.jboss.resteasy.reactive.RestQuery;
 
+import dev.ebullient.soloplay.BulkDeleter;
 import dev.ebullient.soloplay.GameRepository;
 import dev.ebullient.soloplay.play.model.Actor;
 import dev.ebullient.soloplay.play.model.Event;
 import dev.ebullient.soloplay.play.model.GameState;
+import dev.ebullient.soloplay.play.model.GameSummary;
 import dev.ebullient.soloplay.play.model.Location;
 import dev.ebullient.soloplay.play.model.PlayerActor;
 
@@ -32,15 +37,38 @@ public class GameResource {
     @Inject
     GameRepository gameRepository;
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
     /**
-     * List all games.
+     * List games, most recently played first.
+     * If there are more games, the response includes a {@code Link: <...>; rel="next"} header.
      *
-     * @return List of all games
+     * @param cursor Opaque cursor from a previous page's next link
+     * @param limit Page size (default 50, max 200)
+     * @return List of game summaries, or 400 if the cursor is invalid
      */
     @GET
     @Produces(MediaType.APPLICATION_JSON)
-    public List<GameState> list() {
-        return gameRepository.listGames();
+    public Response list(@RestQuery String cursor, @RestQuery Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        GameSummary.Page page;
+        try {
+            page = gameRepository.listGames(cursor, pageSize);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        }
+        var response = Response.ok(page.games());
+        if (page.hasNext()) {
+            URI next = UriBuilder.fromPath("/api/game")
+                    .queryParam("cursor", page.nextCursor())
+                    .queryParam("limit", pageSize)
+                    .build();
+            response.link(next, "next");
+        }
+        return response.build();
     }
 
     /**
@@ -64,13 +92,17 @@ public class GameResource {
      * Delete a game and all its related resources.
      *
      * @param gameId The game identifier
-     * @return 204 No Content on success
+     * @return 204 No Content on success, or 202 Accepted (with a Location to poll)
+     *         if the delete continues in the background
      */
     @DELETE
     @Path("/{gameId}")
     @Produces(MediaType.APPLICATION_JSON)
     public Response delete(@RestPath String gameId) {
-        gameRepository.deleteGame(gameId);
+        BulkDeleter.Deletion deletion = gameRepository.deleteGame(gameId);
+        if (!deletion.done()) {
+            return DeletionResource.accepted(deletion);
+        }
         return Response.noContent().build();
     }
 
@@ -18,6 +18,7 @@ import org.jboss.resteasy.reactive.RestForm;
 import org.jboss.resteasy.reactive.RestQuery;
 import org.jboss.resteasy.reactive.multipart.FileUpload;
 
+import dev.ebullient.soloplay.BulkDeleter;
 import dev.ebullient.soloplay.IngestService;
 import dev.ebullient.soloplay.LoreRepository;
 import dev.ebullient.soloplay.ai.JsonChatResponse;
@@ -141,26 +142,36 @@ public class LoreResource {
     /**
      * Delete a specific file.
      * Query param: sourceFile
+     * Returns 202 Accepted (with a Location to poll) if the delete continues in the background.
      */
     @DELETE
     @Path("/files")
     @Produces(MediaType.APPLICATION_JSON)
-    public Map<String, Object> deleteFile(@RestQuery String sourceFile) {
-        int deleteCount = ingestService.deleteFile(sourceFile);
-        return Map.of(
-                "deleted", deleteCount,
-                "sourceFile", sourceFile);
+    public Response deleteFile(@RestQuery String sourceFile) {
+        BulkDeleter.Deletion deletion = ingestService.deleteFile(sourceFile);
+        if (!deletion.done()) {
+            return DeletionResource.accepted(deletion);
+        }
+        return Response.ok(Map.of(
+                "deleted", deletion.completion().join().deleted(),
+                "sourceFile", sourceFile))
+                .build();
     }
 
     /**
      * Delete all documents.
+     * Returns 202 Accepted (with a Location to poll) if the delete continues in the background.
      */
     @DELETE
     @Path("/all")
     @Produces(MediaType.APPLICATION_JSON)
-    public Map<String, Object> deleteAllDocuments() {
-        int deleteCount = ingestService.deleteAllDocuments();
-        return Map.of("deleted", deleteCount);
+    public Response deleteAllDocuments() {
+        BulkDeleter.Deletion deletion = ingestService.deleteAllDocuments();
+        if (!deletion.done()) {
+            return DeletionResource.accepted(deletion);
+        }
+        return Response.ok(Map.of("deleted", deletion.completion().join().deleted()))
+                .build();
     }
 
     /**
@@ -1,15 +1,22 @@
 package dev.ebullient.soloplay.play;
 
+import java.util.function.Supplier;
+
 import jakarta.enterprise.context.SessionScoped;
+import jakarta.enterprise.inject.spi.CDI;
 
 import dev.ebullient.soloplay.ai.LoreRetriever;
 import dev.ebullient.soloplay.ai.LoreTools;
+import dev.ebullient.soloplay.ai.StructuredOutput;
+import dev.ebullient.soloplay.ai.memory.TokenWindowMemory;
 import dev.ebullient.soloplay.play.model.PlayerActorDraft;
+import dev.langchain4j.memory.chat.ChatMemoryProvider;
+import dev.langchain4j.model.chat.StreamingChatModel;
 import dev.langchain4j.service.MemoryId;
 import dev.langchain4j.service.SystemMessage;
 import dev.langchain4j.service.UserMessage;
-import dev.langchain4j.service.guardrail.OutputGuardrails;
 import io.quarkiverse.langchain4j.RegisterAiService;
+import io.smallrye.mutiny.Multi;
 
 @SystemMessage("""
         You are a helpful D&D character creation assistant. Your role is to guide players through
@@ -101,10 +108,38 @@ import io.quarkiverse.langchain4j.RegisterAiService;
         - Celebrate their choices
 
         """)
-@RegisterAiService(tools = LoreTools.class, retrievalAugmentor = LoreRetriever.class)
+/**
+ * Streaming character creation assistant. Each method streams the raw JSON of an
+ * {@link ActorCreationResponse}; {@link ActorCreationEngine} forwards the message as it
+ * arrives and validates the complete response with {@link ActorCreationResponseGuardrail}.
+ */
+@RegisterAiService(streamingChatLanguageModelSupplier = ActorCreationAssistant.ModelSupplier.class, //
+        tools = LoreTools.class, retrievalAugmentor = LoreRetriever.class, //
+        chatMemoryProviderSupplier = ActorCreationAssistant.MemorySupplier.class)
 @SessionScoped
 public interface ActorCreationAssistant {
 
+    /**
+     * Constrains output to the {@link ActorCreationResponse} schema ({@code campaign.structured-output.actor-creation})
+     */
+    class ModelSupplier implements Supplier<StreamingChatModel> {
+        @Override
+        public StreamingChatModel get() {
+            return CDI.current().select(StructuredOutput.class).get()
+                    .streamingChatModel("actor-creation", ActorCreationResponse.class);
+        }
+    }
+
+    /**
+     * Keeps chat memory within the {@code campaign.chat-memory.actor-creation.max-tokens} budget
+     */
+    class MemorySupplier implements Supplier<ChatMemoryProvider> {
+        @Override
+        public ChatMemoryProvider get() {
+            return TokenWindowMemory.get().provider("actor-creation");
+        }
+    }
+
     @UserMessage("""
             {#if currentDraft}
             === CURRENT VALUES ===
@@ -122,8 +157,7 @@ public interface ActorCreationAssistant {
 
             {playerInput}
             """)
-    @OutputGuardrails(ActorCreationResponseGuardrail.class)
-    ActorCreationResponse step(
+    Multi<String> step(
             @MemoryId String chatMemoryId,
             String gameId,
             String adventureName,
@@ -136,8 +170,7 @@ public interface ActorCreationAssistant {
             Introduce yourself and ask them about their character concept.
             What kind of character do they want to play?
             """)
-    @OutputGuardrails(ActorCreationResponseGuardrail.class)
-    ActorCreationResponse start(
+    Multi<String> start(
             @MemoryId String chatMemoryId,
             String gameId,
             String adventureName);
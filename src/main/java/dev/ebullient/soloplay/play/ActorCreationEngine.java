@@ -1,20 +1,26 @@
 package dev.ebullient.soloplay.play;
 
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import dev.ebullient.soloplay.GameRepository;
 import dev.ebullient.soloplay.StringUtils;
+import dev.ebullient.soloplay.ai.IncrementalJsonParser;
 import dev.ebullient.soloplay.play.model.GameState;
 import dev.ebullient.soloplay.play.model.GameState.GamePhase;
 import dev.ebullient.soloplay.play.model.PlayerActor;
 import dev.ebullient.soloplay.play.model.PlayerActorCreationPatch;
 import dev.ebullient.soloplay.play.model.PlayerActorDraft;
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Multi;
 
 @ApplicationScoped
 public class ActorCreationEngine {
@@ -30,6 +36,12 @@ public class ActorCreationEngine {
     @Inject
     ObjectMapper objectMapper;
 
+    @Inject
+    ActorCreationResponseGuardrail guardrail;
+
+    @Inject
+    ChatMemoryRollback memoryRollback;
+
     public GameResponse processRequest(GameState game, String playerInput, GameEventEmitter emitter) {
         Objects.requireNonNull(game, "game");
         Objects.requireNonNull(emitter, "emitter");
@@ -51,22 +63,29 @@ public class ActorCreationEngine {
         if ("/confirm".equalsIgnoreCase(trimmed)) {
             return saveDraft(game, trimmed, currentDraft, emitter);
         }
-        emitter.assistantDelta("The GM is thinking…\n");
+        emitter.status("The GM is thinking…\n");
 
         try {
-            ActorCreationResponse response = handleAssistantResponse(game, currentDraft, trimmed);
+            ActorCreationResponse response = streamResponse(chatMemoryId(game),
+                    () -> handleAssistantResponse(game, currentDraft, trimmed), emitter);
+            if (response == null) {
+                return GameResponse.error("Unable to understand the GM's response");
+            }
 
             // All is well with parsed response
             var message = response.message();
             var patch = response.patch();
 
-            emitter.assistantDelta("Updating your character…\n");
             PlayerActorDraft updatedDraft = applyPatch(currentDraft, patch);
             updateDraft(game, updatedDraft);
 
             return GameResponse.reply(
                     (message == null ? "ok." : message) + "\n\n"
                             + "\n\nUse `/draft` to review your character so far, or `/confirm` if this looks good to you.");
+        } catch (CancellationException e) {
+            throw e;
+        } catch (RejectedResponseException e) {
+            return GameResponse.error("The GM's response was not applied (" + e.getMessage() + "). Please try again.");
         } catch (Exception e) {
             String message = e.getMessage();
             if (message == null) {
@@ -80,7 +99,7 @@ public class ActorCreationEngine {
             String trimmedInput,
             PlayerActorDraft draft,
             GameEventEmitter emitter) {
-        emitter.assistantDelta("Confirming character…\n");
+        emitter.status("Confirming character…\n");
 
         String missing = missingRequired(draft);
         if (missing != null) {
@@ -88,7 +107,7 @@ public class ActorCreationEngine {
         }
 
         PlayerActor actor = new PlayerActor(game.getGameId(), draft);
-        emitter.assistantDelta("Saving character…\n");
+        emitter.status("Saving character…\n");
         gameRepository.saveActor(actor);
         cleanupDraft(game);
 
@@ -121,10 +140,56 @@ public class ActorCreationEngine {
         return GameResponse.reply("Ok — cleared your character draft.");
     }
 
-    private ActorCreationResponse handleAssistantResponse(GameState game,
+    /**
+     * Consume the streamed response, forwarding the message to the emitter as it arrives.
+     * The draft is only patched once the complete response has been received and parsed.
+     * If the turn is cancelled, chat memory is rolled back ({@link ChatMemoryRollback}) and
+     * {@link CancellationException} is thrown.
+     * If the response fails the guardrail check, chat memory is rolled back and
+     * {@link RejectedResponseException} is thrown, so the draft is not patched.
+     * Chat memory is also rolled back if the stream fails.
+     *
+     * @return the parsed response; if the response could not be parsed, a response
+     *         containing only the message that was streamed (or null if there was none)
+     */
+    ActorCreationResponse streamResponse(String memoryId, Supplier<Multi<String>> call, GameEventEmitter emitter) {
+        IncrementalJsonParser message = new IncrementalJsonParser("message", emitter::assistantDelta);
+        var snapshot = memoryRollback.messages(memoryId);
+        boolean kept = false;
+        try {
+            emitter.cancellation().consume(call.get(), message);
+            ActorCreationResponse response = checkedResponse(memoryId, message);
+            kept = true;
+            return response;
+        } finally {
+            // Cancelled, rejected, or failed: take back what the call added
+            if (!kept) {
+                memoryRollback.rollback(memoryId, snapshot);
+            }
+        }
+    }
+
+    private ActorCreationResponse checkedResponse(String memoryId, IncrementalJsonParser message) {
+        try {
+            ActorCreationResponse response = guardrail.parse(message.json());
+            String problem = guardrail.check(response);
+            if (problem != null) {
+                Log.warnf("Rejected streamed character creation response for %s: %s", memoryId, problem);
+                throw new RejectedResponseException(problem);
+            }
+            return response;
+        } catch (JsonProcessingException e) {
+            Log.warnf(e, "Unable to parse streamed character creation response: %s", message.json());
+            return message.streamed()
+                    ? new ActorCreationResponse(message.text(), null)
+                    : null;
+        }
+    }
+
+    private Multi<String> handleAssistantResponse(GameState game,
             PlayerActorDraft currentDraft,
             String playerInput) {
-        String chatMemoryId = game.getGameId() + "-character";
+        String chatMemoryId = chatMemoryId(game);
 
         if ((playerInput.isBlank() || playerInput.equals("/start")) && currentDraft == EMPTY_DRAFT) {
             return assistant.start(chatMemoryId, game.getGameId(), game.getAdventureName());
@@ -134,6 +199,10 @@ public class ActorCreationEngine {
         }
     }
 
+    static String chatMemoryId(GameState game) {
+        return game.getGameId() + "-character";
+    }
+
     public GameResponse help(GameState game) {
         return GameResponse.reply("""
                 Character creation commands:
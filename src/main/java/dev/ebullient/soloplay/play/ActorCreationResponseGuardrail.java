@@ -1,41 +1,27 @@
 package dev.ebullient.soloplay.play;
 
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.inject.Inject;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
-import dev.langchain4j.data.message.AiMessage;
-import dev.langchain4j.guardrail.OutputGuardrail;
-import dev.langchain4j.guardrail.OutputGuardrailResult;
+import dev.ebullient.soloplay.ai.JsonResponseGuardrail;
 
 @ApplicationScoped
-public class ActorCreationResponseGuardrail implements OutputGuardrail {
-
-    /**
-     * The default message to use when reprompting (JsonExtractorOutputGuardrail)
-     */
-    public static final String REPROMPT_MESSAGE = "Invalid JSON";
+public class ActorCreationResponseGuardrail extends JsonResponseGuardrail<ActorCreationResponse> {
 
-    /**
-     * The default prompt to append to the LLM during a reprompt (JsonExtractorOutputGuardrail)
-     */
-    public static final String REPROMPT_PROMPT = "Make sure you return a valid JSON object following the specified format";
+    @Override
+    protected String name() {
+        return "actor-creation";
+    }
 
-    @Inject
-    ObjectMapper objectMapper;
+    @Override
+    protected Class<ActorCreationResponse> responseType() {
+        return ActorCreationResponse.class;
+    }
 
     @Override
-    public OutputGuardrailResult validate(AiMessage responseFromLLM) {
-        try {
-            ActorCreationResponse response = objectMapper.readValue(responseFromLLM.text(), ActorCreationResponse.class);
-            if (response.message() == null || response.message().isBlank()) {
-                return reprompt("Missing message to ", REPROMPT_PROMPT);
-            }
-            return OutputGuardrailResult.successWith(responseFromLLM.text(), response);
-        } catch (JsonProcessingException e) {
-            return reprompt(REPROMPT_MESSAGE, e, REPROMPT_PROMPT);
+    protected String problem(ActorCreationResponse response) {
+        if (response.message() == null || response.message().isBlank()) {
+            return "Missing message to the player";
         }
+        return null;
     }
 }
@@ -0,0 +1,85 @@
+package dev.ebullient.soloplay.play;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import io.quarkus.logging.Log;
+
+/**
+ * Takes back what a cancelled or rejected turn added to a game's chat memory.
+ *
+ * The AI service writes chat memory itself: the prompt when the call starts, and the
+ * reply when the stream ends. Only the messages the turn appended are removed; messages
+ * it evicted stay evicted, as they have already been handed to compaction (and folded
+ * into the story summary). A cancelled stream can still write its reply after the
+ * rollback, so the rolled-back memory is remembered and checked again before the next
+ * call for that memory reads it ({@link #messages(String)}).
+ */
+@ApplicationScoped
+public class ChatMemoryRollback {
+
+    @Inject
+    ChatMemoryStore chatMemoryStore;
+
+    /** Memory as it was rolled back, until the next call settles it */
+    private final Map<String, List<ChatMessage>> rolledBack = new ConcurrentHashMap<>();
+
+    /**
+     * @return the current messages, without anything a previously cancelled call wrote late
+     */
+    public List<ChatMessage> messages(String memoryId) {
+        List<ChatMessage> expected = rolledBack.get(memoryId);
+        try {
+            List<ChatMessage> current = chatMemoryStore.getMessages(memoryId);
+            if (expected == null || current.equals(expected)) {
+                return current;
+            }
+            List<ChatMessage> settled = retained(expected, current);
+            Log.debugf("Dropping %d late message(s) from cancelled call for %s", current.size() - settled.size(),
+                    memoryId);
+            chatMemoryStore.updateMessages(memoryId, settled);
+            return settled;
+        } finally {
+            // Settled or not, later calls must not compare against this rollback
+            if (expected != null) {
+                rolledBack.remove(memoryId, expected);
+            }
+        }
+    }
+
+    /**
+     * Remove the messages added since the snapshot was taken.
+     *
+     * @param snapshot Messages before the call (see {@link #messages(String)})
+     */
+    public void rollback(String memoryId, List<ChatMessage> snapshot) {
+        List<ChatMessage> settled = retained(snapshot, chatMemoryStore.getMessages(memoryId));
+        chatMemoryStore.updateMessages(memoryId, settled);
+        rolledBack.put(memoryId, settled);
+    }
+
+    /**
+     * @return the leading messages of current that were already in previous (in order);
+     *         the first message previous doesn't have starts what was added since
+     */
+    static List<ChatMessage> retained(List<ChatMessage> previous, List<ChatMessage> current) {
+        List<ChatMessage> kept = new ArrayList<>();
+        int from = 0;
+        for (ChatMessage message : current) {
+            int i = previous.subList(from, previous.size()).indexOf(message);
+            if (i < 0) {
+                break;
+            }
+            kept.add(message);
+            from += i + 1;
+        }
+        return kept;
+    }
+}
@@ -0,0 +1,132 @@
+package dev.ebullient.soloplay.play;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Buffers streamed narration so tokens go out in fewer, larger frames.
+ *
+ * Text is flushed when the buffer reaches {@code maxBytes} (UTF-8), when the oldest
+ * buffered text is {@code window} old, or when the stream is closed (before
+ * AssistantDone is sent). Flushes happen in order, one at a time.
+ *
+ * Frames are sent outside the lock that guards the buffer (a separate lock keeps them
+ * in order). The shared timer only hands a due flush to a virtual thread of its own,
+ * so a slow send for one game doesn't hold up the others.
+ *
+ * A zero window turns coalescing off: every delta is passed straight through.
+ */
+class DeltaCoalescer implements AutoCloseable {
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "delta-coalescer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Duration window;
+    private final int maxBytes;
+    private final Consumer<String> flush;
+
+    // Guarded by this
+    private final StringBuilder buffer = new StringBuilder();
+    private final Deque<String> ready = new ArrayDeque<>();
+    private int bufferedBytes;
+    private ScheduledFuture<?> pending;
+    private long generation;
+    private boolean closed;
+
+    /** Held while frames are sent, so they go out in order */
+    private final Object sending = new Object();
+
+    DeltaCoalescer(Duration window, int maxBytes, Consumer<String> flush) {
+        this.window = window;
+        this.maxBytes = maxBytes;
+        this.flush = flush;
+    }
+
+    void append(String text) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            if (closed || window.isZero() || window.isNegative()) {
+                ready.add(text);
+            } else {
+                buffer.append(text);
+                bufferedBytes += text.getBytes(StandardCharsets.UTF_8).length;
+                if (bufferedBytes >= maxBytes) {
+                    takeBuffer();
+                } else if (pending == null) {
+                    long scheduled = generation;
+                    pending = TIMER.schedule(
+                            () -> Thread.ofVirtual().name("delta-coalescer-flush").start(() -> flushScheduled(scheduled)),
+                            window.toMillis(), TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+        send();
+    }
+
+    /**
+     * Send anything still buffered; later deltas are passed straight through.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            takeBuffer();
+            closed = true;
+        }
+        send();
+    }
+
+    private void flushScheduled(long scheduled) {
+        synchronized (this) {
+            if (scheduled != generation) {
+                return; // flushed (or rescheduled) since
+            }
+            takeBuffer();
+        }
+        send();
+    }
+
+    /**
+     * Move buffered text to the frames ready to send. Call holding this.
+     */
+    private void takeBuffer() {
+        generation++;
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        if (buffer.isEmpty()) {
+            return;
+        }
+        ready.add(buffer.toString());
+        buffer.setLength(0);
+        bufferedBytes = 0;
+    }
+
+    private synchronized String nextReady() {
+        return ready.poll();
+    }
+
+    /**
+     * Send ready frames in order. Whoever adds a frame calls this afterwards, so none is left behind.
+     */
+    private void send() {
+        synchronized (sending) {
+            String text;
+            while ((text = nextReady()) != null) {
+                flush.accept(text);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package dev.ebullient.soloplay.play;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.quarkus.logging.Log;
+import io.quarkus.runtime.Startup;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.MessageConsumer;
+
+/**
+ * Broadcasts over the Vert.x event bus: every instance subscribes to one address and
+ * ignores its own messages. Reaching other instances requires a clustered Vert.x
+ * ({@code quarkus.vertx.cluster.clustered=true} and a cluster manager on the classpath);
+ * otherwise messages only reach buses in the same JVM.
+ */
+@Startup
+@ApplicationScoped
+@IfBuildProperty(name = "campaign.play.cluster", stringValue = "clustered")
+public class EventBusPlayBus implements PlayBus {
+
+    static final String ADDRESS = "soloplay.play.broadcast";
+
+    /**
+     * @param origin Instance that published the message
+     * @param gameId Game the message is for
+     * @param message Broadcast message
+     */
+    record Envelope(String origin, String gameId, PlayWsServerMessage message) {
+    }
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @ConfigProperty(name = "campaign.play.instance-id")
+    Optional<String> configuredId;
+
+    String instanceId;
+    private volatile BiConsumer<String, PlayWsServerMessage> handler = PlayWebSocket::deliver;
+    private MessageConsumer<String> consumer;
+
+    @PostConstruct
+    void init() {
+        instanceId = configuredId.orElseGet(() -> UUID.randomUUID().toString());
+        consumer = vertx.eventBus().consumer(ADDRESS, m -> receive(m.body()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        consumer.unregister();
+    }
+
+    @Override
+    public void publish(String gameId, PlayWsServerMessage message) {
+        try {
+            vertx.eventBus().publish(ADDRESS, objectMapper.writeValueAsString(new Envelope(instanceId, gameId, message)));
+        } catch (JsonProcessingException e) {
+            Log.errorf(e, "Unable to publish %s for gameId %s", message.getClass().getSimpleName(), gameId);
+        }
+    }
+
+    @Override
+    public void onMessage(BiConsumer<String, PlayWsServerMessage> handler) {
+        this.handler = handler;
+    }
+
+    private void receive(String body) {
+        try {
+            Envelope envelope = objectMapper.readValue(body, Envelope.class);
+            if (!instanceId.equals(envelope.origin())) {
+                handler.accept(envelope.gameId(), envelope.message());
+            }
+        } catch (JsonProcessingException e) {
+            Log.errorf(e, "Unreadable broadcast: %s", e.getMessage());
+        }
+    }
+}
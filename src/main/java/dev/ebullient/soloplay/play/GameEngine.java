@@ -3,11 +3,13 @@ package dev.ebullient.soloplay.play;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
 import dev.ebullient.soloplay.GameRepository;
+import dev.ebullient.soloplay.GameWriteBehind;
 import dev.ebullient.soloplay.play.model.Actor;
 import dev.ebullient.soloplay.play.model.Event;
 import dev.ebullient.soloplay.play.model.GameState;
@@ -40,22 +42,67 @@ public class GameEngine {
     @Inject
     GameContext gameContext;
 
+    @Inject
+    TurnContextLoader turnContextLoader;
+
+    @Inject
+    GameWriteBehind writeBehind;
+
+    @Inject
+    GameSessions gameSessions;
+
+    /**
+     * @return the live state for the game (shared by all connections), or null if it does not exist
+     */
     public GameState getGameState(String gameId) {
-        return gameRepository.findGameById(gameId);
+        return gameSessions.get(gameId);
     }
 
     public GameResponse processRequest(GameState game, String playerInput, GameEventEmitter emitter, boolean resuming) {
         Objects.requireNonNull(emitter, "emitter");
-        gameContext.setGameState(game, gamePlayEngine.listTheParty(game));
+
+        // The previous turn's writes must be durable before this turn reads anything
+        try {
+            writeBehind.await(game.getGameId());
+        } catch (IllegalStateException e) {
+            // Discard the unsaved state: the next request reloads the game from its last save
+            gameSessions.evict(game.getGameId());
+            return GameResponse.error("The previous turn could not be saved: " + e.getMessage()
+                    + ". The game will continue from its last save.");
+        }
 
         GamePhase phase = game.getGamePhase();
         Log.debugf("Resuming game phase: %s", phase);
 
         String trimmed = playerInput == null ? "" : playerInput.trim();
 
+        // Status and help don't need the turn context (unless the phase must be recovered first)
+        if (phase != GamePhase.UNKNOWN) {
+            if (isStatusCommand(trimmed)) {
+                return handleStatusCommand(game);
+            }
+            if (isHelpCommand(trimmed)) {
+                return handleHelpCommand(game, phase == GamePhase.CHARACTER_CREATION);
+            }
+        }
+
+        // Independent lookups run concurrently
+        final TurnContextLoader.TurnContext context;
+        try {
+            context = turnContextLoader.load(game,
+                    resuming || phase == GamePhase.SCENE_INITIALIZATION || phase == GamePhase.UNKNOWN,
+                    phase == GamePhase.UNKNOWN);
+        } catch (TurnContextTimeoutException e) {
+            // Nothing from this turn has been applied; the player can try again
+            Log.warnf("Turn context for game %s: %s", game.getGameId(), e.getMessage());
+            return GameResponse.error("The game is slow to respond right now, so this turn was not started. "
+                    + "Please try again.");
+        }
+        gameContext.setGameState(game, context.party());
+
         // RECOVERY: normalize UNKNOWN into a concrete phase
         if (phase == GamePhase.UNKNOWN) {
-            if (gameRepository.hasProtagonists(game.getGameId())) {
+            if (context.hasProtagonists()) {
                 Log.infof("Recovering game %s from UNKNOWN to ACTIVE_PLAY (protagonists exist)", game.getGameId());
                 game.setGamePhase(GamePhase.ACTIVE_PLAY);
                 phase = GamePhase.ACTIVE_PLAY;
@@ -75,28 +122,39 @@ public class GameEngine {
         }
 
         final GameResponse response;
-        if (createActors) {
-            response = actorCreationEngine.processRequest(game, playerInput, emitter);
-            gameRepository.refreshTheParty(game.getGameId());
-        } else if (game.getGamePhase() == GamePhase.SCENE_INITIALIZATION || resuming) {
-            // Check for existing events to decide: recap or fresh start
-            List<Event> events = gameRepository.listEvents(game.getGameId());
-            if (events.isEmpty()) {
-                // New game - start the opening scene
-                response = gamePlayEngine.sceneStart(game, emitter);
-                game.incrementTurn();
+        try {
+            if (createActors) {
+                response = actorCreationEngine.processRequest(game, playerInput, emitter);
+                gameRepository.refreshTheParty(game.getGameId());
+            } else if (game.getGamePhase() == GamePhase.SCENE_INITIALIZATION || resuming) {
+                // Check for existing events to decide: recap or fresh start
+                List<Event> events = context.events();
+                if (events.isEmpty()) {
+                    // New game - start the opening scene
+                    response = gamePlayEngine.sceneStart(game, context.party(), emitter);
+                    game.incrementTurn();
+                } else {
+                    // Resuming - build recap from event summaries
+                    String recentEvents = formatRecentEvents(events);
+                    response = gamePlayEngine.recap(game, context.party(), context.storySoFar(), recentEvents, emitter);
+                }
+                game.setGamePhase(game.getGamePhase().next());
             } else {
-                // Resuming - build recap from event summaries
-                String recentEvents = formatRecentEvents(events);
-                response = gamePlayEngine.recap(game, recentEvents, emitter);
+                response = gamePlayEngine.processRequest(game, context.party(), context.storySoFar(), playerInput,
+                        emitter);
+                game.incrementTurn();
             }
-            game.setGamePhase(game.getGamePhase().next());
-        } else {
-            response = gamePlayEngine.processRequest(game, playerInput, emitter);
-            game.incrementTurn();
+        } catch (CancellationException e) {
+            // Nothing from this turn has been applied or saved
+            Log.infof("Turn cancelled for game %s", game.getGameId());
+            return GameResponse.error("Turn cancelled.");
+        } catch (RejectedResponseException e) {
+            // Nothing from this turn has been applied or saved; the player can try again
+            Log.infof("GM response rejected for game %s: %s", game.getGameId(), e.getMessage());
+            return GameResponse.error("The GM's response was not applied (" + e.getMessage() + "). Please try again.");
         }
 
-        gameRepository.saveGame(game);
+        writeBehind.submit(game.getGameId(), "game state", () -> gameRepository.saveGame(game));
         return response;
     }
 
@@ -155,6 +213,8 @@ public class GameEngine {
      * Takes the last few turn summaries for context.
      */
     String formatRecentEvents(List<Event> events) {
+        // The story summary is passed on its own
+        events = events.stream().filter(e -> !e.isMemorySummary()).toList();
         if (events.isEmpty()) {
             return "No previous events.";
         }
@@ -8,6 +8,21 @@ package dev.ebullient.soloplay.play;
 public interface GameEventEmitter {
     void assistantDelta(String text);
 
+    /**
+     * Progress text shown while the request is processed (e.g. "The GM is thinking…");
+     * streamed like the reply, but not part of it.
+     */
+    default void status(String text) {
+        assistantDelta(text);
+    }
+
+    /**
+     * @return cancellation signal for the turn being processed
+     */
+    default TurnCancellation cancellation() {
+        return TurnCancellation.NONE;
+    }
+
     static GameEventEmitter noop() {
         return text -> {
         };
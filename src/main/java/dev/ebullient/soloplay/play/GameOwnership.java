@@ -0,0 +1,63 @@
+package dev.ebullient.soloplay.play;
+
+import java.time.Duration;
+
+/**
+ * Which server instance may run turns for a game.
+ *
+ * Turns for a game are generated by one instance at a time: the instance running a
+ * turn holds a lease on the game, renewed at the start of every turn and released
+ * when its queue of turns is empty. Another instance that wants to run a turn waits
+ * for the lease, and takes it once it is released or has expired.
+ *
+ * {@link InMemoryGameOwnership} serves a single instance;
+ * {@link Neo4jGameOwnership} keeps leases in Neo4j for several instances sharing one
+ * database ({@code campaign.play.cluster=clustered}).
+ */
+public interface GameOwnership {
+
+    /** How often {@link #awaitClaim(String, Duration)} tries again */
+    Duration CLAIM_POLL = Duration.ofMillis(250);
+
+    enum Claim {
+        /** The lease was free, or held by another instance before: cached game state may be stale */
+        ACQUIRED,
+        /** This instance already held (or was the last to hold) the lease */
+        RENEWED,
+        /** Another instance holds the lease */
+        BUSY
+    }
+
+    /**
+     * Take or renew the lease to run turns for a game.
+     */
+    Claim claim(String gameId);
+
+    /**
+     * Take or renew the lease, waiting while another instance holds it (until it is released or expires).
+     *
+     * @param wait How long to wait for the lease
+     * @return ACQUIRED or RENEWED; BUSY if another instance still held the lease when the wait ran out
+     */
+    default Claim awaitClaim(String gameId, Duration wait) {
+        long deadline = System.nanoTime() + wait.toNanos();
+        while (true) {
+            Claim claim = claim(gameId);
+            long remaining = deadline - System.nanoTime();
+            if (claim != Claim.BUSY || remaining <= 0) {
+                return claim;
+            }
+            try {
+                Thread.sleep(Duration.ofNanos(Math.min(remaining, CLAIM_POLL.toNanos())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Claim.BUSY;
+            }
+        }
+    }
+
+    /**
+     * Give up the lease (if this instance holds it), so other instances can run turns.
+     */
+    void release(String gameId);
+}
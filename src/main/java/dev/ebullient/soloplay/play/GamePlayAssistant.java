@@ -1,18 +1,24 @@
 package dev.ebullient.soloplay.play;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 import jakarta.enterprise.context.SessionScoped;
+import jakarta.enterprise.inject.spi.CDI;
 
 import dev.ebullient.soloplay.ai.LoreRetriever;
 import dev.ebullient.soloplay.ai.LoreTools;
+import dev.ebullient.soloplay.ai.StructuredOutput;
+import dev.ebullient.soloplay.ai.memory.TokenWindowMemory;
 import dev.ebullient.soloplay.play.model.Event;
 import dev.ebullient.soloplay.play.model.RollResult;
+import dev.langchain4j.memory.chat.ChatMemoryProvider;
+import dev.langchain4j.model.chat.StreamingChatModel;
 import dev.langchain4j.service.MemoryId;
 import dev.langchain4j.service.SystemMessage;
 import dev.langchain4j.service.UserMessage;
-import dev.langchain4j.service.guardrail.OutputGuardrails;
 import io.quarkiverse.langchain4j.RegisterAiService;
+import io.smallrye.mutiny.Multi;
 
 @SystemMessage("""
         You are an expert D&D Game Master running a solo adventure. Your role is to create an engaging,
@@ -162,13 +168,51 @@ import io.quarkiverse.langchain4j.RegisterAiService;
           "actorsPresent": ["Dolgrim", "Hooded Woman"],
           "locationsPresent": ["Rusty Anchor Tavern"]
         }
+        {#if storySoFar}
+
+        === STORY SO FAR ===
+        Play that is older than the conversation:
+
+        {storySoFar}
+        {/if}
 
         """)
-@RegisterAiService(tools = { LoreTools.class, GameTools.class }, retrievalAugmentor = LoreRetriever.class)
-@OutputGuardrails(GamePlayResponseGuardrail.class)
+/**
+ * Streaming GM assistant. Each method streams the raw JSON of a {@link GamePlayResponse};
+ * {@link GamePlayEngine} forwards narration as it arrives and validates the complete
+ * response with {@link GamePlayResponseGuardrail}.
+ *
+ * The story so far is rendered into the system message, not the user messages: chat
+ * memory holds a single system message (replaced when the summary changes), so the
+ * summary isn't stored again with every turn.
+ */
+@RegisterAiService(streamingChatLanguageModelSupplier = GamePlayAssistant.ModelSupplier.class, //
+        tools = { LoreTools.class, GameTools.class }, retrievalAugmentor = LoreRetriever.class, //
+        chatMemoryProviderSupplier = GamePlayAssistant.MemorySupplier.class)
 @SessionScoped
 public interface GamePlayAssistant {
 
+    /**
+     * Constrains output to the {@link GamePlayResponse} schema ({@code campaign.structured-output.gameplay})
+     */
+    class ModelSupplier implements Supplier<StreamingChatModel> {
+        @Override
+        public StreamingChatModel get() {
+            return CDI.current().select(StructuredOutput.class).get()
+                    .streamingChatModel("gameplay", GamePlayResponse.class);
+        }
+    }
+
+    /**
+     * Keeps chat memory within the {@code campaign.chat-memory.gameplay.max-tokens} budget
+     */
+    class MemorySupplier implements Supplier<ChatMemoryProvider> {
+        @Override
+        public ChatMemoryProvider get() {
+            return TokenWindowMemory.get().provider("gameplay");
+        }
+    }
+
     // --- Scene Start: First scene of the adventure ---
 
     @UserMessage("""
@@ -200,10 +244,11 @@ public interface GamePlayAssistant {
 
             RESPOND matching the OUTPUT FORMAT above (narration, turnSummary, currentSituation, etc. at top level).
             """)
-    GamePlayResponse sceneStart(
+    Multi<String> sceneStart(
             @MemoryId String gameId,
             String adventureName,
-            List<String> theParty);
+            List<String> theParty,
+            String storySoFar); // used by the system message; none yet when the adventure starts
 
     // --- Recap: Resuming a session ---
 
@@ -229,11 +274,12 @@ public interface GamePlayAssistant {
 
             RESPOND matching the OUTPUT FORMAT above (narration, turnSummary, currentSituation, etc. at top level).
             """)
-    GamePlayResponse recap(
+    Multi<String> recap(
             @MemoryId String gameId,
             String adventureName,
             List<String> theParty,
             String locationName,
+            String storySoFar, // rolling summary of play that has left chat memory (system message)
             String recentEvents); // formatted chat history
 
     // --- Standard Turn: Player action (no pending roll) ---
@@ -258,14 +304,22 @@ public interface GamePlayAssistant {
             Player says:
 
             {playerInput}
+            {#if precomputeOutcomes}
+
+            If you set pendingRoll with a DC, also fill in pendingRoll.onSuccess and pendingRoll.onFailure:
+            a short outcome for each (narration, turnSummary, playerChoices, patches, currentLocation),
+            written as if the roll had just been made. Do not reveal either outcome in the narration.
+            {/if}
             """)
-    GamePlayResponse turn(
+    Multi<String> turn(
             @MemoryId String gameId,
             String adventureName,
             List<String> theParty,
             String locationName,
+            String storySoFar,
             Event event,
-            String playerInput);
+            String playerInput,
+            boolean precomputeOutcomes);
 
     // --- Roll Resolution: Player completed a roll ---
 
@@ -292,12 +346,20 @@ public interface GamePlayAssistant {
 
             Narrate the outcome of this {rollResult.type}. Describe what happens
             based on the success or failure, then present the next decision point.
+            {#if precomputeOutcomes}
+
+            If you set pendingRoll with a DC, also fill in pendingRoll.onSuccess and pendingRoll.onFailure:
+            a short outcome for each (narration, turnSummary, playerChoices, patches, currentLocation),
+            written as if the roll had just been made. Do not reveal either outcome in the narration.
+            {/if}
             """)
-    GamePlayResponse resolveRoll(
+    Multi<String> resolveRoll(
             @MemoryId String gameId,
             String adventureName,
             List<String> theParty,
             String locationName,
+            String storySoFar,
             Event event,
-            RollResult rollResult);
+            RollResult rollResult,
+            boolean precomputeOutcomes);
 }
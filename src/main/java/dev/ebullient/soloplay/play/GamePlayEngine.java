@@ -4,13 +4,20 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Supplier;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import dev.ebullient.soloplay.GameRepository;
+import dev.ebullient.soloplay.GameWriteBehind;
+import dev.ebullient.soloplay.ai.IncrementalJsonParser;
 import dev.ebullient.soloplay.play.GameEffect.HtmlFragment;
 import dev.ebullient.soloplay.play.model.Actor;
 import dev.ebullient.soloplay.play.model.BaseEntity;
@@ -20,7 +27,13 @@ import dev.ebullient.soloplay.play.model.Location;
 import dev.ebullient.soloplay.play.model.Patch;
 import dev.ebullient.soloplay.play.model.PendingRoll;
 import dev.ebullient.soloplay.play.model.PlayerActor;
+import dev.ebullient.soloplay.play.model.RollOutcome;
 import dev.ebullient.soloplay.play.model.RollResult;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.ChatMemory;
+import io.quarkus.logging.Log;
+import io.smallrye.mutiny.Multi;
 
 @ApplicationScoped
 public class GamePlayEngine {
@@ -38,31 +51,58 @@ public class GamePlayEngine {
     @Inject
     RollHandler rollHandler;
 
-    public GameResponse sceneStart(GameState game, GameEventEmitter emitter) {
-        emitter.assistantDelta("Setting the scene…\n");
+    @Inject
+    GamePlayResponseGuardrail guardrail;
+
+    @Inject
+    GameWriteBehind writeBehind;
+
+    @Inject
+    ChatMemoryRollback memoryRollback;
+
+    /**
+     * Ask the GM to write success and failure outcomes with each roll it requests,
+     * so rolls against a DC are settled locally instead of with a second GM call.
+     */
+    @ConfigProperty(name = "campaign.rolls.precompute-outcomes", defaultValue = "false")
+    boolean precomputeOutcomes;
+
+    public GameResponse sceneStart(GameState game, List<String> party, GameEventEmitter emitter) {
+        emitter.status("Setting the scene…\n");
 
-        var response = assistant.sceneStart(
+        var response = streamResponse(game.getGameId(), () -> assistant.sceneStart(
                 game.getGameId(),
                 game.getAdventureName(),
-                listTheParty(game));
+                party,
+                null), emitter);
 
         return processResponse(game, response, emitter);
     }
 
-    public GameResponse recap(GameState game, String recentEvents, GameEventEmitter emitter) {
-        emitter.assistantDelta("Recapping the story…\n");
+    /**
+     * @param storySoFar Rolling summary of play that has left chat memory; null if none yet
+     */
+    public GameResponse recap(GameState game, List<String> party, String storySoFar, String recentEvents,
+            GameEventEmitter emitter) {
+        emitter.status("Recapping the story…\n");
 
-        var response = assistant.recap(
+        var response = streamResponse(game.getGameId(), () -> assistant.recap(
                 game.getGameId(),
                 game.getAdventureName(),
-                listTheParty(game),
+                party,
                 game.getCurrentLocation(),
-                recentEvents);
+                storySoFar,
+                recentEvents), emitter);
 
         return processResponse(game, response, emitter);
     }
 
-    public GameResponse processRequest(GameState game, String playerInput, GameEventEmitter emitter) {
+    /**
+     * @param party Formatted party members, already loaded for this turn ({@link TurnContextLoader})
+     * @param storySoFar Rolling summary of play that has left chat memory; null if none yet
+     */
+    public GameResponse processRequest(GameState game, List<String> party, String storySoFar, String playerInput,
+            GameEventEmitter emitter) {
         Objects.requireNonNull(game, "game");
         Objects.requireNonNull(emitter, "emitter");
 
@@ -71,63 +111,161 @@ public class GamePlayEngine {
         // Check for pending roll resolution
         PendingRoll pendingRoll = rollHandler.getPendingRoll(game);
         if (pendingRoll != null && isRollInput(trimmed)) {
-            return resolveRoll(game, pendingRoll, trimmed, emitter);
+            return resolveRoll(game, party, storySoFar, pendingRoll, trimmed, emitter);
         }
 
         // Standard turn
-        return handleTurn(game, trimmed, emitter);
+        return handleTurn(game, party, storySoFar, trimmed, emitter);
     }
 
-    private GameResponse handleTurn(GameState game, String playerInput, GameEventEmitter emitter) {
-        emitter.assistantDelta("The GM is thinking…\n");
+    private GameResponse handleTurn(GameState game, List<String> party, String storySoFar, String playerInput,
+            GameEventEmitter emitter) {
+        emitter.status("The GM is thinking…\n");
 
-        // TODO: gather context for the turn
-        var response = assistant.turn(
+        var response = streamResponse(game.getGameId(), () -> assistant.turn(
                 game.getGameId(),
                 game.getAdventureName(),
-                listTheParty(game),
+                party,
                 game.getCurrentLocation(),
+                storySoFar,
                 game.getStash(EVENT_STASH, Event.class),
-                playerInput);
+                playerInput,
+                precomputeOutcomes), emitter);
 
         return processResponse(game, response, emitter);
     }
 
-    private GameResponse resolveRoll(GameState game, PendingRoll pending, String rollInput,
-            GameEventEmitter emitter) {
-        emitter.assistantDelta("Processing roll…\n");
+    private GameResponse resolveRoll(GameState game, List<String> party, String storySoFar, PendingRoll pending,
+            String rollInput, GameEventEmitter emitter) {
+        emitter.status("Processing roll…\n");
 
         RollResult rollResult = rollHandler.handleRollCommand(game, rollInput);
         if (rollResult == null) {
             return GameResponse.error("Could not parse roll input: " + rollInput);
         }
 
-        rollHandler.clearPendingRoll(game);
+        RollOutcome outcome = precomputeOutcomes ? rollHandler.settle(pending, rollResult) : null;
+        if (outcome != null) {
+            return settleRoll(game, rollResult, outcome, emitter);
+        }
 
-        var response = assistant.resolveRoll(
+        var response = streamResponse(game.getGameId(), () -> assistant.resolveRoll(
                 game.getGameId(),
                 game.getAdventureName(),
-                listTheParty(game),
+                party,
                 game.getCurrentLocation(),
+                storySoFar,
                 game.getStash(EVENT_STASH, Event.class),
-                rollResult);
+                rollResult,
+                precomputeOutcomes), emitter);
+
+        // Only settle the roll once the GM has responded (a cancelled or rejected turn keeps it pending)
+        rollHandler.clearPendingRoll(game);
 
         return processResponse(game, response, emitter);
     }
 
+    /**
+     * Settle a roll with the outcome the GM wrote when it asked for the roll.
+     * The roll and the outcome are added to the game's chat memory, as if the GM
+     * had narrated it, so the next turn follows on.
+     */
+    private GameResponse settleRoll(GameState game, RollResult rollResult, RollOutcome outcome,
+            GameEventEmitter emitter) {
+        Log.debugf("Settling roll locally for game %s: %s", game.getGameId(), rollResult);
+        String narration = "*%s: %s*\n\n%s".formatted(rollResult.breakdown(),
+                rollResult.success() ? "success" : "failure",
+                outcome.narration());
+        emitter.assistantDelta(narration);
+
+        GamePlayResponse response = new GamePlayResponse(narration, outcome.turnSummary(), null,
+                outcome.playerChoices(), outcome.patches(), outcome.currentLocation(), null, null, null);
+
+        // Settle any late write from a cancelled call, then add through the GM's own memory,
+        // so the token window (and compaction of what it evicts) applies as for any turn
+        memoryRollback.messages(game.getGameId());
+        ChatMemory memory = new GamePlayAssistant.MemorySupplier().get().get(game.getGameId());
+        memory.add(UserMessage.from("""
+                === ROLL RESULT ===
+                The player rolled for: %s
+                Result: %s (%s)
+                Outcome: %s""".formatted(rollResult.context(), rollResult.total(), rollResult.breakdown(),
+                rollResult.success() ? "SUCCESS" : "FAILURE")));
+        try {
+            memory.add(AiMessage.from(objectMapper.writeValueAsString(response)));
+        } catch (JsonProcessingException e) {
+            memory.add(AiMessage.from(narration));
+        }
+
+        rollHandler.clearPendingRoll(game);
+        return processResponse(game, response, emitter);
+    }
+
+    /**
+     * Consume the streamed response on the calling (virtual) thread, forwarding
+     * narration to the emitter as it arrives. World state is only changed once the
+     * complete response has been received and validated.
+     *
+     * If the turn is cancelled, what the call added to the game's chat memory is
+     * removed ({@link ChatMemoryRollback}), and {@link CancellationException} is thrown.
+     * If the response fails the guardrail check, chat memory is rolled back and
+     * {@link RejectedResponseException} is thrown: none of it is applied. Chat memory is
+     * also rolled back if the stream fails.
+     *
+     * @return the parsed response; if the response could not be parsed, a response
+     *         containing only the narration that was streamed (or null if there was none)
+     */
+    GamePlayResponse streamResponse(String memoryId, Supplier<Multi<String>> call, GameEventEmitter emitter) {
+        IncrementalJsonParser narration = new IncrementalJsonParser("narration", emitter::assistantDelta);
+        var snapshot = memoryRollback.messages(memoryId);
+        boolean kept = false;
+        try {
+            emitter.cancellation().consume(call.get(), narration);
+            GamePlayResponse response = checkedResponse(memoryId, narration);
+            kept = true;
+            return response;
+        } catch (CancellationException e) {
+            Log.infof("Turn cancelled for game %s; rolling back chat memory", memoryId);
+            throw e;
+        } finally {
+            // Cancelled, rejected, or failed: take back what the call added
+            if (!kept) {
+                memoryRollback.rollback(memoryId, snapshot);
+            }
+        }
+    }
+
+    private GamePlayResponse checkedResponse(String memoryId, IncrementalJsonParser narration) {
+        try {
+            GamePlayResponse response = guardrail.parse(narration.json());
+            String problem = guardrail.check(response);
+            if (problem != null) {
+                Log.warnf("Rejected streamed GM response for game %s: %s", memoryId, problem);
+                throw new RejectedResponseException(problem);
+            }
+            return response;
+        } catch (JsonProcessingException e) {
+            Log.warnf(e, "Unable to parse streamed GM response: %s", narration.json());
+            // Keep what the player has already seen, but don't change world state
+            return narration.streamed()
+                    ? new GamePlayResponse(narration.text(), null, null, null, null, null, null, null, null)
+                    : null;
+        }
+    }
+
     private GameResponse processResponse(GameState game, GamePlayResponse response, GameEventEmitter emitter) {
         if (response == null || response.narration() == null) {
             return GameResponse.error("No response from GM");
         }
 
-        game.setCurrentLocation(response.currentLocation());
+        if (response.currentLocation() != null) {
+            game.setCurrentLocation(response.currentLocation());
+        }
 
         // Apply patches (actors, locations, plot flags)
-        emitter.assistantDelta("Updating world state…\n");
         patchesAndEvents(game, response);
 
         // Store pending roll if present
-        emitter.assistantDelta("Checking for pending roll…\n");
         var htmlFragment = storePendingRoll(game, response.pendingRoll());
 
         return htmlFragment == null
@@ -194,7 +332,9 @@ public class GamePlayEngine {
         modified.addAll(actors);
         modified.addAll(locations);
 
-        gameRepository.saveAll(modified); // single TX
+        // single TX, after the reply has been sent (see GameWriteBehind)
+        writeBehind.submit(game.getGameId(), "turn " + game.getTurnNumber(),
+                () -> gameRepository.saveAll(modified));
     }
 
     Actor handleActor(GameState game, Patch p) {
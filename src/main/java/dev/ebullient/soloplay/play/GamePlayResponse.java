@@ -2,6 +2,8 @@ package dev.ebullient.soloplay.play;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import dev.ebullient.soloplay.play.model.Patch;
 import dev.ebullient.soloplay.play.model.PendingRoll;
 import dev.langchain4j.model.output.structured.Description;
@@ -11,7 +13,7 @@ public record GamePlayResponse(
 
         @Description("1-2 sentences capturing what happened AND where things stand now. MUST use the player character's actual name. DO NOT invent or alter character names.") String turnSummary,
 
-        @Description("If a roll is required, specify it here. Leave null if presenting choices.") PendingRoll pendingRoll,
+        @JsonProperty(required = false) @Description("If a roll is required, specify it here. Leave null if presenting choices.") PendingRoll pendingRoll,
 
         @Description("Available choices for the player. Leave empty if a roll is pending.") List<String> playerChoices,
 
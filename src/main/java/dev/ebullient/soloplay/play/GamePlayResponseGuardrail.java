@@ -1,47 +1,31 @@
 package dev.ebullient.soloplay.play;
 
 import jakarta.enterprise.context.ApplicationScoped;
-import jakarta.inject.Inject;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
-import dev.langchain4j.data.message.AiMessage;
-import dev.langchain4j.guardrail.OutputGuardrail;
-import dev.langchain4j.guardrail.OutputGuardrailResult;
-import io.quarkus.logging.Log;
+import dev.ebullient.soloplay.ai.JsonResponseGuardrail;
 
 @ApplicationScoped
-public class GamePlayResponseGuardrail implements OutputGuardrail {
-    /**
-     * The default message to use when reprompting (JsonExtractorOutputGuardrail)
-     */
-    public static final String REPROMPT_MESSAGE = "Invalid JSON";
-
-    /**
-     * The default prompt to append to the LLM during a reprompt (JsonExtractorOutputGuardrail)
-     */
-    public static final String REPROMPT_PROMPT = "Make sure you return a valid JSON object following the specified format";
+public class GamePlayResponseGuardrail extends JsonResponseGuardrail<GamePlayResponse> {
 
-    @Inject
-    ObjectMapper objectMapper;
+    @Override
+    protected String name() {
+        return "gameplay";
+    }
 
     @Override
-    public OutputGuardrailResult validate(AiMessage responseFromLLM) {
-        try {
-            Log.debugf("AiMessage: %s", objectMapper.writeValueAsString(responseFromLLM));
-            GamePlayResponse response = objectMapper.readValue(responseFromLLM.text(), GamePlayResponse.class);
-            if (response.narration() == null) {
-                return reprompt("Missing narration", REPROMPT_PROMPT);
-            }
-            if (response.pendingRoll() != null && response.playerChoices() != null && !response.playerChoices().isEmpty()) {
-                // The LLM violated the constraint - force correction
-                return reprompt("Offer only a roll or a choice of actions", REPROMPT_PROMPT);
-            }
+    protected Class<GamePlayResponse> responseType() {
+        return GamePlayResponse.class;
+    }
 
-            return OutputGuardrailResult.successWith(responseFromLLM.text(), response);
-        } catch (JsonProcessingException e) {
-            return reprompt(REPROMPT_MESSAGE, e, REPROMPT_PROMPT);
+    @Override
+    protected String problem(GamePlayResponse response) {
+        if (response.narration() == null) {
+            return "Missing narration";
+        }
+        if (response.pendingRoll() != null && response.playerChoices() != null && !response.playerChoices().isEmpty()) {
+            // The LLM violated the constraint - force correction
+            return "Offer only a roll or a choice of actions";
         }
+        return null;
     }
 }
@@ -0,0 +1,135 @@
+package dev.ebullient.soloplay.play;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import dev.ebullient.soloplay.GameRepository;
+import dev.ebullient.soloplay.GameWriteBehind;
+import dev.ebullient.soloplay.play.model.Event;
+import dev.ebullient.soloplay.play.model.GameState;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.quarkus.logging.Log;
+
+/**
+ * Live game state, one instance per game, shared by every connection to that game.
+ *
+ * A game in use (it has open connections or a running turn, see {@link PlaySession})
+ * is pinned: its state is held here, outside the cache, so all connections see the same
+ * stash (pending rolls, character drafts) however full or idle the cache gets. The
+ * cache only decides when games no one is using are evicted
+ * ({@code quarkus.cache.caffeine."game-sessions".*}); the persistent part of the stash is
+ * saved with the game, so a reload picks up where play left off.
+ */
+@ApplicationScoped
+public class GameSessions {
+
+    @Inject
+    @CacheName("game-sessions")
+    Cache sessions;
+
+    @Inject
+    GameRepository gameRepository;
+
+    @Inject
+    GameWriteBehind writeBehind;
+
+    /** Games in use, with their pin count */
+    private final Map<String, Pin> pinned = new ConcurrentHashMap<>();
+
+    /**
+     * @return the live state for the game, or null if the game does not exist
+     */
+    public GameState get(String gameId) {
+        Pin pin = pinned.get(gameId);
+        GameState game = pin == null ? null : pin.game;
+        if (game != null) {
+            return game;
+        }
+        game = sessions.get(gameId, this::load).await().indefinitely();
+        if (game == null) {
+            // don't remember missing games: they may be created later
+            sessions.invalidate(gameId).await().indefinitely();
+            return null;
+        }
+        GameState loaded = game;
+        Pin current = pinned.computeIfPresent(gameId, (id, p) -> {
+            if (p.game == null) {
+                p.game = loaded;
+            }
+            return p;
+        });
+        return current == null ? game : current.game;
+    }
+
+    /**
+     * Keep the game's state until it is unpinned, whatever the cache evicts meanwhile.
+     * Every pin must be paired with one {@link #unpin(String)}.
+     */
+    public void pin(String gameId) {
+        pinned.compute(gameId, (id, p) -> {
+            Pin pin = p == null ? new Pin() : p;
+            pin.count++;
+            return pin;
+        });
+    }
+
+    public void unpin(String gameId) {
+        pinned.computeIfPresent(gameId, (id, p) -> {
+            if (--p.count > 0) {
+                return p;
+            }
+            if (p.game != null) {
+                // No longer in use: idle eviction starts from now
+                sessions.as(CaffeineCache.class).put(gameId, CompletableFuture.completedFuture(p.game));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Drop the game's state (pinned or not); the next {@link #get(String)} reloads it.
+     */
+    public void evict(String gameId) {
+        dropPinned(gameId);
+        sessions.invalidate(gameId).await().indefinitely();
+    }
+
+    void onInvalidated(@Observes GameRepository.GameCachesInvalidated event) {
+        dropPinned(event.gameId());
+    }
+
+    private void dropPinned(String gameId) {
+        pinned.computeIfPresent(gameId, (id, p) -> {
+            p.game = null;
+            return p;
+        });
+    }
+
+    private GameState load(String gameId) {
+        // Queued writes for this game must land before it is read back
+        writeBehind.drain(gameId);
+        GameState game = gameRepository.findGameById(gameId);
+        // Changes that could not be saved are discarded with the previous state
+        writeBehind.reset(gameId);
+        if (game != null && game.getStash(GamePlayEngine.EVENT_STASH, Event.class) == null) {
+            Event latest = gameRepository.findLatestEvent(gameId);
+            if (latest != null) {
+                game.putStash(GamePlayEngine.EVENT_STASH, latest);
+            }
+        }
+        Log.debugf("Loaded game session %s", gameId);
+        return game;
+    }
+
+    private static class Pin {
+        int count;
+        volatile GameState game;
+    }
+}
@@ -0,0 +1,67 @@
+package dev.ebullient.soloplay.play;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import io.quarkus.arc.DefaultBean;
+
+/**
+ * Game leases held in memory: for a single instance, where every turn runs in this JVM.
+ *
+ * Instances created with the same lease map behave like instances sharing a database
+ * (used to exercise the lease rules in tests).
+ */
+@DefaultBean
+@ApplicationScoped
+public class InMemoryGameOwnership implements GameOwnership {
+
+    record Lease(String owner, long expiresAt) {
+    }
+
+    @ConfigProperty(name = "campaign.play.ownership.lease", defaultValue = "2m")
+    Duration lease;
+
+    final String instanceId;
+    final Map<String, Lease> leases;
+    final LongSupplier clock; // millis
+
+    public InMemoryGameOwnership() {
+        this(UUID.randomUUID().toString(), new ConcurrentHashMap<>(), System::currentTimeMillis, Duration.ofMinutes(2));
+    }
+
+    InMemoryGameOwnership(String instanceId, Map<String, Lease> leases, LongSupplier clock, Duration lease) {
+        this.instanceId = instanceId;
+        this.leases = leases;
+        this.clock = clock;
+        this.lease = lease;
+    }
+
+    @Override
+    public Claim claim(String gameId) {
+        long now = clock.getAsLong();
+        Claim[] result = new Claim[1];
+        leases.compute(gameId, (k, current) -> {
+            if (current != null && !current.owner().equals(instanceId) && current.expiresAt() > now) {
+                result[0] = Claim.BUSY;
+                return current;
+            }
+            result[0] = current != null && current.owner().equals(instanceId) ? Claim.RENEWED : Claim.ACQUIRED;
+            return new Lease(instanceId, now + lease.toMillis());
+        });
+        return result[0];
+    }
+
+    @Override
+    public void release(String gameId) {
+        // Keep the owner: a later claim by this instance is a renewal (its state is current)
+        leases.computeIfPresent(gameId,
+                (k, current) -> current.owner().equals(instanceId) ? new Lease(instanceId, 0) : current);
+    }
+}
@@ -0,0 +1,23 @@
+package dev.ebullient.soloplay.play;
+
+import java.util.function.BiConsumer;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import io.quarkus.arc.DefaultBean;
+
+/**
+ * Single instance: every connection is local, so there is no one else to tell.
+ */
+@DefaultBean
+@ApplicationScoped
+public class LocalPlayBus implements PlayBus {
+
+    @Override
+    public void publish(String gameId, PlayWsServerMessage message) {
+    }
+
+    @Override
+    public void onMessage(BiConsumer<String, PlayWsServerMessage> handler) {
+    }
+}
@@ -0,0 +1,95 @@
+package dev.ebullient.soloplay.play;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.neo4j.driver.Driver;
+
+import dev.ebullient.soloplay.GameWriteBehind;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.quarkus.logging.Log;
+
+/**
+ * Game leases in Neo4j, shared by every instance using the database:
+ * one (:GameLease {gameId, owner, expiresAt}) node per game.
+ *
+ * A claim locks the lease node before reading it, so concurrent claims from
+ * different instances are serialized by the database. Expiry uses the database
+ * clock, so instances need not agree on the time.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "campaign.play.cluster", stringValue = "clustered")
+public class Neo4jGameOwnership implements GameOwnership {
+
+    static final String CLAIM_LEASE = """
+            MERGE (l:GameLease {gameId: $gameId})
+            SET l._lock = true
+            WITH l, l.owner AS previous,
+                 (l.owner IS NULL OR l.owner = $owner OR coalesce(l.expiresAt, 0) < timestamp()) AS free
+            SET l.owner = CASE WHEN free THEN $owner ELSE l.owner END,
+                l.expiresAt = CASE WHEN free THEN timestamp() + $leaseMillis ELSE l.expiresAt END
+            REMOVE l._lock
+            RETURN CASE
+                WHEN NOT free THEN 'BUSY'
+                WHEN previous = $owner THEN 'RENEWED'
+                ELSE 'ACQUIRED' END AS claim
+            """;
+
+    // Keep the owner: a later claim by this instance is a renewal (its state is current)
+    static final String RELEASE_LEASE = """
+            MATCH (l:GameLease {gameId: $gameId, owner: $owner})
+            SET l.expiresAt = 0
+            """;
+
+    @Inject
+    Driver driver;
+
+    @Inject
+    GameWriteBehind writeBehind;
+
+    @ConfigProperty(name = "campaign.play.ownership.lease", defaultValue = "2m")
+    Duration lease;
+
+    @ConfigProperty(name = "campaign.play.instance-id")
+    Optional<String> configuredId;
+
+    String instanceId;
+
+    @PostConstruct
+    void init() {
+        instanceId = configuredId.orElseGet(() -> UUID.randomUUID().toString());
+        Log.infof("Game leases held as instance %s", instanceId);
+    }
+
+    @Override
+    public Claim claim(String gameId) {
+        try (var session = driver.session()) {
+            String claim = session.executeWrite(tx -> tx.run(CLAIM_LEASE, Map.of(
+                    "gameId", gameId,
+                    "owner", instanceId,
+                    "leaseMillis", lease.toMillis()))
+                    .single().get("claim").asString());
+            return Claim.valueOf(claim);
+        }
+    }
+
+    @Override
+    public void release(String gameId) {
+        // The next owner reloads the game from Neo4j: this turn's writes must be there first
+        try {
+            writeBehind.await(gameId);
+        } catch (IllegalStateException e) {
+            Log.warnf("Releasing game %s with failed writes: %s", gameId, e.getMessage());
+        }
+        try (var session = driver.session()) {
+            session.executeWrite(tx -> tx.run(RELEASE_LEASE, Map.of("gameId", gameId, "owner", instanceId)).consume());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package dev.ebullient.soloplay.play;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Outbound play messages waiting to be written to browsers:
+ * {@code soloplay.play.outbound.depth} (frames queued across all connections),
+ * {@code soloplay.play.outbound.connection.depth} (queue depth per connection, sampled on enqueue),
+ * {@code soloplay.play.outbound.dropped{policy}} (deltas merged away or dropped) and
+ * {@code soloplay.play.outbound.disconnects} (slow connections closed).
+ */
+@ApplicationScoped
+public class OutboundMetrics {
+
+    @Inject
+    MeterRegistry registry;
+
+    private final AtomicInteger depth = new AtomicInteger();
+
+    @PostConstruct
+    void init() {
+        registry.gauge("soloplay.play.outbound.depth", depth);
+    }
+
+    void queued(int connectionDepth) {
+        depth.incrementAndGet();
+        registry.summary("soloplay.play.outbound.connection.depth").record(connectionDepth);
+    }
+
+    void dequeued(int count) {
+        depth.addAndGet(-count);
+    }
+
+    void dropped(OutboundQueue.OverflowPolicy policy, int count) {
+        if (count > 0) {
+            registry.counter("soloplay.play.outbound.dropped", "policy", policy.name().toLowerCase())
+                    .increment(count);
+        }
+    }
+
+    void disconnected() {
+        registry.counter("soloplay.play.outbound.disconnects").increment();
+    }
+}
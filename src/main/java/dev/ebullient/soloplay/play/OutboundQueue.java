@@ -0,0 +1,281 @@
+package dev.ebullient.soloplay.play;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.function.BiFunction;
+
+import dev.ebullient.soloplay.play.PlayWsCodec.Encoded;
+import dev.ebullient.soloplay.play.PlayWsCodec.Encoding;
+import dev.ebullient.soloplay.play.PlayWsServerMessage.AssistantDelta;
+import dev.ebullient.soloplay.play.PlayWsServerMessage.AssistantDone;
+import dev.ebullient.soloplay.play.PlayWsServerMessage.AssistantStart;
+import io.quarkus.logging.Log;
+import io.quarkus.websockets.next.WebSocketConnection;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Bounded queue of messages waiting to be written to one connection.
+ *
+ * Broadcasting only enqueues; each queue is written out on its own, one frame at a
+ * time, in order. A slow or backgrounded tab fills its own queue instead of holding
+ * up the turn (or the other players).
+ *
+ * When the queue is full, the {@link OverflowPolicy} decides what happens to
+ * streamed deltas. Other messages (start, done, errors, ...) are never merged or
+ * dropped: there are only a few per turn, and {@link AssistantDone} carries the full
+ * response, so the client can always catch up.
+ */
+class OutboundQueue {
+
+    enum OverflowPolicy {
+        /** Combine queued deltas for the same response into one frame (drop the delta if none is queued) */
+        MERGE_DELTAS,
+        /** Discard deltas for the response; the client gets the complete text with AssistantDone */
+        DROP_DELTAS,
+        /** Close the connection; the client reconnects and reloads history */
+        DISCONNECT
+    }
+
+    /**
+     * @param message Message to send
+     * @param encoded Serialized message (shared by recipients using the same encoding);
+     *        null if it must be serialized again
+     */
+    record Frame(PlayWsServerMessage message, Encoded encoded) {
+    }
+
+    private final WebSocketConnection connection;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final Encoding encoding;
+    private final BiFunction<PlayWsServerMessage, Encoding, Encoded> serializer;
+    private final OutboundMetrics metrics;
+
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private boolean sending;
+    private boolean closed;
+    private String droppingDeltasFor; // DROP_DELTAS: response whose deltas are skipped
+
+    OutboundQueue(WebSocketConnection connection, int capacity, OverflowPolicy policy, Encoding encoding,
+            BiFunction<PlayWsServerMessage, Encoding, Encoded> serializer, OutboundMetrics metrics) {
+        this.connection = connection;
+        this.capacity = Math.max(1, capacity);
+        this.policy = policy;
+        this.encoding = encoding;
+        this.serializer = serializer;
+        this.metrics = metrics;
+    }
+
+    String connectionId() {
+        return connection.id();
+    }
+
+    Encoding encoding() {
+        return encoding;
+    }
+
+    /**
+     * @return the message serialized with this connection's encoding, or null if it could not be serialized
+     */
+    Encoded encode(PlayWsServerMessage message) {
+        return serializer.apply(message, encoding);
+    }
+
+    /**
+     * Queue a message for this connection, serializing it with this connection's encoding.
+     */
+    void offer(PlayWsServerMessage message) {
+        offer(message, null);
+    }
+
+    /**
+     * Queue a message for this connection; returns without waiting for the write.
+     *
+     * @param encoded Message already serialized with this connection's encoding (null to serialize it here)
+     */
+    void offer(PlayWsServerMessage message, Encoded encoded) {
+        synchronized (this) {
+            if (closed || !enqueue(new Frame(message, encoded))) {
+                return;
+            }
+            if (sending) {
+                return;
+            }
+            sending = true;
+        }
+        sendNext();
+    }
+
+    synchronized int depth() {
+        return frames.size();
+    }
+
+    /**
+     * Forget queued frames (the connection has closed).
+     */
+    void discard() {
+        synchronized (this) {
+            closed = true;
+            metrics.dequeued(frames.size());
+            frames.clear();
+        }
+    }
+
+    /**
+     * @return true if the frame was queued
+     */
+    private boolean enqueue(Frame frame) {
+        if (frame.message() instanceof AssistantStart || frame.message() instanceof AssistantDone) {
+            droppingDeltasFor = null;
+        }
+        if (frame.message() instanceof AssistantDelta delta) {
+            if (delta.id().equals(droppingDeltasFor)) {
+                metrics.dropped(policy, 1);
+                return false;
+            }
+            if (frames.size() >= capacity && !overflow(delta)) {
+                return false;
+            }
+        } else if (frames.size() >= capacity && policy == OverflowPolicy.DISCONNECT) {
+            disconnect();
+            return false;
+        }
+        frames.addLast(frame);
+        metrics.queued(frames.size());
+        return true;
+    }
+
+    /**
+     * Apply the overflow policy to a delta arriving at a full queue.
+     *
+     * @return true if the delta should still be queued
+     */
+    private boolean overflow(AssistantDelta delta) {
+        switch (policy) {
+            case MERGE_DELTAS -> {
+                Frame tail = frames.peekLast();
+                if (tail != null && tail.message() instanceof AssistantDelta last && last.id().equals(delta.id())) {
+                    frames.pollLast();
+                    frames.addLast(new Frame(new AssistantDelta(delta.id(), last.text() + delta.text()), null));
+                    metrics.dropped(policy, 1);
+                    return false;
+                }
+                mergeAdjacentDeltas();
+                if (frames.size() < capacity) {
+                    return true;
+                }
+                // Still full: add the text to the newest queued delta for the response, or drop it
+                // (the client gets the complete text with AssistantDone)
+                if (!mergeIntoNewest(delta)) {
+                    droppingDeltasFor = delta.id();
+                }
+                metrics.dropped(policy, 1);
+                return false;
+            }
+            case DROP_DELTAS -> {
+                int dropped = 1;
+                for (Iterator<Frame> i = frames.iterator(); i.hasNext();) {
+                    if (i.next().message() instanceof AssistantDelta queued && queued.id().equals(delta.id())) {
+                        i.remove();
+                        dropped++;
+                    }
+                }
+                droppingDeltasFor = delta.id();
+                metrics.dequeued(dropped - 1);
+                metrics.dropped(policy, dropped);
+                return false;
+            }
+            default -> {
+                disconnect();
+                return false;
+            }
+        }
+    }
+
+    private void mergeAdjacentDeltas() {
+        Deque<Frame> merged = new ArrayDeque<>(frames.size());
+        int removed = 0;
+        for (Frame frame : frames) {
+            Frame last = merged.peekLast();
+            if (last != null
+                    && last.message() instanceof AssistantDelta previous
+                    && frame.message() instanceof AssistantDelta next
+                    && previous.id().equals(next.id())) {
+                merged.pollLast();
+                merged.addLast(new Frame(new AssistantDelta(previous.id(), previous.text() + next.text()), null));
+                removed++;
+            } else {
+                merged.addLast(frame);
+            }
+        }
+        frames.clear();
+        frames.addAll(merged);
+        metrics.dequeued(removed);
+        metrics.dropped(policy, removed);
+    }
+
+    /**
+     * Append a delta's text to the newest queued delta for the same response.
+     *
+     * @return false if no delta for the response is queued
+     */
+    private boolean mergeIntoNewest(AssistantDelta delta) {
+        Deque<Frame> rebuilt = new ArrayDeque<>(frames.size());
+        boolean merged = false;
+        for (Iterator<Frame> i = frames.descendingIterator(); i.hasNext();) {
+            Frame frame = i.next();
+            if (!merged && frame.message() instanceof AssistantDelta queued && queued.id().equals(delta.id())) {
+                frame = new Frame(new AssistantDelta(queued.id(), queued.text() + delta.text()), null);
+                merged = true;
+            }
+            rebuilt.addFirst(frame);
+        }
+        if (merged) {
+            frames.clear();
+            frames.addAll(rebuilt);
+        }
+        return merged;
+    }
+
+    private void disconnect() {
+        Log.warnf("Closing slow connection %s (%d messages waiting)", connection.id(), frames.size());
+        closed = true;
+        metrics.dequeued(frames.size());
+        metrics.disconnected();
+        frames.clear();
+        connection.close().subscribe().with(
+                v -> {
+                },
+                e -> Log.debugf("Unable to close connection %s: %s", connection.id(), e.getMessage()));
+    }
+
+    private void sendNext() {
+        while (true) {
+            Frame next;
+            synchronized (this) {
+                next = closed ? null : frames.pollFirst();
+                if (next == null) {
+                    sending = false;
+                    return;
+                }
+                metrics.dequeued(1);
+            }
+            Encoded encoded = next.encoded() == null ? encode(next.message()) : next.encoded();
+            if (encoded == null || !connection.isOpen()) {
+                continue; // skip it
+            }
+            Uni<Void> write = encoded.isBinary()
+                    ? connection.sendBinary(Buffer.buffer(encoded.binary()))
+                    : connection.sendText(encoded.text());
+            write.subscribe().with(
+                    v -> sendNext(),
+                    e -> {
+                        Log.debugf("Unable to send to connection %s: %s", connection.id(), e.getMessage());
+                        sendNext();
+                    });
+            return;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package dev.ebullient.soloplay.play;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Carries broadcasts to players connected to other server instances.
+ *
+ * {@link PlayWebSocket} delivers a broadcast to its own connections for the game,
+ * then publishes it here; each other instance hands it to its own connections.
+ * Messages published by an instance are not delivered back to it.
+ *
+ * {@link LocalPlayBus} serves a single instance; {@link EventBusPlayBus} uses the
+ * Vert.x event bus ({@code campaign.play.cluster=clustered}, with a clustered Vert.x).
+ */
+public interface PlayBus {
+
+    /**
+     * Send a broadcast to the other instances.
+     */
+    void publish(String gameId, PlayWsServerMessage message);
+
+    /**
+     * Set the handler for broadcasts published by other instances (replaces any previous handler).
+     */
+    void onMessage(BiConsumer<String, PlayWsServerMessage> handler);
+}
@@ -0,0 +1,184 @@
+package dev.ebullient.soloplay.play;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import dev.ebullient.soloplay.GameRepository;
+import dev.ebullient.soloplay.GameWriteBehind;
+import dev.ebullient.soloplay.play.model.PlayMessage;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+
+/**
+ * Play history per game: an append-only log of (:PlayMessage {gameId, seq}) in Neo4j,
+ * with the most recent messages held in a ring buffer.
+ *
+ * Messages get consecutive sequence numbers when they are appended and are saved
+ * behind the turn ({@link GameWriteBehind}). Pages that fall inside the ring buffer
+ * (the usual case: a page load, or a reconnect that missed a few messages) are
+ * served from memory; older pages are read from Neo4j.
+ *
+ * Buffers for idle games are evicted ({@code quarkus.cache.caffeine."play-history"}),
+ * and reloaded from Neo4j on next use.
+ */
+@ApplicationScoped
+public class PlayHistory {
+
+    /**
+     * @param messages Messages, oldest first
+     * @param more True if there are further messages in the direction of the request
+     *        (older for a "before" or latest page, newer for an "after" page)
+     */
+    public record Page(List<PlayMessage> messages, boolean more) {
+    }
+
+    @Inject
+    GameRepository gameRepository;
+
+    @Inject
+    GameWriteBehind writeBehind;
+
+    @Inject
+    @CacheName("play-history")
+    Cache buffers;
+
+    @ConfigProperty(name = "campaign.play.history.buffer-size", defaultValue = "250")
+    int bufferSize;
+
+    /**
+     * Append a message to the game's history.
+     *
+     * @return the message, with its sequence number
+     */
+    public PlayMessage append(String gameId, String role, String markdown, String html) {
+        PlayMessage message = buffer(gameId).append(gameId, role, markdown, html);
+        writeBehind.submit(gameId, "play history " + message.seq(), () -> gameRepository.savePlayMessage(message));
+        return message;
+    }
+
+    /**
+     * @param before Return the latest messages with a lower sequence number (null: latest messages)
+     * @param after Return the first messages with a higher sequence number (takes precedence over before)
+     * @param limit Maximum number of messages
+     */
+    public Page page(String gameId, Long before, Long after, int limit) {
+        int max = Math.max(1, limit);
+        Ring ring = buffer(gameId);
+        Page page = after != null
+                ? ring.after(after, max)
+                : ring.before(before == null ? Long.MAX_VALUE : before, max);
+        if (page != null) {
+            return page;
+        }
+
+        // Outside the buffer: these messages were saved long ago
+        List<PlayMessage> messages = after != null
+                ? gameRepository.listPlayMessagesAfter(gameId, after, max + 1)
+                : gameRepository.listPlayMessagesBefore(gameId, before == null ? Long.MAX_VALUE : before, max + 1);
+        if (messages.size() <= max) {
+            return new Page(messages, false);
+        }
+        return after != null
+                ? new Page(messages.subList(0, max), true)
+                : new Page(messages.subList(1, messages.size()), true);
+    }
+
+    /**
+     * Forget the buffered messages for a game (another instance may have added to its history).
+     */
+    public void evict(String gameId) {
+        buffers.invalidate(gameId).await().indefinitely();
+    }
+
+    private Ring buffer(String gameId) {
+        return buffers.get(gameId, this::load).await().indefinitely();
+    }
+
+    private Ring load(String gameId) {
+        // Queued messages must be saved before the buffer is rebuilt from Neo4j
+        writeBehind.drain(gameId);
+        List<PlayMessage> latest = gameRepository.listPlayMessagesBefore(gameId, Long.MAX_VALUE, bufferSize + 1);
+        boolean complete = latest.size() <= bufferSize;
+        return new Ring(bufferSize, complete ? latest : latest.subList(1, latest.size()), complete);
+    }
+
+    /**
+     * The most recent messages for one game, and the next sequence number.
+     */
+    static class Ring {
+        private final int capacity;
+        private final Deque<PlayMessage> messages;
+        private long nextSeq;
+        private boolean complete; // nothing older than the buffer exists
+
+        Ring(int capacity, List<PlayMessage> latest, boolean complete) {
+            this.capacity = Math.max(1, capacity);
+            this.messages = new ArrayDeque<>(latest);
+            this.nextSeq = latest.isEmpty() ? 1 : latest.get(latest.size() - 1).seq() + 1;
+            this.complete = complete;
+        }
+
+        synchronized PlayMessage append(String gameId, String role, String markdown, String html) {
+            PlayMessage message = new PlayMessage(gameId, nextSeq++, role, markdown, html, Instant.now());
+            messages.addLast(message);
+            while (messages.size() > capacity) {
+                messages.pollFirst();
+                complete = false;
+            }
+            return message;
+        }
+
+        /**
+         * @return the page, or null if it reaches past the start of the buffer
+         */
+        synchronized Page before(long before, int limit) {
+            List<PlayMessage> candidates = new ArrayList<>();
+            for (PlayMessage message : messages) {
+                if (message.seq() < before) {
+                    candidates.add(message);
+                }
+            }
+            if (candidates.size() > limit) {
+                return new Page(List.copyOf(candidates.subList(candidates.size() - limit, candidates.size())), true);
+            }
+            if (complete) {
+                return new Page(List.copyOf(candidates), false);
+            }
+            if (candidates.size() == limit) {
+                // Sequence numbers start at 1 without gaps: anything older is in Neo4j
+                return new Page(List.copyOf(candidates), candidates.get(0).seq() > 1);
+            }
+            return null;
+        }
+
+        /**
+         * @return the page, or null if it starts before the buffer
+         */
+        synchronized Page after(long after, int limit) {
+            PlayMessage oldest = messages.peekFirst();
+            if (!complete && (oldest == null || after + 1 < oldest.seq())) {
+                return null;
+            }
+            List<PlayMessage> page = new ArrayList<>();
+            boolean more = false;
+            for (PlayMessage message : messages) {
+                if (message.seq() > after) {
+                    if (page.size() == limit) {
+                        more = true;
+                        break;
+                    }
+                    page.add(message);
+                }
+            }
+            return new Page(List.copyOf(page), more);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package dev.ebullient.soloplay.play;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.quarkus.logging.Log;
+
+/**
+ * Play on this instance for one game: its open connections, its turn mailbox, and
+ * the turn being generated. Everything that must agree about a game lives in this one
+ * object, so it is created and dropped as a unit.
+ *
+ * Sessions are reference counted. Each open connection holds a reference, and so does
+ * the caller draining the mailbox, so a turn keeps its session (and mailbox) even if
+ * every connection closes and a player reconnects while it runs. A session whose count
+ * has dropped to zero can never be acquired again: {@link Registry#acquire(String)}
+ * replaces it with a new one. Acquire and release are lock-free.
+ */
+class PlaySession {
+
+    private final String gameId;
+    private final AtomicInteger refs = new AtomicInteger(1);
+    private final Set<OutboundQueue> connections = ConcurrentHashMap.newKeySet();
+    private final TurnMailbox mailbox = new TurnMailbox();
+    private final AtomicReference<ActiveTurn> activeTurn = new AtomicReference<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    PlaySession(String gameId) {
+        this.gameId = gameId;
+    }
+
+    String gameId() {
+        return gameId;
+    }
+
+    TurnMailbox mailbox() {
+        return mailbox;
+    }
+
+    Set<OutboundQueue> connections() {
+        return connections;
+    }
+
+    void connect(OutboundQueue outbound) {
+        connections.add(outbound);
+    }
+
+    /**
+     * @return true if that was the last open connection
+     */
+    boolean disconnect(OutboundQueue outbound) {
+        if (connections.remove(outbound)) {
+            outbound.discard();
+        }
+        return connections.isEmpty();
+    }
+
+    /**
+     * @return true if no turn has been taken since the session started (or since everyone left):
+     *         the next turn is a resume (recap)
+     */
+    boolean resuming() {
+        return !started.get();
+    }
+
+    /**
+     * Mark play as started.
+     *
+     * @return true if this is the first turn since the session started (or since everyone left)
+     */
+    boolean start() {
+        return started.compareAndSet(false, true);
+    }
+
+    /**
+     * Everyone has left: the next player to arrive gets a recap.
+     */
+    void idle() {
+        started.set(false);
+    }
+
+    /**
+     * @param ownerId Connection that sent the turn's input: the only one that may cancel it
+     */
+    void beginTurn(String ownerId, TurnCancellation cancellation) {
+        activeTurn.set(new ActiveTurn(ownerId, cancellation));
+    }
+
+    void endTurn(TurnCancellation cancellation) {
+        activeTurn.updateAndGet(active -> active != null && active.cancellation() == cancellation ? null : active);
+    }
+
+    /**
+     * Cancel the turn being generated, whoever sent it (e.g. everyone has left).
+     */
+    void cancelTurn(String reason) {
+        ActiveTurn active = activeTurn.get();
+        if (active != null) {
+            Log.infof("Cancelling turn for gameId %s: %s", gameId, reason);
+            active.cancellation().cancel();
+        }
+    }
+
+    /**
+     * Cancel the turn being generated if the connection sent it.
+     *
+     * @return false if there is no turn, or it belongs to another connection
+     */
+    boolean cancelTurn(String connectionId, String reason) {
+        ActiveTurn active = activeTurn.get();
+        if (active == null || !active.ownerId().equals(connectionId)) {
+            return false;
+        }
+        Log.infof("Cancelling turn for gameId %s: %s", gameId, reason);
+        active.cancellation().cancel();
+        return true;
+    }
+
+    int refs() {
+        return refs.get();
+    }
+
+    /**
+     * @return false if the session is already dead (count reached zero)
+     */
+    private boolean retain() {
+        int n;
+        do {
+            n = refs.get();
+            if (n == 0) {
+                return false;
+            }
+        } while (!refs.compareAndSet(n, n + 1));
+        return true;
+    }
+
+    /**
+     * @return true if that was the last reference
+     */
+    private boolean releaseRef() {
+        return refs.decrementAndGet() == 0;
+    }
+
+    private record ActiveTurn(String ownerId, TurnCancellation cancellation) {
+    }
+
+    /**
+     * Live sessions by game.
+     */
+    static class Registry {
+        private final Map<String, PlaySession> sessions = new ConcurrentHashMap<>();
+
+        /**
+         * Take a reference to the game's session, creating it if there is none (or it is dead).
+         * Every acquire must be paired with one {@link #release(PlaySession)}.
+         */
+        PlaySession acquire(String gameId) {
+            while (true) {
+                PlaySession current = sessions.get(gameId);
+                if (current != null && current.retain()) {
+                    return current;
+                }
+                PlaySession created = new PlaySession(gameId);
+                boolean installed = current == null
+                        ? sessions.putIfAbsent(gameId, created) == null
+                        : sessions.replace(gameId, current, created);
+                if (installed) {
+                    return created;
+                }
+                // Lost a race with another acquire: try again with the winner
+            }
+        }
+
+        /**
+         * Take another reference to a session the caller already holds (e.g. to drain its mailbox).
+         *
+         * @return the session, or null if it is already dead (every reference was released)
+         */
+        PlaySession retain(PlaySession session) {
+            return session.retain() ? session : null;
+        }
+
+        void release(PlaySession session) {
+            if (session.releaseRef()) {
+                sessions.remove(session.gameId(), session);
+            }
+        }
+
+        /**
+         * @return the live session for a game, or null (does not take a reference)
+         */
+        PlaySession get(String gameId) {
+            PlaySession session = sessions.get(gameId);
+            return session == null || session.refs() == 0 ? null : session;
+        }
+
+        int size() {
+            return sessions.size();
+        }
+    }
+}
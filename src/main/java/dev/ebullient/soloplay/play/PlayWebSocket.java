@@ -1,30 +1,33 @@
 package dev.ebullient.soloplay.play;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import jakarta.inject.Inject;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
 import dev.ebullient.soloplay.ai.MarkdownAugmenter;
 import dev.ebullient.soloplay.play.GameEffect.HtmlFragment;
 import dev.ebullient.soloplay.play.model.GameState;
+import dev.ebullient.soloplay.play.model.PlayMessage;
 import io.quarkus.logging.Log;
+import io.quarkus.websockets.next.OnBinaryMessage;
 import io.quarkus.websockets.next.OnClose;
 import io.quarkus.websockets.next.OnError;
 import io.quarkus.websockets.next.OnOpen;
 import io.quarkus.websockets.next.OnTextMessage;
-import io.quarkus.websockets.next.OpenConnections;
 import io.quarkus.websockets.next.PathParam;
 import io.quarkus.websockets.next.WebSocket;
 import io.quarkus.websockets.next.WebSocketConnection;
 import io.smallrye.common.annotation.RunOnVirtualThread;
-import io.smallrye.mutiny.Multi;
-import io.smallrye.mutiny.Uni;
+import io.vertx.core.buffer.Buffer;
 
 /**
  * WebSocket endpoint for streaming Play interactions.
@@ -32,29 +35,26 @@ import io.smallrye.mutiny.Uni;
  * Path: /ws/play/{gameId}
  *
  * Provides real-time streaming of assistant responses with token-by-token
- * delivery.
+ * delivery. Every message for a connection (replies as well as broadcasts) goes
+ * through that connection's {@link OutboundQueue}, in the encoding it chose at
+ * handshake ({@link PlayWsCodec}).
  */
 @WebSocket(path = "/ws/play/{gameId}")
 public class PlayWebSocket {
     static final int MAX_HISTORY_MESSAGES = 250;
 
-    // Simple in-memory history store per gameId.
-    private static final Map<String, List<PlayWsServerMessage.HistoryMessage>> HISTORY = new ConcurrentHashMap<>();
-
-    // Simple per-game connection counts to allow cleanup when the last client disconnects.
-    private static final Map<String, Integer> ACTIVE_CONNECTIONS = new ConcurrentHashMap<>();
-
     /**
-     * Shared generation locks per game.
-     * Prevents concurrent generation across all connections to the same gameId.
+     * Play sessions per game: open connections (broadcasts only visit the game's own),
+     * the turn mailbox (input is processed one turn at a time across all connections to
+     * the game), and the turn being generated. See {@link PlaySession}.
      */
-    private static final Map<String, AtomicBoolean> GENERATION_LOCKS = new ConcurrentHashMap<>();
+    private static final PlaySession.Registry SESSIONS = new PlaySession.Registry();
 
     @Inject
     WebSocketConnection connection;
 
     @Inject
-    OpenConnections openConnections;
+    PlayWsCodec codec;
 
     @Inject
     MarkdownAugmenter prettify;
@@ -62,30 +62,91 @@ public class PlayWebSocket {
     @Inject
     GameEngine gameEngine;
 
+    @Inject
+    OutboundMetrics outboundMetrics;
+
+    @Inject
+    PlayHistory history;
+
+    @Inject
+    GameSessions gameSessions;
+
+    @Inject
+    GameOwnership ownership;
+
+    @Inject
+    PlayBus bus;
+
+    /**
+     * How long a turn waits for another instance to finish with the game
+     */
+    @ConfigProperty(name = "campaign.play.ownership.wait", defaultValue = "30s")
+    Duration ownershipWait;
+
+    /**
+     * Merge plain messages that arrive within this window of each other into one turn (0 to disable)
+     */
+    @ConfigProperty(name = "campaign.play.merge-window", defaultValue = "0s")
+    Duration mergeWindow;
+
+    /**
+     * Messages that may wait for one connection before the overflow policy applies
+     */
+    @ConfigProperty(name = "campaign.play.outbound.capacity", defaultValue = "256")
+    int outboundCapacity;
+
+    /**
+     * What to do with streamed deltas when a connection's queue is full
+     */
+    @ConfigProperty(name = "campaign.play.outbound.overflow", defaultValue = "merge-deltas")
+    OutboundQueue.OverflowPolicy overflowPolicy;
+
+    /**
+     * Streamed narration is sent at most this often (0 to send every token)...
+     */
+    @ConfigProperty(name = "campaign.play.delta.window", defaultValue = "50ms")
+    Duration deltaWindow;
+
+    /**
+     * ... or as soon as this much text (UTF-8 bytes) is waiting
+     */
+    @ConfigProperty(name = "campaign.play.delta.max-bytes", defaultValue = "1024")
+    int deltaMaxBytes;
+
     String gameId;
-    GameState gameState;
+    PlayWsCodec.Options options = PlayWsCodec.Options.DEFAULT;
+    OutboundQueue outbound;
+    PlaySession session; // null if the game was not found
 
     /**
      * Called when a client connects to the WebSocket.
      */
     @OnOpen
-    public Uni<PlayWsServerMessage> onOpen(@PathParam String gameId) {
+    public void onOpen(@PathParam String gameId, WebSocketConnection opened) {
         Log.infof("WebSocket connection opened (connection: %s, gameId: %s)", connection.id(), gameId);
 
         this.gameId = gameId;
-        this.gameState = gameEngine.getGameState(gameId);
+        this.options = PlayWsCodec.options(opened.handshakeRequest().query());
+        this.outbound = new OutboundQueue(opened, outboundCapacity, overflowPolicy, options.encoding(),
+                codec::encode, outboundMetrics);
+
+        // The game's state stays loaded while the session is referenced (see GameSessions)
+        gameSessions.pin(gameId);
+        GameState gameState = gameEngine.getGameState(gameId);
         if (gameState == null) {
+            gameSessions.unpin(gameId);
             Log.warnf("Game not found: %s", gameId);
-            return Uni.createFrom().item(
-                    new PlayWsServerMessage.Error(null, "Game not found: " + gameId));
+            reply(new PlayWsServerMessage.Error(null, "Game not found: " + gameId));
+            return;
         }
 
-        GENERATION_LOCKS.computeIfAbsent(gameId, k -> new AtomicBoolean(false));
-        ACTIVE_CONNECTIONS.merge(gameId, 1, Integer::sum);
+        session = SESSIONS.acquire(gameId);
+        session.connect(outbound);
 
         String phase = gameState.getGamePhase().name();
-        var initSession = new PlayWsServerMessage.Session(connection.id(), gameId, gameState.getAdventureName(), phase);
-        return Uni.createFrom().item(initSession);
+        var initSession = new PlayWsServerMessage.Session(connection.id(), gameId, gameState.getAdventureName(), phase,
+                session.resuming());
+        reply(initSession);
     }
 
     /**
@@ -94,87 +155,232 @@ public class PlayWebSocket {
     @OnClose
     public void onClose() {
         Log.infof("WebSocket connection closed (connection: %s)", connection.id());
-        if (gameId == null) {
+        if (session == null) {
             return;
         }
-
-        int remaining = ACTIVE_CONNECTIONS.merge(gameId, -1, Integer::sum);
-        if (remaining <= 0) {
-            ACTIVE_CONNECTIONS.remove(gameId);
-            HISTORY.remove(gameId);
-            AtomicBoolean lock = GENERATION_LOCKS.remove(gameId);
-            if (lock != null) {
-                lock.set(false);
-            }
+        if (session.disconnect(outbound)) {
+            session.idle();
+            session.cancelTurn("last connection closed");
         }
+        // Queued turns from this connection still run: the draining caller holds its own reference
+        release(session);
     }
 
     /**
      * Called when an error occurs during WebSocket processing.
      */
     @OnError
-    public PlayWsServerMessage onError(Throwable error) {
+    public void onError(Throwable error) {
         Log.errorf(error, "WebSocket error for connection: %s",
                 connection.id());
-        return new PlayWsServerMessage.Error(null, "Internal error: " + error.getMessage());
+        reply(new PlayWsServerMessage.Error(null, "Internal error: " + error.getMessage()));
     }
 
     /**
-     * Handles incoming client messages.
-     * Routes to appropriate handler based on message type.
+     * Handles incoming client messages (JSON text frames).
      */
     @OnTextMessage
     @RunOnVirtualThread
-    public Multi<PlayWsServerMessage> onMessage(PlayWsClientMessage message) {
-        return switch (message) {
-            case PlayWsClientMessage.HistoryRequest req -> handleHistoryRequest(req, 100);
-            case PlayWsClientMessage.UserMessage msg -> handleUserMessage(msg);
-            default -> Multi.createFrom().item(new PlayWsServerMessage.Error(null, "Unsupported message type"));
-        };
+    public void onMessage(PlayWsClientMessage message) {
+        handle(message);
     }
 
-    private Multi<PlayWsServerMessage> handleHistoryRequest(PlayWsClientMessage.HistoryRequest historyRequest, int limit) {
-        List<PlayWsServerMessage.HistoryMessage> allMessages = HISTORY.getOrDefault(gameId, List.of());
-        if (allMessages.isEmpty()) {
-            return Multi.createFrom().item(new PlayWsServerMessage.History(List.of()));
+    /**
+     * Handles incoming client messages (CBOR binary frames).
+     */
+    @OnBinaryMessage
+    @RunOnVirtualThread
+    public void onBinaryMessage(Buffer message) {
+        PlayWsClientMessage decoded;
+        try {
+            decoded = codec.decode(message.getBytes());
+        } catch (IOException e) {
+            Log.debugf("Unreadable message from connection %s: %s", connection.id(), e.getMessage());
+            reply(new PlayWsServerMessage.Error(null, "Unreadable message: " + e.getMessage()));
+            return;
         }
-        int start = Math.max(0, allMessages.size() - limit);
-        return Multi.createFrom().item(new PlayWsServerMessage.History(allMessages.subList(start, allMessages.size())));
+        handle(decoded);
     }
 
-    private Multi<PlayWsServerMessage> handleUserMessage(PlayWsClientMessage.UserMessage userMessage) {
+    /**
+     * Routes to appropriate handler based on message type.
+     */
+    private void handle(PlayWsClientMessage message) {
+        if (session == null) {
+            reply(new PlayWsServerMessage.Error(null, "Game not found: " + gameId));
+            return;
+        }
+        switch (message) {
+            case PlayWsClientMessage.HistoryRequest req -> handleHistoryRequest(req);
+            case PlayWsClientMessage.UserMessage msg -> handleUserMessage(msg);
+            case PlayWsClientMessage.Cancel cancel -> cancelActiveTurn();
+            default -> reply(new PlayWsServerMessage.Error(null, "Unsupported message type"));
+        }
+    }
+
+    private void handleHistoryRequest(PlayWsClientMessage.HistoryRequest historyRequest) {
+        int limit = Math.min(historyRequest.limit(), MAX_HISTORY_MESSAGES);
+        PlayHistory.Page page = history.page(gameId, historyRequest.before(), historyRequest.after(), limit);
+        boolean withHtml = options.historyHtml();
+        List<PlayWsServerMessage.HistoryMessage> messages = page.messages().stream()
+                .map(m -> new PlayWsServerMessage.HistoryMessage(m.seq(), m.role(), m.markdown(),
+                        withHtml ? m.html() : null, m.ts()))
+                .toList();
+        reply(new PlayWsServerMessage.History(messages, page.more()));
+    }
+
+    private void handleUserMessage(PlayWsClientMessage.UserMessage userMessage) {
         String playerInput = userMessage.text();
         if (playerInput == null || playerInput.isBlank()) {
-            return Multi.createFrom().item(new PlayWsServerMessage.Error(null, "Message text is required"));
+            reply(new PlayWsServerMessage.Error(null, "Message text is required"));
+            return;
+        }
+
+        // Hold the session (and its mailbox) until the input is handled, even if every connection closes
+        PlaySession held = SESSIONS.retain(session);
+        if (held == null) {
+            Log.debugf("Dropping input for gameId %s: connection %s closed", gameId, connection.id());
+            return;
         }
-        boolean resuming = HISTORY.getOrDefault(gameId, List.of()).isEmpty();
+        gameSessions.pin(gameId);
+
+        // Queue the input; at most one caller per game drains the mailbox (one turn at a time).
+        // The turn runs on another thread, within this connection's session context (see TurnScope)
+        TurnMailbox mailbox = held.mailbox();
+        var turn = new TurnMailbox.Turn(connection.id(), playerInput, Instant.now(),
+                TurnScope.capture().wrap(this::processTurn));
+        if (!mailbox.offer(turn)) {
+            Log.infof("User message queued for gameId %s: %s", gameId, truncate(playerInput, 100));
+            broadcastQueueStatus(mailbox.status());
+            release(held);
+            return;
+        }
+
+        // Turns run on their own virtual thread: messages from a connection are handled one at a time,
+        // so this connection's later input, history requests, and cancel must not wait for the turn
+        Thread.ofVirtual().name("play-turns-" + gameId).start(() -> {
+            try {
+                drainMailbox(mailbox, turn);
+            } finally {
+                release(held);
+            }
+        });
+    }
 
-        // Enforce single in-flight generation per gameId
-        AtomicBoolean lock = GENERATION_LOCKS.computeIfAbsent(gameId, k -> new AtomicBoolean(false));
-        if (!lock.compareAndSet(false, true)) {
-            return Multi.createFrom().item(
-                    new PlayWsServerMessage.Error(null, "Generation already in progress for this game"));
+    /**
+     * Release a reference taken with {@link PlaySession.Registry#acquire(String)} or
+     * {@link PlaySession.Registry#retain(PlaySession)}, and its pin on the game's state.
+     */
+    private void release(PlaySession held) {
+        SESSIONS.release(held);
+        gameSessions.unpin(gameId);
+    }
+
+    private void drainMailbox(TurnMailbox mailbox, TurnMailbox.Turn first) {
+        do {
+            TurnMailbox.Turn next;
+            while ((next = mailbox.next(mergeWindow)) != null) {
+                TurnMailbox.Status status = mailbox.status();
+                if (status.depth() > 0 || next != first) {
+                    broadcastQueueStatus(status);
+                }
+                next.handler().process(next);
+            }
+            // Let other instances run turns for this game; input that arrives meanwhile is drained after
+        } while (mailbox.ifIdle(this::releaseGame));
+    }
+
+    private void releaseGame() {
+        try {
+            ownership.release(gameId);
+        } catch (RuntimeException e) {
+            // The lease expires on its own
+            Log.warnf(e, "Unable to release game %s: %s", gameId, e.getMessage());
         }
+    }
+
+    /**
+     * Wait (up to {@code campaign.play.ownership.wait}) until this instance may run turns for the game.
+     *
+     * @return false if another instance kept the game
+     */
+    private boolean claimGame() {
+        return switch (ownership.awaitClaim(gameId, ownershipWait)) {
+            case ACQUIRED -> {
+                // Another instance may have played since this one last did
+                gameSessions.evict(gameId);
+                history.evict(gameId);
+                yield true;
+            }
+            case RENEWED -> true;
+            case BUSY -> false;
+        };
+    }
+
+    private void processTurn(TurnMailbox.Turn turn) {
+        String playerInput = turn.text();
 
         String assistantId = UUID.randomUUID().toString();
+        // Claim first: a turn that can't run must not use up the resume (recap)
+        if (!claimGame()) {
+            Log.warnf("Game %s is busy on another instance; not playing: %s", gameId, truncate(playerInput, 100));
+            broadcastToGameId(new PlayWsServerMessage.Error(assistantId,
+                    "This game is busy on another server, so this was not played: \"%s\". Please send it again in a moment."
+                            .formatted(truncate(playerInput, 100))));
+            return;
+        }
+        boolean resuming = session.start();
+        TurnCancellation cancellation = new TurnCancellation();
+        session.beginTurn(turn.senderId(), cancellation);
         try {
             Log.infof("User message received (id: %s): %s", assistantId, truncate(playerInput, 100));
-            if (!playerInput.startsWith("/")) {
-                appendToHistory("user", playerInput);
-            }
+            Long userSeq = playerInput.startsWith("/")
+                    ? null
+                    : appendToHistory("user", playerInput, prettify.markdownToHtml(playerInput));
 
-            broadcastToGameId(new PlayWsServerMessage.UserEcho(connection.id(), playerInput));
+            broadcastToGameId(new PlayWsServerMessage.UserEcho(turn.senderId(), playerInput, userSeq));
             broadcastToGameId(new PlayWsServerMessage.AssistantStart(assistantId));
 
-            GameEventEmitter emitter = text -> broadcastToGameId(new PlayWsServerMessage.AssistantDelta(assistantId, text));
-            GameResponse response = gameEngine.processRequest(gameState, playerInput, emitter, resuming);
+            // Shared with other connections to this game; turns are serialized by the mailbox
+            GameState gameState = gameEngine.getGameState(gameId);
+            if (gameState == null) {
+                broadcastToGameId(new PlayWsServerMessage.Error(assistantId, "Game not found: " + gameId));
+                return;
+            }
+
+            GameResponse response;
+            // Narration blocks are rendered as they complete, off this thread
+            MarkdownAugmenter.IncrementalRender narration = prettify.incremental();
+            // Streamed text goes out in batches; whatever is left is flushed before the response
+            try (DeltaCoalescer deltas = new DeltaCoalescer(deltaWindow, deltaMaxBytes,
+                    text -> broadcastToGameId(new PlayWsServerMessage.AssistantDelta(assistantId, text)))) {
+                GameEventEmitter emitter = new GameEventEmitter() {
+                    @Override
+                    public void assistantDelta(String text) {
+                        deltas.append(text);
+                        narration.append(text);
+                    }
+
+                    @Override
+                    public void status(String text) {
+                        deltas.append(text); // not part of the reply: not rendered with it
+                    }
+
+                    @Override
+                    public TurnCancellation cancellation() {
+                        return cancellation;
+                    }
+                };
+                response = gameEngine.processRequest(gameState, playerInput, emitter, resuming);
+            }
 
             if (response instanceof GameResponse.Error error) {
                 broadcastToGameId(new PlayWsServerMessage.Error(assistantId, error.message()));
             } else if (response instanceof GameResponse.Reply reply) {
                 String assistantMarkdown = reply.assistantMarkdown() == null ? "" : reply.assistantMarkdown();
-                String assistantHtml = prettify.markdownToHtml(assistantMarkdown);
-                broadcastToGameId(new PlayWsServerMessage.AssistantDone(assistantId, assistantMarkdown, assistantHtml));
+                String assistantHtml = narration.html(assistantMarkdown);
+                long seq = appendToHistory("assistant", assistantMarkdown, assistantHtml);
+                broadcastToGameId(new PlayWsServerMessage.AssistantDone(assistantId, assistantMarkdown, assistantHtml, seq));
 
                 for (GameEffect effect : reply.effects()) {
                     PlayWsServerMessage outbound = toServerMessage(effect);
@@ -182,8 +388,6 @@ public class PlayWebSocket {
                         broadcastToGameId(outbound);
                     }
                 }
-
-                appendToHistory("assistant", assistantMarkdown, assistantHtml);
             } else {
                 broadcastToGameId(new PlayWsServerMessage.Error(assistantId, "Unsupported response from GameEngine"));
             }
@@ -191,10 +395,22 @@ public class PlayWebSocket {
             Log.errorf(e, "Error handling user message for gameId: %s", gameId);
             broadcastToGameId(new PlayWsServerMessage.Error(assistantId, "Internal error: " + e.getMessage()));
         } finally {
-            lock.set(false);
+            session.endTurn(cancellation);
         }
+    }
 
-        return Multi.createFrom().empty();
+    /**
+     * Only the connection that sent the turn may cancel it.
+     */
+    private void cancelActiveTurn() {
+        if (!session.cancelTurn(connection.id(), "cancelled by " + connection.id())) {
+            Log.debugf("Ignoring cancel from connection %s: not running a turn for gameId %s", connection.id(), gameId);
+            reply(new PlayWsServerMessage.Error(null, "There is no turn of yours to cancel."));
+        }
+    }
+
+    private void broadcastQueueStatus(TurnMailbox.Status status) {
+        broadcastToGameId(new PlayWsServerMessage.QueueStatus(status.depth(), status.oldestWaitMillis()));
     }
 
     private static PlayWsServerMessage toServerMessage(GameEffect effect) {
@@ -204,38 +420,54 @@ public class PlayWebSocket {
         };
     }
 
-    private void appendToHistory(String role, String markdown) {
-        appendToHistory(role, markdown, prettify.markdownToHtml(markdown));
+    /**
+     * @return the message's sequence number in the game's history
+     */
+    private long appendToHistory(String role, String markdown, String html) {
+        PlayMessage message = history.append(gameId, role, markdown, html);
+        return message.seq();
     }
 
-    private void appendToHistory(String role, String markdown, String html) {
-        if (gameId == null) {
+    /**
+     * Send a message to this connection only.
+     */
+    private void reply(PlayWsServerMessage message) {
+        if (outbound == null) {
+            Log.debugf("Connection %s is not open; dropping %s", connection.id(), message.getClass().getSimpleName());
             return;
         }
-        HISTORY.compute(gameId, (k, messages) -> {
-            List<PlayWsServerMessage.HistoryMessage> list = messages == null ? new ArrayList<>() : new ArrayList<>(messages);
-            list.add(new PlayWsServerMessage.HistoryMessage(role, markdown, html, Instant.now()));
-            if (list.size() > MAX_HISTORY_MESSAGES) {
-                list = list.subList(list.size() - MAX_HISTORY_MESSAGES, list.size());
-            }
-            return list.isEmpty() ? List.of() : List.copyOf(list);
-        });
+        outbound.offer(message);
     }
 
     /**
-     * sendAndAwait to preserve order when broadcast
-     *
-     * @param broadcaster
-     * @param messages
+     * Send a message to every connection for this game, on this instance and
+     * (through the {@link PlayBus}) on any others.
      */
     private void broadcastToGameId(PlayWsServerMessage message) {
-        String endpointId = connection.endpointId();
-        openConnections.stream()
-                .filter(c -> endpointId.equals(c.endpointId()))
-                .filter(c -> gameId.equals(c.pathParam("gameId")))
-                .forEach(c -> {
-                    c.sendTextAndAwait(message);
-                });
+        deliver(gameId, message);
+        bus.publish(gameId, message);
+    }
+
+    /**
+     * Send a message to this instance's connections for a game.
+     *
+     * The message is serialized once per encoding and added to each connection's outbound queue;
+     * queues are written out independently and in order, so a slow connection does
+     * not hold up the turn or the other connections (see {@link OutboundQueue}).
+     */
+    static void deliver(String gameId, PlayWsServerMessage message) {
+        PlaySession session = SESSIONS.get(gameId);
+        Set<OutboundQueue> recipients = session == null ? Set.of() : session.connections();
+        if (recipients.isEmpty()) {
+            return;
+        }
+        Map<PlayWsCodec.Encoding, PlayWsCodec.Encoded> encoded = new EnumMap<>(PlayWsCodec.Encoding.class);
+        for (OutboundQueue recipient : recipients) {
+            PlayWsCodec.Encoded frame = encoded.computeIfAbsent(recipient.encoding(), e -> recipient.encode(message));
+            if (frame != null) {
+                recipient.offer(message, frame);
+            }
+        }
     }
 
     private static String truncate(String text, int maxLength) {
@@ -9,20 +9,25 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
  * Protocol:
  * - {@link HistoryRequest}: Request conversation history
  * - {@link UserMessage}: Send a user message to the server
+ * - {@link Cancel}: Stop the turn currently being generated
  */
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
 @JsonSubTypes({
         @JsonSubTypes.Type(value = PlayWsClientMessage.HistoryRequest.class, name = "history_request"),
-        @JsonSubTypes.Type(value = PlayWsClientMessage.UserMessage.class, name = "user_message")
+        @JsonSubTypes.Type(value = PlayWsClientMessage.UserMessage.class, name = "user_message"),
+        @JsonSubTypes.Type(value = PlayWsClientMessage.Cancel.class, name = "cancel")
 })
 public sealed interface PlayWsClientMessage {
 
     /**
-     * Request conversation history.
+     * Request a page of conversation history. With neither {@code before} nor {@code after},
+     * the latest messages are returned.
      *
      * @param limit Maximum number of messages to return (default: 100)
+     * @param before Return the latest messages older than this sequence number (page back)
+     * @param after Return the messages newer than this sequence number (catch up after a reconnect)
      */
-    record HistoryRequest(Integer limit) implements PlayWsClientMessage {
+    record HistoryRequest(Integer limit, Long before, Long after) implements PlayWsClientMessage {
         public HistoryRequest {
             if (limit == null) {
                 limit = 100;
@@ -37,4 +42,11 @@ public sealed interface PlayWsClientMessage {
      */
     record UserMessage(String text) implements PlayWsClientMessage {
     }
+
+    /**
+     * Cancel the turn currently being generated for this game.
+     * The turn's changes (chat memory, pending roll) are rolled back.
+     */
+    record Cancel() implements PlayWsClientMessage {
+    }
 }
@@ -0,0 +1,124 @@
+package dev.ebullient.soloplay.play;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+import io.quarkus.logging.Log;
+
+/**
+ * Wire encodings for the Play WebSocket, chosen per connection at handshake
+ * from the query string:
+ *
+ * - {@code encoding=json} (default): JSON text frames
+ * - {@code encoding=cbor}: the same messages as CBOR, in binary frames (both directions)
+ * - {@code history=markdown}: leave the rendered HTML out of history pages; the
+ *   client renders the markdown itself
+ *
+ * Frame compression (permessage-deflate) is negotiated by the WebSocket handshake
+ * itself ({@code quarkus.websockets-next.server.per-message-compression-enabled}).
+ */
+@ApplicationScoped
+public class PlayWsCodec {
+
+    enum Encoding {
+        JSON,
+        CBOR
+    }
+
+    /**
+     * @param encoding Encoding for every frame on the connection
+     * @param historyHtml False to omit rendered HTML from history pages
+     */
+    record Options(Encoding encoding, boolean historyHtml) {
+        static final Options DEFAULT = new Options(Encoding.JSON, true);
+    }
+
+    /**
+     * An encoded message: text for JSON, binary for CBOR.
+     */
+    record Encoded(String text, byte[] binary) {
+        static Encoded text(String text) {
+            return new Encoded(text, null);
+        }
+
+        static Encoded binary(byte[] binary) {
+            return new Encoded(null, binary);
+        }
+
+        boolean isBinary() {
+            return binary != null;
+        }
+    }
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private ObjectWriter jsonWriter;
+    private ObjectWriter cborWriter;
+    private ObjectMapper cborMapper;
+
+    @PostConstruct
+    void init() {
+        // Same modules and settings as the JSON mapper
+        cborMapper = objectMapper.copyWith(new CBORFactory());
+        // writerFor the interface, so the "type" discriminator is always included
+        jsonWriter = objectMapper.writerFor(PlayWsServerMessage.class);
+        cborWriter = cborMapper.writerFor(PlayWsServerMessage.class);
+    }
+
+    /**
+     * Read connection options from the handshake query string (e.g. {@code encoding=cbor&history=markdown}).
+     * Unknown parameters and values are ignored.
+     */
+    static Options options(String query) {
+        if (query == null || query.isBlank()) {
+            return Options.DEFAULT;
+        }
+        Encoding encoding = Encoding.JSON;
+        boolean historyHtml = true;
+        for (String param : query.split("&")) {
+            int eq = param.indexOf('=');
+            if (eq < 0) {
+                continue;
+            }
+            String name = param.substring(0, eq);
+            String value = param.substring(eq + 1).toLowerCase(Locale.ROOT);
+            if (name.equals("encoding") && value.equals("cbor")) {
+                encoding = Encoding.CBOR;
+            } else if (name.equals("history") && value.equals("markdown")) {
+                historyHtml = false;
+            }
+        }
+        return new Options(encoding, historyHtml);
+    }
+
+    /**
+     * @return the encoded message, or null if it could not be serialized
+     */
+    Encoded encode(PlayWsServerMessage message, Encoding encoding) {
+        try {
+            return encoding == Encoding.CBOR
+                    ? Encoded.binary(cborWriter.writeValueAsBytes(message))
+                    : Encoded.text(jsonWriter.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            Log.errorf(e, "Unable to serialize %s as %s", message.getClass().getSimpleName(), encoding);
+            return null;
+        }
+    }
+
+    /**
+     * Read a client message from a CBOR (binary) frame.
+     */
+    PlayWsClientMessage decode(byte[] data) throws IOException {
+        return cborMapper.readValue(data, PlayWsClientMessage.class);
+    }
+}
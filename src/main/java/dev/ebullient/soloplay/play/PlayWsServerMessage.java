@@ -18,6 +18,7 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
  * - {@link AssistantDelta}: Streaming chunk(s) from assistant response
  * - {@link AssistantDone}: Assistant response complete with final markdown/HTML
  * - {@link DraftUpdate}: Draft/state update for client-side UI
+ * - {@link QueueStatus}: Player input waiting for the current turn to finish
  * - {@link Error}: Error occurred during processing
  */
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
@@ -29,6 +30,7 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
         @JsonSubTypes.Type(value = PlayWsServerMessage.AssistantStart.class, name = "assistant_start"),
         @JsonSubTypes.Type(value = PlayWsServerMessage.AssistantDelta.class, name = "assistant_delta"),
         @JsonSubTypes.Type(value = PlayWsServerMessage.AssistantDone.class, name = "assistant_done"),
+        @JsonSubTypes.Type(value = PlayWsServerMessage.QueueStatus.class, name = "queue_status"),
         @JsonSubTypes.Type(value = PlayWsServerMessage.Error.class, name = "error")
 })
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -42,21 +44,26 @@ public sealed interface PlayWsServerMessage {
      * @param gameId Stable game identifier (from the WebSocket path parameter)
      * @param adventureName Display name for the adventure (may be null for new games)
      * @param gamePhase Current phase of the game (e.g., "CHARACTER_CREATION", "UNKNOWN")
+     * @param resume True if nobody has played the game since the server started (or since
+     *        everyone left): the client should send {@code /start} for a recap
      */
     record Session(
             String sessionId,
             String gameId,
             String adventureName,
-            String gamePhase) implements PlayWsServerMessage {
+            String gamePhase,
+            boolean resume) implements PlayWsServerMessage {
     }
 
     /**
      * Response to a history_request.
-     * Contains past conversation messages for this session.
+     * Contains a page of past conversation messages for this game.
      *
      * @param messages List of past messages in chronological order
+     * @param more True if there are more messages in the requested direction
+     *        (older for a "before" or latest page, newer for an "after" page)
      */
-    record History(List<HistoryMessage> messages) implements PlayWsServerMessage {
+    record History(List<HistoryMessage> messages, boolean more) implements PlayWsServerMessage {
     }
 
     /**
@@ -64,19 +71,23 @@ public sealed interface PlayWsServerMessage {
      *
      * @param senderSessionId Session ID of the client that sent the message
      * @param text The user's message text
+     * @param seq Sequence number in the game's history (null for commands, which are not recorded)
      */
-    record UserEcho(String senderSessionId, String text) implements PlayWsServerMessage {
+    record UserEcho(String senderSessionId, String text, Long seq) implements PlayWsServerMessage {
     }
 
     /**
      * A single message in the conversation history.
      *
+     * @param seq Sequence number in the game's history
      * @param role "user" or "assistant"
      * @param markdown Original markdown content
-     * @param html Rendered HTML content
+     * @param html Rendered HTML content (omitted for connections that render markdown themselves)
      * @param ts Timestamp when message was created
      */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     record HistoryMessage(
+            long seq,
             String role,
             String markdown,
             String html,
@@ -109,11 +120,23 @@ public sealed interface PlayWsServerMessage {
      * @param id Message ID (same as AssistantStart)
      * @param markdown Full response as markdown
      * @param html Full response rendered as HTML
+     * @param seq Sequence number in the game's history
      */
     record AssistantDone(
             String id,
             String markdown,
-            String html) implements PlayWsServerMessage {
+            String html,
+            Long seq) implements PlayWsServerMessage {
+    }
+
+    /**
+     * Player input queued behind the turn currently being generated.
+     * Sent when input is queued and whenever a queued turn starts.
+     *
+     * @param depth Number of messages waiting (0 when the queue has drained)
+     * @param oldestWaitMillis How long the oldest waiting message has waited
+     */
+    record QueueStatus(int depth, long oldestWaitMillis) implements PlayWsServerMessage {
     }
 
     /**
@@ -0,0 +1,13 @@
+package dev.ebullient.soloplay.play;
+
+/**
+ * Thrown when a streamed GM response fails its guardrail check.
+ * Nothing from the response (patches, rolls, draft changes) is applied, and
+ * what the call added to the game's chat memory is removed ({@link ChatMemoryRollback}).
+ */
+public class RejectedResponseException extends RuntimeException {
+
+    public RejectedResponseException(String message) {
+        super(message);
+    }
+}
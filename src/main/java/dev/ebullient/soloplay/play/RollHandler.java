@@ -14,12 +14,14 @@ import jakarta.enterprise.context.ApplicationScoped;
 import dev.ebullient.soloplay.play.GameEffect.HtmlFragment;
 import dev.ebullient.soloplay.play.model.GameState;
 import dev.ebullient.soloplay.play.model.PendingRoll;
+import dev.ebullient.soloplay.play.model.RollOutcome;
 import dev.ebullient.soloplay.play.model.RollResult;
 import io.quarkus.logging.Log;
 
 @ApplicationScoped
 public class RollHandler {
     static final String DRAFT_KEY = "pending_roll";
+    static final String INVALID_INPUT = "invalid input";
 
     // Matches a single dice term: NdX (e.g., "2d6", "d20", "1d8")
     private static final Pattern DICE_TERM = Pattern.compile(
@@ -95,7 +97,7 @@ public class RollHandler {
             if (!foundDice) {
                 Log.warnf("Invalid dice notation: %s", input);
                 total = 0;
-                breakdown = "invalid input";
+                breakdown = INVALID_INPUT;
             } else {
                 breakdown = String.join(" + ", breakdownParts).replace(" + - ", " - ") + " = " + total;
             }
@@ -111,6 +113,20 @@ public class RollHandler {
                 pending.context());
     }
 
+    /**
+     * Settle a roll from the outcomes the GM wrote when it asked for the roll.
+     *
+     * @return the outcome matching the result, or null if the GM has to resolve the roll
+     *         (no DC, outcomes missing, or the roll could not be read)
+     */
+    RollOutcome settle(PendingRoll pending, RollResult result) {
+        if (pending == null || result == null || !pending.canSettleLocally()
+                || INVALID_INPUT.equals(result.breakdown())) {
+            return null;
+        }
+        return result.success() ? pending.onSuccess() : pending.onFailure();
+    }
+
     PendingRoll getPendingRoll(GameState game) {
         return game.getStash(DRAFT_KEY, PendingRoll.class);
     }
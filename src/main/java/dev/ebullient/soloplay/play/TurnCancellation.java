@@ -0,0 +1,124 @@
+package dev.ebullient.soloplay.play;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.Cancellable;
+
+/**
+ * Cancellation signal for one turn.
+ *
+ * A turn is cancelled when the player sends {@code cancel}, or when the last
+ * connection for the game closes. Cancelling wakes the thread consuming the model
+ * stream, which then throws {@link CancellationException} so the engines can roll
+ * back, and cancels the subscription so no more tokens are delivered.
+ *
+ * This does not stop generation: the Ollama streaming model does not keep the
+ * upstream subscription, so the request to the model runs to completion in the
+ * background, and the AI service still writes its reply to chat memory when it ends.
+ * {@link ChatMemoryRollback} drops that late reply before the next call reads memory.
+ */
+public class TurnCancellation {
+
+    /** For callers that never cancel (e.g. tests) */
+    public static final TurnCancellation NONE = new TurnCancellation();
+
+    private static final Object END = new Object();
+
+    private final List<Runnable> hooks = new ArrayList<>();
+    private boolean cancelled;
+
+    public void cancel() {
+        List<Runnable> toRun;
+        synchronized (this) {
+            if (cancelled || this == NONE) {
+                return;
+            }
+            cancelled = true;
+            toRun = List.copyOf(hooks);
+        }
+        toRun.forEach(Runnable::run);
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @throws CancellationException if the turn has been cancelled
+     */
+    public void throwIfCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException("Turn cancelled");
+        }
+    }
+
+    private synchronized boolean onCancel(Runnable hook) {
+        if (cancelled) {
+            return false;
+        }
+        hooks.add(hook);
+        return true;
+    }
+
+    private synchronized void remove(Runnable hook) {
+        hooks.remove(hook);
+    }
+
+    /**
+     * Consume a token stream on the calling (virtual) thread. If the turn is cancelled,
+     * stop consuming (the model may still be generating; see above).
+     *
+     * @param tokens Stream to consume
+     * @param onToken Called for each token, on the calling thread
+     * @throws CancellationException if the turn is cancelled before the stream completes
+     */
+    public void consume(Multi<String> tokens, Consumer<String> onToken) {
+        throwIfCancelled();
+
+        BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+        Cancellable subscription = tokens.subscribe().with(
+                queue::add,
+                queue::add,
+                () -> queue.add(END));
+
+        Runnable stop = () -> {
+            subscription.cancel();
+            queue.add(new CancellationException("Turn cancelled"));
+        };
+        if (!onCancel(stop)) {
+            subscription.cancel();
+            throw new CancellationException("Turn cancelled");
+        }
+
+        try {
+            while (true) {
+                Object next = queue.take();
+                if (next == END) {
+                    return;
+                }
+                if (next instanceof CancellationException e) {
+                    throw e;
+                }
+                if (next instanceof RuntimeException e) {
+                    throw e;
+                }
+                if (next instanceof Throwable t) {
+                    throw new IllegalStateException(t.getMessage(), t);
+                }
+                onToken.accept((String) next);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            subscription.cancel();
+            throw new CancellationException("Interrupted");
+        } finally {
+            remove(stop);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package dev.ebullient.soloplay.play;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import dev.ebullient.soloplay.GameRepository;
+import dev.ebullient.soloplay.play.model.Event;
+import dev.ebullient.soloplay.play.model.GameState;
+import io.quarkus.logging.Log;
+
+/**
+ * Gathers the independent lookups a turn needs (party, event history, story summary, protagonist check)
+ * concurrently, one virtual thread each, so the wait before the GM is called is bounded
+ * by the slowest lookup rather than their sum.
+ *
+ * All lookups share one deadline ({@code campaign.turn.context-timeout}). If any lookup
+ * fails or the deadline passes ({@link TurnContextTimeoutException}), the remaining lookups
+ * are cancelled and the failure is rethrown right away. Lookups run on a shared executor, so the turn does not wait for
+ * cancelled lookups to finish (a blocked database read does not respond to interrupts).
+ */
+@ApplicationScoped
+public class TurnContextLoader {
+
+    @Inject
+    GameRepository gameRepository;
+
+    @Inject
+    GamePlayEngine gamePlayEngine;
+
+    @ConfigProperty(name = "campaign.turn.context-timeout", defaultValue = "10s")
+    Duration timeout;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void init() {
+        executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("turn-context-", 0).factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param party Formatted party members (see {@link GamePlayEngine#listTheParty(GameState)})
+     * @param events All events for the game, oldest first; empty if not requested
+     * @param storySoFar Rolling summary of play that has left the GM's chat memory; null if none yet
+     * @param hasProtagonists True if the game has player characters; null if not requested
+     */
+    public record TurnContext(List<String> party, List<Event> events, String storySoFar, Boolean hasProtagonists) {
+    }
+
+    /**
+     * @param game Game being played
+     * @param withEvents True to load the event history (scene start or recap)
+     * @param withProtagonists True to check for player characters (phase recovery)
+     */
+    public TurnContext load(GameState game, boolean withEvents, boolean withProtagonists) {
+        String gameId = game.getGameId();
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        Future<List<String>> party = executor.submit(() -> gamePlayEngine.listTheParty(game));
+        Future<List<Event>> events = withEvents
+                ? executor.submit(() -> gameRepository.listEvents(gameId))
+                : CompletableFuture.completedFuture(List.of());
+        Future<Event> summary = executor.submit(() -> gameRepository.findMemorySummary(gameId));
+        Future<Boolean> protagonists = withProtagonists
+                ? executor.submit(() -> gameRepository.hasProtagonists(gameId))
+                : CompletableFuture.completedFuture(null);
+
+        List<Future<?>> all = List.of(party, events, summary, protagonists);
+        try {
+            Event storySoFar = await(summary, deadline);
+            return new TurnContext(
+                    await(party, deadline),
+                    await(events, deadline),
+                    storySoFar == null ? null : storySoFar.getSummary(),
+                    await(protagonists, deadline));
+        } catch (RuntimeException e) {
+            // Don't wait for the others: they finish (or time out) in the background
+            all.forEach(f -> f.cancel(true));
+            throw e;
+        }
+    }
+
+    private <T> T await(Future<T> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            Log.warnf("Turn context lookups exceeded %s", timeout);
+            throw new TurnContextTimeoutException(timeout, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Unable to load game context: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading game context", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package dev.ebullient.soloplay.play;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the lookups for a turn ({@link TurnContextLoader}) miss their deadline.
+ * Nothing from the turn has been applied, so the player can send it again.
+ */
+public class TurnContextTimeoutException extends IllegalStateException {
+
+    public TurnContextTimeoutException(Duration timeout, Throwable cause) {
+        super("Timed out loading game context after " + timeout, cause);
+    }
+}
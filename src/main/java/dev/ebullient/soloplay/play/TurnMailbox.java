@@ -0,0 +1,149 @@
+package dev.ebullient.soloplay.play;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Per-game queue of player input. Turns for one game are processed one at a time,
+ * in arrival order, by a single consumer: whichever caller finds the mailbox idle
+ * drains it; other callers just enqueue.
+ *
+ * With a merge window, plain messages that arrive within the window of each other
+ * (from the same sender) are combined into one turn. Commands are never merged.
+ */
+class TurnMailbox {
+
+    /**
+     * @param senderId Connection that sent the input
+     * @param text Player input
+     * @param queuedAt When the input arrived
+     * @param handler Processes the turn
+     */
+    record Turn(String senderId, String text, Instant queuedAt, TurnHandler handler) {
+        boolean mergeable() {
+            return !text.startsWith("/");
+        }
+    }
+
+    @FunctionalInterface
+    interface TurnHandler {
+        void process(Turn turn);
+    }
+
+    /**
+     * @param depth Turns waiting (not including the one being processed)
+     * @param oldestWaitMillis How long the oldest waiting turn has waited; 0 if none
+     */
+    record Status(int depth, long oldestWaitMillis) {
+    }
+
+    private final Deque<Turn> queue = new ArrayDeque<>();
+    private boolean draining;
+
+    /**
+     * Add a turn to the mailbox.
+     *
+     * @return true if the caller must drain the mailbox (it was idle); false if another
+     *         caller is already draining it and will process this turn
+     */
+    synchronized boolean offer(Turn turn) {
+        queue.addLast(turn);
+        if (draining) {
+            return false;
+        }
+        draining = true;
+        return true;
+    }
+
+    /**
+     * Take the next turn, merging quick successive messages if a merge window is set.
+     * Only the draining caller should call this.
+     *
+     * @return the next turn, or null if the mailbox is empty (the caller is then done draining)
+     */
+    Turn next(Duration mergeWindow) {
+        if (!mergeWindow.isZero() && !mergeWindow.isNegative()) {
+            synchronized (this) {
+                Turn head = queue.peekFirst();
+                if (head == null || !head.mergeable()) {
+                    return take();
+                }
+            }
+            // Give the player a moment to finish their thought
+            try {
+                Thread.sleep(mergeWindow);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return takeMerged();
+        }
+        return take();
+    }
+
+    private synchronized Turn take() {
+        Turn turn = queue.pollFirst();
+        if (turn == null) {
+            draining = false;
+        }
+        return turn;
+    }
+
+    private synchronized Turn takeMerged() {
+        Turn first = take();
+        if (first == null || !first.mergeable()) {
+            return first;
+        }
+        StringBuilder text = new StringBuilder(first.text());
+        while (!queue.isEmpty()) {
+            Turn next = queue.peekFirst();
+            if (!next.mergeable() || !next.senderId().equals(first.senderId())) {
+                break;
+            }
+            queue.pollFirst();
+            text.append("\n").append(next.text());
+        }
+        return text.length() == first.text().length()
+                ? first
+                : new Turn(first.senderId(), text.toString(), first.queuedAt(), first.handler());
+    }
+
+    synchronized Status status() {
+        Turn oldest = queue.peekFirst();
+        long wait = oldest == null ? 0 : Duration.between(oldest.queuedAt(), Instant.now()).toMillis();
+        return new Status(queue.size(), wait);
+    }
+
+    synchronized boolean idle() {
+        return !draining && queue.isEmpty();
+    }
+
+    /**
+     * Run an action if the mailbox is idle (e.g. release the game). The lock is not held
+     * while it runs, so offers don't wait for it: the caller keeps the mailbox, and input
+     * that arrives meanwhile is queued for the caller to drain afterwards.
+     *
+     * @return true if input arrived while the action ran: the caller must drain the mailbox again
+     */
+    boolean ifIdle(Runnable action) {
+        synchronized (this) {
+            if (!idle()) {
+                return false; // another caller is draining
+            }
+            draining = true;
+        }
+        boolean arrived;
+        try {
+            action.run();
+        } finally {
+            arrived = keepDrainingIfQueued();
+        }
+        return arrived;
+    }
+
+    private synchronized boolean keepDrainingIfQueued() {
+        draining = !queue.isEmpty();
+        return draining;
+    }
+}
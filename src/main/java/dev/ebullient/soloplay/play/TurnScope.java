@@ -0,0 +1,63 @@
+package dev.ebullient.soloplay.play;
+
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.InjectableContext.ContextState;
+import io.quarkus.arc.ManagedContext;
+
+/**
+ * CDI contexts for a turn that runs off the WebSocket callback thread.
+ *
+ * websockets-next activates the connection's session context (the assistants are
+ * {@code @SessionScoped}) and a request context only while a callback runs. Turns run
+ * on a thread of their own, so the session context state is captured in the callback
+ * and activated around the turn, along with a request context for the turn
+ * (e.g. {@link GameContext}).
+ *
+ * If the connection closed before its turn ran, its session context has been destroyed;
+ * the turn then gets a session context of its own, destroyed when the turn ends.
+ */
+final class TurnScope {
+    private final ContextState session;
+
+    private TurnScope(ContextState session) {
+        this.session = session;
+    }
+
+    /**
+     * Call from the WebSocket callback that queues the turn.
+     */
+    static TurnScope capture() {
+        ManagedContext sessionContext = Arc.container().sessionContext();
+        return new TurnScope(sessionContext.isActive() ? sessionContext.getState() : null);
+    }
+
+    /**
+     * @return a handler that processes the turn within this scope
+     */
+    TurnMailbox.TurnHandler wrap(TurnMailbox.TurnHandler handler) {
+        return turn -> run(() -> handler.process(turn));
+    }
+
+    void run(Runnable work) {
+        ManagedContext sessionContext = Arc.container().sessionContext();
+        ManagedContext requestContext = Arc.container().requestContext();
+        boolean ownSession = session == null || !session.isValid();
+        if (ownSession) {
+            sessionContext.activate();
+        } else {
+            sessionContext.activate(session);
+        }
+        requestContext.activate();
+        try {
+            work.run();
+        } finally {
+            requestContext.terminate();
+            if (ownSession) {
+                sessionContext.terminate();
+            } else {
+                // The connection's session context ends when the connection closes
+                sessionContext.deactivate();
+            }
+        }
+    }
+}
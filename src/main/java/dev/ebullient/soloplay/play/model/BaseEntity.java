@@ -28,6 +28,11 @@ public abstract class BaseEntity {
         this.dirty = false;
     }
 
+    /**
+     * @return the game this entity belongs to
+     */
+    public abstract String getGameId();
+
     /**
      * @return the createdAt
      */
@@ -14,6 +14,12 @@ import io.quarkus.qute.TemplateInstance;
 @NodeEntity
 public class Event extends BaseEntity implements Stash {
 
+    /**
+     * Tag for the rolling summary of play that has left the GM's chat memory.
+     * There is one per game, saved as turn 0 so it sorts before the turns it covers.
+     */
+    public static final String MEMORY_SUMMARY_TAG = "memory-summary";
+
     @CheckedTemplate(basePath = "models")
     public static class Templates {
         public static native TemplateInstance eventDetail(Event event);
@@ -68,6 +74,10 @@ public class Event extends BaseEntity implements Stash {
         return turnNumber;
     }
 
+    public boolean isMemorySummary() {
+        return hasTag(MEMORY_SUMMARY_TAG);
+    }
+
     public Set<Actor> getParticipants() {
         return participants;
     }
@@ -1,13 +1,16 @@
 package dev.ebullient.soloplay.play.model;
 
 import java.time.Instant;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.neo4j.ogm.annotation.Id;
 import org.neo4j.ogm.annotation.NodeEntity;
 import org.neo4j.ogm.annotation.Transient;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 @NodeEntity("Game")
 public class GameState extends BaseEntity {
 
@@ -35,9 +38,14 @@ public class GameState extends BaseEntity {
     int turnNumber; // Increment each turn
     String currentLocation; // "location:docks"
     Long lastPlayedAt;
+    Long playedAt = createdAt; // listing sort key: lastPlayedAt, or createdAt if never played
+
+    // Compact JSON form of the stash, written by GameRepository.saveGame
+    String stashData;
 
+    // Shared by all connections to the game (see GameSessions)
     @Transient
-    Map<String, Stash> stash = new HashMap<>();
+    Map<String, Stash> stash = new ConcurrentHashMap<>();
 
     /**
      * @return the gameId
@@ -73,6 +81,10 @@ public class GameState extends BaseEntity {
         return lastPlayedAt;
     }
 
+    public Long getPlayedAt() {
+        return playedAt;
+    }
+
     public Integer getTurnNumber() {
         return turnNumber;
     }
@@ -80,6 +92,7 @@ public class GameState extends BaseEntity {
     public void incrementTurn() {
         turnNumber++;
         this.lastPlayedAt = Instant.now().toEpochMilli();
+        this.playedAt = lastPlayedAt;
     }
 
     public String getAdventureName() {
@@ -115,14 +128,27 @@ public class GameState extends BaseEntity {
     }
 
     public <T extends Stash> void putStash(String key, T value) {
-        this.stash.put(key, value);
+        if (value == null) {
+            this.stash.remove(key);
+        } else {
+            this.stash.put(key, value);
+        }
     }
 
     public <T extends Stash> void removeStash(String key) {
         this.stash.remove(key);
     }
 
-    public Object dumpStash() {
-        return this.stash;
+    public Map<String, Stash> dumpStash() {
+        return Collections.unmodifiableMap(this.stash);
+    }
+
+    @JsonIgnore
+    public String getStashData() {
+        return stashData;
+    }
+
+    public void setStashData(String stashData) {
+        this.stashData = stashData;
     }
 }
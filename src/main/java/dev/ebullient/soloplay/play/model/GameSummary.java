@@ -0,0 +1,68 @@
+package dev.ebullient.soloplay.play.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Lightweight projection of a game for listings (no stash, no entity mapping).
+ *
+ * @param gameId Game identifier
+ * @param adventureName Adventure, if any
+ * @param gamePhase Current phase
+ * @param turnNumber Current turn
+ * @param lastPlayedAt Last turn played (epoch millis), null if never played
+ * @param playedAt Sort key: lastPlayedAt, or createdAt if never played
+ */
+public record GameSummary(
+        String gameId,
+        String adventureName,
+        GameState.GamePhase gamePhase,
+        int turnNumber,
+        Long lastPlayedAt,
+        long playedAt) {
+
+    /**
+     * A page of games, most recently played first.
+     *
+     * @param games Games on this page
+     * @param nextCursor Cursor for the next (older) page, or null if this is the last page
+     */
+    public record Page(List<GameSummary> games, String nextCursor) {
+        public boolean hasNext() {
+            return nextCursor != null;
+        }
+    }
+
+    /**
+     * Keyset position: games that sort after (playedAt, gameId).
+     */
+    public record Cursor(long playedAt, String gameId) {
+
+        public String encode() {
+            String raw = playedAt + ":" + gameId;
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @throws IllegalArgumentException if the cursor is malformed
+         */
+        public static Cursor decode(String cursor) {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            try {
+                return new Cursor(Long.parseLong(raw.substring(0, separator)), raw.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+        }
+    }
+
+    public Cursor cursor() {
+        return new Cursor(playedAt, gameId);
+    }
+}
@@ -1,22 +1,40 @@
 package dev.ebullient.soloplay.play.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import dev.langchain4j.model.output.structured.Description;
 import io.quarkus.qute.CheckedTemplate;
 import io.quarkus.qute.TemplateInstance;
 
 public record PendingRoll(
         @Description("\"skill_check\", \"attack\", \"saving_throw\", \"ability_check\"") String type,
-        @Description("\"persuasion\", \"stealth\", etc. (null for attacks/saves)") String skill,
+        @JsonProperty(required = false) @Description("\"persuasion\", \"stealth\", etc. (null for attacks/saves)") String skill,
         @Description("\"strength\", \"dexterity\", etc.") String ability,
-        @Description("Difficulty class. Null if contested or attack roll") Integer dc,
+        @JsonProperty(required = false) @Description("Difficulty class. Null if contested or attack roll") Integer dc,
         @Description("who/what this is for or against") String target,
-        @Description("brief explanation of the roll for the player") String context) implements Stash {
+        @Description("brief explanation of the roll for the player") String context,
+        @JsonProperty(required = false) @Description("Only when asked: what happens if the roll meets or beats the DC") RollOutcome onSuccess,
+        @JsonProperty(required = false) @Description("Only when asked: what happens if the roll is below the DC") RollOutcome onFailure)
+        implements
+            Stash {
 
     @CheckedTemplate(basePath = "models")
     public static class Templates {
         public static native TemplateInstance pendingRoll(PendingRoll roll);
     }
 
+    public PendingRoll(String type, String skill, String ability, Integer dc, String target, String context) {
+        this(type, skill, ability, dc, target, context, null, null);
+    }
+
+    /**
+     * @return true if the roll can be settled without the GM: there is a DC and both outcomes
+     */
+    public boolean canSettleLocally() {
+        return dc != null && onSuccess != null && onFailure != null
+                && onSuccess.narration() != null && onFailure.narration() != null;
+    }
+
     public String render() {
         return Templates.pendingRoll(this).render();
     }
@@ -0,0 +1,23 @@
+package dev.ebullient.soloplay.play.model;
+
+import java.time.Instant;
+
+/**
+ * One entry in a game's play history (player input or GM response), as shown in the play view.
+ * Stored as (:PlayMessage {gameId, seq}); sequence numbers start at 1 and increase by one per game.
+ *
+ * @param gameId Game the message belongs to
+ * @param seq Position in the game's history
+ * @param role "user" or "assistant"
+ * @param markdown Original markdown content
+ * @param html Rendered HTML content
+ * @param ts When the message was created
+ */
+public record PlayMessage(
+        String gameId,
+        long seq,
+        String role,
+        String markdown,
+        String html,
+        Instant ts) {
+}
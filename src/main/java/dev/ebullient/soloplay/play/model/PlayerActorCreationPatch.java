@@ -2,17 +2,19 @@ package dev.ebullient.soloplay.play.model;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import dev.langchain4j.model.output.structured.Description;
 
 public record PlayerActorCreationPatch(
-        @Description("Character name") String name,
-        @Description("Class") String actorClass,
-        @Description("Level; default to adventure recommendation or 1") Integer level,
-        @Description("Brief 5-10 word description") String summary,
-        @Description("Longer description; can be brief initially, will evolve during play") String description,
-        @Description("Tags for additional information: race, background, alignment") List<String> tags,
-        @Description("Alternate names this character uses") List<String> aliases,
-        @Description("A short explanation of the change") String rationale,
+        @JsonProperty(required = false) @Description("Character name") String name,
+        @JsonProperty(required = false) @Description("Class") String actorClass,
+        @JsonProperty(required = false) @Description("Level; default to adventure recommendation or 1") Integer level,
+        @JsonProperty(required = false) @Description("Brief 5-10 word description") String summary,
+        @JsonProperty(required = false) @Description("Longer description; can be brief initially, will evolve during play") String description,
+        @JsonProperty(required = false) @Description("Tags for additional information: race, background, alignment") List<String> tags,
+        @JsonProperty(required = false) @Description("Alternate names this character uses") List<String> aliases,
+        @JsonProperty(required = false) @Description("A short explanation of the change") String rationale,
         @Description("list of lore document filenames used. If you did not use lore docs or tools, sources = []. Don't invent filenames.") List<String> sources)
         implements
             Stash {
@@ -0,0 +1,19 @@
+package dev.ebullient.soloplay.play.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import dev.langchain4j.model.output.structured.Description;
+
+/**
+ * Pre-written result of a pending roll (one for success, one for failure).
+ * Lets a roll against a known DC be settled without another call to the GM.
+ */
+public record RollOutcome(
+        @Description("Short narration of what happens, written as if the roll has just been made") String narration,
+        @Description("1-2 sentences capturing what happened AND where things stand now. MUST use the player character's actual name.") String turnSummary,
+        @Description("Available choices for the player after this outcome") List<String> playerChoices,
+        @Description("Changes to world state for this outcome. null or [] means no changes. ONLY use type \"actor\" or \"location\".") List<Patch> patches,
+        @JsonProperty(required = false) @Description("just the location name after this outcome; null if unchanged") String currentLocation) {
+}
@@ -10,10 +10,12 @@ import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 
 import org.jboss.resteasy.reactive.RestForm;
+import org.jboss.resteasy.reactive.RestQuery;
 
 import dev.ebullient.soloplay.GameRepository;
 import dev.ebullient.soloplay.LoreRepository;
 import dev.ebullient.soloplay.play.model.GameState;
+import dev.ebullient.soloplay.play.model.GameSummary;
 import io.quarkiverse.renarde.Controller;
 import io.quarkus.qute.CheckedTemplate;
 import io.quarkus.qute.TemplateInstance;
@@ -22,7 +24,7 @@ import io.quarkus.qute.TemplateInstance;
 public class Game extends Controller {
     @CheckedTemplate
     public static class Templates {
-        public static native TemplateInstance index(List<GameState> games);
+        public static native TemplateInstance index(GameSummary.Page page);
 
         public static native TemplateInstance create(List<String> adventures);
     }
@@ -33,13 +35,21 @@ public class Game extends Controller {
     @Inject
     LoreRepository loreRepository;
 
+    static final int PAGE_SIZE = 24;
+
     /**
-     * Landing page - show all games with option to create new.
+     * Landing page - show games (most recently played first) with option to create new.
+     *
+     * @param cursor Cursor for older games (from the previous page)
      */
     @GET
     @Path("/")
-    public TemplateInstance index() {
-        return Templates.index(gameRepository.listGames());
+    public TemplateInstance index(@RestQuery String cursor) {
+        try {
+            return Templates.index(gameRepository.listGames(cursor, PAGE_SIZE));
+        } catch (IllegalArgumentException e) {
+            return Templates.index(gameRepository.listGames(null, PAGE_SIZE));
+        }
     }
 
     @GET
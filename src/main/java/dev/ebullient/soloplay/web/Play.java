@@ -20,7 +20,7 @@ public class Play extends Controller {
     @Path("/play")
     public TemplateInstance index() {
         // redirect to game
-        return redirect(Game.class).index();
+        return redirect(Game.class).index(null);
     }
 
     /**
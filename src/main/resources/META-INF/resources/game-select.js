@@ -0,0 +1,106 @@
+/**
+ * Game selector shared by the Inspect and Party pages.
+ *
+ * GET /api/game is paged (most recently played first, with a Link rel="next"
+ * header when there are more games). The first page is loaded up front; an
+ * "Older games…" entry at the end of the list loads the next page on demand.
+ */
+
+class GameSelect {
+    static MORE = '__more__';
+
+    /**
+     * @param select The <select> element
+     * @param options.placeholder Label of the empty option
+     * @param options.onChange Called with the selected gameId ('' for the placeholder)
+     */
+    constructor(select, { placeholder, onChange }) {
+        this.select = select;
+        this.placeholder = placeholder;
+        this.onChange = onChange;
+        this.next = null;
+        this.previous = '';
+
+        this.select?.addEventListener('change', () => this.changed());
+    }
+
+    /**
+     * Load the first page of games.
+     */
+    async load() {
+        this.select.replaceChildren(this.option('', 'Loading…'));
+        this.next = '/api/game';
+        const games = await this.fetchPage();
+        this.select.replaceChildren(this.option('', this.placeholder));
+        this.append(games);
+    }
+
+    /**
+     * Select a game, adding it to the list if it is on a page that hasn't been loaded.
+     */
+    choose(gameId) {
+        if (!Array.from(this.select.options).some(o => o.value === gameId)) {
+            this.select.insertBefore(this.option(gameId, gameId), this.select.options[1] || null);
+        }
+        this.select.value = gameId;
+        this.previous = gameId;
+    }
+
+    firstGameId() {
+        const first = Array.from(this.select.options).find(o => o.value && o.value !== GameSelect.MORE);
+        return first ? first.value : null;
+    }
+
+    async changed() {
+        if (this.select.value !== GameSelect.MORE) {
+            this.previous = this.select.value;
+            this.onChange?.(this.select.value);
+            return;
+        }
+        // Keep the current selection while the next page loads
+        this.select.value = this.previous;
+        try {
+            this.append(await this.fetchPage());
+        } catch (e) {
+            console.error('Failed to load more games', e);
+        }
+    }
+
+    async fetchPage() {
+        const resp = await fetch(this.next, {
+            headers: { 'Accept': 'application/json' }
+        });
+        if (!resp.ok) {
+            const text = await resp.text().catch(() => '');
+            const suffix = text ? ` — ${text}` : '';
+            throw new Error(`HTTP ${resp.status} ${resp.statusText}${suffix}`);
+        }
+        const games = await resp.json();
+        this.next = this.nextLink(resp.headers.get('Link'));
+        return games || [];
+    }
+
+    append(games) {
+        this.select.querySelector(`option[value="${GameSelect.MORE}"]`)?.remove();
+        const known = new Set(Array.from(this.select.options).map(o => o.value));
+        games.filter(g => g.gameId && !known.has(g.gameId)).forEach(g => {
+            const label = g.adventureName ? `${g.gameId} — ${g.adventureName}` : g.gameId;
+            this.select.appendChild(this.option(g.gameId, label));
+        });
+        if (this.next) {
+            this.select.appendChild(this.option(GameSelect.MORE, 'Older games…'));
+        }
+    }
+
+    option(value, label) {
+        const option = document.createElement('option');
+        option.value = value;
+        option.textContent = label;
+        return option;
+    }
+
+    nextLink(header) {
+        const match = /<([^>]+)>\s*;\s*rel="?next"?/.exec(header || '');
+        return match ? match[1] : null;
+    }
+}
@@ -8,7 +8,15 @@ class InspectPage {
         this.storageKey = 'soloplay.gameId';
 
         this.root = document.querySelector('.inspect-controls');
-        this.gameSelect = document.getElementById('inspect-game-select');
+        this.gameSelect = new GameSelect(document.getElementById('inspect-game-select'), {
+            placeholder: 'Select a game…',
+            onChange: (gameId) => {
+                if (gameId) {
+                    this.setCurrentGame(gameId, { persist: true });
+                    this.refresh();
+                }
+            }
+        });
         this.useLocalBtn = document.getElementById('inspect-use-local');
         this.clearLocalBtn = document.getElementById('inspect-clear-local');
         this.refreshBtn = document.getElementById('inspect-refresh');
@@ -31,7 +39,7 @@ class InspectPage {
         const initialGameId = this.root?.dataset?.gameId || null;
         const savedGameId = localStorage.getItem(this.storageKey);
 
-        const preferred = initialGameId || savedGameId || this.firstGameIdFromSelect();
+        const preferred = initialGameId || savedGameId || this.gameSelect.firstGameId();
         if (preferred) {
             this.setCurrentGame(preferred, { persist: !!preferred });
             await this.refresh();
@@ -52,14 +60,6 @@ class InspectPage {
             }
         });
 
-        this.gameSelect?.addEventListener('change', () => {
-            const gameId = this.gameSelect.value || null;
-            if (gameId) {
-                this.setCurrentGame(gameId, { persist: true });
-                this.refresh();
-            }
-        });
-
         this.useLocalBtn?.addEventListener('click', async () => {
             const saved = localStorage.getItem(this.storageKey);
             if (saved) {
@@ -80,37 +80,18 @@ class InspectPage {
     }
 
     async loadGames() {
-        this.gameSelect.innerHTML = '<option value="">Loading…</option>';
         try {
-            const games = await this.fetchJson('/api/game');
-            const options = ['<option value="">Select a game…</option>']
-                .concat(
-                    (games || []).map(g => {
-                        const id = g.gameId || '';
-                        const label = g.adventureName ? `${id} — ${g.adventureName}` : id;
-                        return `<option value="${this.escapeAttr(id)}">${this.escapeHtml(label)}</option>`;
-                    })
-                )
-                .join('');
-            this.gameSelect.innerHTML = options;
+            await this.gameSelect.load();
         } catch (e) {
             console.error('Failed to load games', e);
-            this.gameSelect.innerHTML = '<option value="">Error loading games</option>';
+            this.gameSelect.select.innerHTML = '<option value="">Error loading games</option>';
             this.setStatus(`Error loading games: ${e.message}`, 'error');
         }
     }
 
-    firstGameIdFromSelect() {
-        const opts = Array.from(this.gameSelect?.options || []);
-        const first = opts.find(o => o.value);
-        return first ? first.value : null;
-    }
-
     setCurrentGame(gameId, { persist }) {
         this.selectedGameId = gameId;
-        if (this.gameSelect) {
-            this.gameSelect.value = gameId;
-        }
+        this.gameSelect.choose(gameId);
         if (persist) {
             localStorage.setItem(this.storageKey, gameId);
         }
@@ -248,19 +229,6 @@ class InspectPage {
             this.setStatus('Copy failed.', 'error');
         }
     }
-
-    escapeHtml(value) {
-        return String(value)
-            .replaceAll('&', '&amp;')
-            .replaceAll('<', '&lt;')
-            .replaceAll('>', '&gt;')
-            .replaceAll('"', '&quot;')
-            .replaceAll("'", '&#39;');
-    }
-
-    escapeAttr(value) {
-        return this.escapeHtml(value).replaceAll('`', '&#96;');
-    }
 }
 
 if (document.readyState === 'loading') {
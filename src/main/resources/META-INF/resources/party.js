@@ -8,7 +8,17 @@ class PartyPage {
         this.storageKey = 'soloplay.gameId';
 
         this.root = document.querySelector('.party-controls');
-        this.gameSelect = document.getElementById('party-game-select');
+        this.gameSelect = new GameSelect(document.getElementById('party-game-select'), {
+            placeholder: 'Select a game...',
+            onChange: (gameId) => {
+                if (gameId) {
+                    localStorage.setItem(this.storageKey, gameId);
+                    window.location.href = `/party/${encodeURIComponent(gameId)}`;
+                } else {
+                    window.location.href = '/party';
+                }
+            }
+        });
 
         this.init();
     }
@@ -21,67 +31,23 @@ class PartyPage {
 
         // If we have a game in the URL, use that
         if (initialGameId) {
-            this.gameSelect.value = initialGameId;
+            this.gameSelect.choose(initialGameId);
             localStorage.setItem(this.storageKey, initialGameId);
         } else if (savedGameId) {
             // Redirect to saved game
-            this.gameSelect.value = savedGameId;
+            this.gameSelect.choose(savedGameId);
             window.location.href = `/party/${encodeURIComponent(savedGameId)}`;
         }
-
-        this.bindEvents();
-    }
-
-    bindEvents() {
-        this.gameSelect?.addEventListener('change', () => {
-            const gameId = this.gameSelect.value;
-            if (gameId) {
-                localStorage.setItem(this.storageKey, gameId);
-                window.location.href = `/party/${encodeURIComponent(gameId)}`;
-            } else {
-                window.location.href = '/party';
-            }
-        });
     }
 
     async loadGames() {
-        this.gameSelect.innerHTML = '<option value="">Loading...</option>';
         try {
-            const resp = await fetch('/api/game', {
-                headers: { 'Accept': 'application/json' }
-            });
-            if (!resp.ok) {
-                throw new Error(`HTTP ${resp.status}`);
-            }
-            const games = await resp.json();
-            const options = ['<option value="">Select a game...</option>']
-                .concat(
-                    (games || []).map(g => {
-                        const id = g.gameId || '';
-                        const label = g.adventureName ? `${id} — ${g.adventureName}` : id;
-                        return `<option value="${this.escapeAttr(id)}">${this.escapeHtml(label)}</option>`;
-                    })
-                )
-                .join('');
-            this.gameSelect.innerHTML = options;
+            await this.gameSelect.load();
         } catch (e) {
             console.error('Failed to load games', e);
-            this.gameSelect.innerHTML = '<option value="">Error loading games</option>';
+            this.gameSelect.select.innerHTML = '<option value="">Error loading games</option>';
         }
     }
-
-    escapeHtml(value) {
-        return String(value)
-            .replaceAll('&', '&amp;')
-            .replaceAll('<', '&lt;')
-            .replaceAll('>', '&gt;')
-            .replaceAll('"', '&quot;')
-            .replaceAll("'", '&#39;');
-    }
-
-    escapeAttr(value) {
-        return this.escapeHtml(value).replaceAll('`', '&#96;');
-    }
 }
 
 if (document.readyState === 'loading') {
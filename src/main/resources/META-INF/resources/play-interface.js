@@ -25,6 +25,10 @@ class PlayInterface {
         this.currentMessageId = null;
         this.streamingBuffers = new Map();
         this.historyLoaded = false;
+        // Highest history sequence number seen; used to catch up after a reconnect
+        this.lastSeq = null;
+        // True if the server has no active play for this game (send /start for a recap)
+        this.resume = false;
 
         // Latest drafts/state pushed from server
         this.drafts = {};
@@ -47,6 +51,13 @@ class PlayInterface {
                 this.sendMessage();
             }
         });
+
+        // Escape stops the turn that is currently being generated
+        document.addEventListener('keydown', (e) => {
+            if (e.key === 'Escape' && this.currentMessageId) {
+                this.cancelGeneration();
+            }
+        });
     }
 
     // ===== WebSocket Connection =====
@@ -137,6 +148,7 @@ class PlayInterface {
             case 'session':
                 console.log('Session established:', message.gameId);
                 this.sessionId = message.sessionId;
+                this.resume = !!message.resume;
                 if (message.gameId && message.gameId !== this.gameId) {
                     this.gameId = message.gameId;
                     localStorage.setItem('soloplay.gameId', this.gameId);
@@ -146,10 +158,11 @@ class PlayInterface {
                 break;
 
             case 'history':
-                this.handleHistory(message.messages);
+                this.handleHistory(message.messages, message.more);
                 break;
 
             case 'user_echo':
+                this.trackSeq(message.seq);
                 this.handleUserEcho(message.senderSessionId, message.text);
                 break;
 
@@ -162,6 +175,7 @@ class PlayInterface {
                 break;
 
             case 'assistant_done':
+                this.trackSeq(message.seq);
                 this.handleAssistantDone(message.id, message.markdown, message.html);
                 break;
 
@@ -169,6 +183,10 @@ class PlayInterface {
                 this.handleHtmlFragment(message.id, message.message);
                 break;
 
+            case 'queue_status':
+                this.handleQueueStatus(message.depth, message.oldestWaitMillis);
+                break;
+
             case 'error':
                 this.handleError(message.id, message.message);
                 break;
@@ -195,28 +213,46 @@ class PlayInterface {
         return null;
     }
 
+    /**
+     * Request the latest page of history, or (after a reconnect) only the
+     * messages missed since the last one seen.
+     */
     requestHistory() {
         if (this.ws && this.ws.readyState === WebSocket.OPEN) {
-            this.ws.send(JSON.stringify({
-                type: 'history_request',
-                limit: 50
-            }));
+            const request = { type: 'history_request', limit: 50 };
+            if (this.historyLoaded && this.lastSeq !== null) {
+                request.after = this.lastSeq;
+            }
+            this.ws.send(JSON.stringify(request));
+        }
+    }
+
+    trackSeq(seq) {
+        if (seq !== null && seq !== undefined && (this.lastSeq === null || seq > this.lastSeq)) {
+            this.lastSeq = seq;
         }
     }
 
-    handleHistory(messages) {
+    handleHistory(messages, more) {
         console.log('Received history:', messages?.length, 'messages');
 
-        // Only apply history once, and never wipe already-rendered real-time messages.
-        // History can arrive after other broadcast messages (e.g., when another tab is generating).
-        if (this.historyLoaded || this.messagesContainer.childElementCount > 0) {
-            this.historyLoaded = true;
+        if (this.historyLoaded) {
+            // Reconnect: append only what was missed while disconnected
+            const missed = (messages || []).filter(msg => this.lastSeq === null || msg.seq > this.lastSeq);
+            this.renderHistory(missed);
+            if (more) {
+                this.requestHistory();
+            }
             return;
         }
         this.historyLoaded = true;
 
-        // Clear existing messages
-        this.messagesContainer.innerHTML = '';
+        // Never wipe already-rendered real-time messages.
+        // History can arrive after other broadcast messages (e.g., when another tab is generating).
+        if (this.messagesContainer.childElementCount > 0) {
+            (messages || []).forEach(msg => this.trackSeq(msg.seq));
+            return;
+        }
 
         if (!messages || messages.length === 0) {
             // Fresh start - show appropriate message
@@ -224,8 +260,18 @@ class PlayInterface {
             return;
         }
 
-        // Restore messages from history
+        this.renderHistory(messages);
+
+        if (this.resume) {
+            // Nobody is playing this game right now: ask the GM for a recap
+            this.resume = false;
+            this.sendMessage('/start');
+        }
+    }
+
+    renderHistory(messages) {
         messages.forEach(msg => {
+            this.trackSeq(msg.seq);
             if (msg.role === 'user') {
                 this.addUserMessage(msg.markdown);
             } else {
@@ -250,9 +296,26 @@ class PlayInterface {
         // Message from another tab/user - display it
         console.debug('User echo from another connection:', text);
         this.addUserMessage(text);
+    }
 
-        // Disable input since generation is starting from another tab
-        this.setInputEnabled(false);
+    /**
+     * Handle queue_status - messages waiting for the current turn to finish.
+     * Input stays enabled: the server queues messages and processes them in order.
+     */
+    handleQueueStatus(depth, oldestWaitMillis) {
+        let status = document.getElementById('queue-status');
+        if (!depth) {
+            status?.remove();
+            return;
+        }
+        if (!status) {
+            status = this.addSystemMessage('');
+            status.id = 'queue-status';
+        }
+        const waited = Math.round((oldestWaitMillis ?? 0) / 1000);
+        status.textContent = `${depth} message${depth === 1 ? '' : 's'} queued (waiting ${waited}s)`;
+        this.messagesContainer.appendChild(status); // keep it last
+        this.scrollToBottom();
     }
 
     handleAssistantStart(messageId) {
@@ -392,6 +455,12 @@ class PlayInterface {
         this.messageInput.style.height = this.messageInput.scrollHeight + 'px';
     }
 
+    cancelGeneration() {
+        if (this.ws && this.ws.readyState === WebSocket.OPEN) {
+            this.ws.send(JSON.stringify({ type: 'cancel' }));
+        }
+    }
+
     sendMessage(message = '') {
         message = message || this.messageInput.value.trim();
         if (!message) return;
@@ -407,9 +476,6 @@ class PlayInterface {
             return;
         }
 
-        // Disable input while processing
-        this.setInputEnabled(false);
-
         // Add user message to chat immediately (optimistic UI)
         this.addUserMessage(message);
 
@@ -1,5 +1,5 @@
-// Neo4j schema setup (indexes/constraints)
-// Run these commands in Neo4j Browser or via cypher-shell.
+// Baseline schema (indexes/constraints).
+// Applied automatically at startup by SchemaManager; statements must be idempotent.
 
 // ===== RAG Document Indexes =====
 
@@ -77,9 +77,3 @@ FOR (e:Event) ON (e.gameId, e.turnNumber);
 
 CREATE INDEX event_tags IF NOT EXISTS
 FOR (e:Event) ON (e.tags);
-
-// To verify indexes were created
-SHOW INDEXES;
-
-// To check index usage in queries
-// PROFILE MATCH (d:Document) WHERE d.filename = 'test.md' RETURN d.text ORDER BY d.sectionIndex, d.chunkIndex
@@ -0,0 +1,13 @@
+// The baseline indexed `nameNormalized`, but entities persist `normalizedName`.
+// Replace the unused indexes so name lookups can use an index seek.
+
+DROP INDEX actor_name_normalized IF EXISTS;
+
+DROP INDEX location_name_normalized IF EXISTS;
+
+CREATE INDEX actor_normalized_name IF NOT EXISTS
+FOR (a:Actor) ON (a.normalizedName);
+
+CREATE INDEX location_normalized_name IF NOT EXISTS
+FOR (l:Location) ON (l.normalizedName);
+
@@ -0,0 +1,40 @@
+// Tags are modeled as (:Tag {gameId, name}) nodes with [:TAGGED] relationships,
+// so tag lookups seek on Tag instead of filtering list properties.
+
+CREATE CONSTRAINT tag_game_id_name_unique IF NOT EXISTS
+FOR (t:Tag) REQUIRE (t.gameId, t.name) IS UNIQUE;
+
+// Backfill from the tags property (kept on the entity for display)
+MATCH (a:Actor)
+WHERE a.tags IS NOT NULL
+CALL {
+  WITH a
+  UNWIND a.tags AS tag
+  MERGE (t:Tag {gameId: a.gameId, name: tag})
+  MERGE (a)-[:TAGGED]->(t)
+} IN TRANSACTIONS OF 500 ROWS;
+
+MATCH (l:Location)
+WHERE l.tags IS NOT NULL
+CALL {
+  WITH l
+  UNWIND l.tags AS tag
+  MERGE (t:Tag {gameId: l.gameId, name: tag})
+  MERGE (l)-[:TAGGED]->(t)
+} IN TRANSACTIONS OF 500 ROWS;
+
+MATCH (e:Event)
+WHERE e.tags IS NOT NULL
+CALL {
+  WITH e
+  UNWIND e.tags AS tag
+  MERGE (t:Tag {gameId: e.gameId, name: tag})
+  MERGE (e)-[:TAGGED]->(t)
+} IN TRANSACTIONS OF 500 ROWS;
+
+// List-property indexes can't serve `$tag IN n.tags`; they only add write cost
+DROP INDEX actor_tags IF EXISTS;
+
+DROP INDEX location_tags IF EXISTS;
+
+DROP INDEX event_tags IF EXISTS;
@@ -0,0 +1,5 @@
+// Play history: an append-only log of (:PlayMessage {gameId, seq}) per game.
+// The composite constraint also backs paging by sequence number.
+
+CREATE CONSTRAINT play_message_game_id_seq_unique IF NOT EXISTS
+FOR (m:PlayMessage) REQUIRE (m.gameId, m.seq) IS UNIQUE;
@@ -0,0 +1,5 @@
+// Game leases: which server instance may run turns for a game
+// (Neo4jGameOwnership, when running several instances against one database).
+
+CREATE CONSTRAINT game_lease_game_id_unique IF NOT EXISTS
+FOR (l:GameLease) REQUIRE l.gameId IS UNIQUE;
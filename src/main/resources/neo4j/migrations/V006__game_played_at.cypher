@@ -0,0 +1,10 @@
+// Game listings page by last played (falling back to creation time).
+// Store that sort key on the node so paging can seek a range index instead of
+// computing it for every game.
+
+MATCH (g:Game)
+WHERE g.playedAt IS NULL
+SET g.playedAt = coalesce(g.lastPlayedAt, g.createdAt, 0);
+
+CREATE RANGE INDEX game_played_at IF NOT EXISTS
+FOR (g:Game) ON (g.playedAt);
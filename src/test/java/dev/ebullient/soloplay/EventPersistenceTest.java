@@ -18,6 +18,7 @@ import dev.ebullient.soloplay.play.model.Actor;
 import dev.ebullient.soloplay.play.model.Event;
 import dev.ebullient.soloplay.play.model.Location;
 import dev.ebullient.soloplay.play.model.Patch;
+import dev.ebullient.soloplay.play.model.PendingRoll;
 import io.quarkus.test.junit.QuarkusTest;
 
 @QuarkusTest
@@ -91,4 +92,48 @@ public class EventPersistenceTest {
         assertNotNull(gameRepository.findLocationByNameOrAlias(gameId, "the rusty anchor"));
         assertNotNull(gameRepository.findActorByNameOrAlias(gameId, "krux"));
     }
+
+    @Test
+    void tagQueriesFollowTagChanges() {
+        gameRepository.createGame(gameId, "Test Adventure");
+
+        Actor actor = new Actor(gameId, new Patch(
+                "actor",
+                "Krux",
+                "An astral elf",
+                null,
+                List.of("Pirate"),
+                List.of(),
+                List.of()));
+        gameRepository.saveAll(List.of(actor));
+
+        assertEquals(1, gameRepository.findActorsByTag(gameId, "pirate").size());
+        assertTrue(gameRepository.findTheParty(gameId).isEmpty());
+
+        actor.addTag("party");
+        actor.removeTag("pirate");
+        gameRepository.saveAll(List.of(actor));
+
+        assertTrue(gameRepository.findActorsByTag(gameId, "pirate").isEmpty());
+        assertEquals(1, gameRepository.findActorsByTag(gameId, "party").size());
+        assertEquals(1, gameRepository.findTheParty(gameId).size(),
+                "party cache should be invalidated when actors are saved");
+    }
+
+    @Test
+    void stashIsPersistedWithTheGame() {
+        var game = gameRepository.createGame(gameId, "Test Adventure");
+        PendingRoll roll = new PendingRoll("skill_check", "stealth", "dexterity", 12, null, "Sneak past the guard");
+        game.putStash("pending_roll", roll);
+        game.putStash("prev_event", new Event(gameId, 1, "Not saved with the game"));
+        gameRepository.saveGame(game);
+
+        var loaded = gameRepository.findGameById(gameId);
+        assertEquals(roll, loaded.getStash("pending_roll", PendingRoll.class));
+        assertNull(loaded.getStash("prev_event", Event.class), "entities are not part of the saved stash");
+
+        loaded.removeStash("pending_roll");
+        gameRepository.saveGame(loaded);
+        assertNull(gameRepository.findGameById(gameId).getStash("pending_roll", PendingRoll.class));
+    }
 }
@@ -0,0 +1,39 @@
+package dev.ebullient.soloplay;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class GameWriteBehindTest {
+
+    @Test
+    void failureIsReportedUntilReset() {
+        GameWriteBehind writeBehind = new GameWriteBehind();
+        writeBehind.enabled = true;
+        writeBehind.flushTimeout = Duration.ofSeconds(5);
+        try {
+            writeBehind.submit("game", "turn 1", () -> {
+                throw new IllegalStateException("connection refused");
+            });
+            writeBehind.submit("game", "turn 2", () -> {
+            });
+
+            // A later successful write does not clear the failure
+            assertThrows(IllegalStateException.class, () -> writeBehind.await("game"));
+            assertThrows(IllegalStateException.class, () -> writeBehind.await("game"));
+
+            // drain logs the failure, and the game stays marked
+            assertDoesNotThrow(() -> writeBehind.drain("game"));
+            assertThrows(IllegalStateException.class, () -> writeBehind.await("game"));
+
+            // Reloaded from Neo4j
+            writeBehind.reset("game");
+            assertDoesNotThrow(() -> writeBehind.await("game"));
+        } finally {
+            writeBehind.shutdown();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package dev.ebullient.soloplay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.websockets.next.BasicWebSocketConnector;
+import io.quarkus.websockets.next.WebSocketClientConnection;
+
+/**
+ * A turn played through the WebSocket with the real game engine: the turn runs on the
+ * mailbox's own thread, and the (session-scoped) assistant answers from a stub Ollama.
+ */
+@QuarkusTest
+@QuarkusTestResource(value = PlayTurnTest.StubOllama.class, restrictToAnnotatedClass = true)
+class PlayTurnTest {
+    final static String gameId = "PlayTurnTest";
+    final static String REPLY = "Welcome, adventurer! Who would you like to play?";
+
+    @TestHTTPResource("/")
+    URI baseUri;
+
+    @Inject
+    BasicWebSocketConnector connector;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    GameRepository gameRepository;
+
+    @BeforeEach
+    void createGame() {
+        gameRepository.deleteGame(gameId);
+        gameRepository.createGame(gameId, "Test Adventure");
+    }
+
+    @AfterEach
+    void deleteGame() {
+        gameRepository.deleteGame(gameId);
+    }
+
+    @Test
+    void turnRunsTheEngineWithTheConnectionContext() throws Exception {
+        CountDownLatch sessionLatch = new CountDownLatch(1);
+        CountDownLatch endLatch = new CountDownLatch(1);
+        List<String> errors = new CopyOnWriteArrayList<>();
+        AtomicReference<String> markdown = new AtomicReference<>();
+
+        WebSocketClientConnection connection = connector
+                .baseUri(baseUri.resolve("/ws/play/" + gameId).toString().replace("http", "ws"))
+                .onTextMessage((c, msg) -> {
+                    try {
+                        JsonNode json = objectMapper.readTree(msg);
+                        switch (json.get("type").asText()) {
+                            case "session" -> sessionLatch.countDown();
+                            case "assistant_done" -> {
+                                markdown.set(json.get("markdown").asText());
+                                endLatch.countDown();
+                            }
+                            case "error" -> {
+                                errors.add(json.get("message").asText());
+                                endLatch.countDown();
+                            }
+                            default -> {
+                            }
+                        }
+                    } catch (Exception e) {
+                        // ignore
+                    }
+                })
+                .connectAndAwait();
+
+        try {
+            assertTrue(sessionLatch.await(5, TimeUnit.SECONDS), "Should receive session message");
+
+            connection.sendTextAndAwait("{\"type\":\"user_message\",\"text\":\"I'd like to play a dwarf\"}");
+
+            assertTrue(endLatch.await(30, TimeUnit.SECONDS), "Should finish the turn");
+            assertEquals(List.of(), errors);
+            assertTrue(markdown.get().contains(REPLY), markdown.get());
+        } finally {
+            connection.closeAndAwait();
+        }
+    }
+
+    /**
+     * Answers every chat with a character creation reply, and every embedding request
+     * with a constant vector.
+     */
+    public static class StubOllama implements QuarkusTestResourceLifecycleManager {
+        HttpServer server;
+
+        @Override
+        public Map<String, String> start() {
+            ObjectMapper mapper = new ObjectMapper();
+            try {
+                server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+                String content = mapper.writeValueAsString(Map.of("message", REPLY));
+                String chat = mapper.writeValueAsString(Map.of(
+                        "model", "test",
+                        "message", Map.of("role", "assistant", "content", content),
+                        "done", true)) + "\n";
+                server.createContext("/api/chat", exchange -> respond(exchange, "application/x-ndjson", chat));
+
+                float[] vector = new float[768];
+                Arrays.fill(vector, 0.1f);
+                String embed = mapper.writeValueAsString(Map.of("embeddings", List.of(vector)));
+                server.createContext("/api/embed", exchange -> respond(exchange, "application/json", embed));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            server.start();
+            return Map.of("quarkus.langchain4j.ollama.base-url",
+                    "http://localhost:" + server.getAddress().getPort());
+        }
+
+        @Override
+        public void stop() {
+            if (server != null) {
+                server.stop(0);
+            }
+        }
+
+        static void respond(HttpExchange exchange, String contentType, String body) throws IOException {
+            exchange.getRequestBody().readAllBytes();
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", contentType);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
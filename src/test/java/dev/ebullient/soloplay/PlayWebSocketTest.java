@@ -207,6 +207,190 @@ class PlayWebSocketTest {
         }
     }
 
+    @Test
+    void testHistoryRequestAnsweredWhileTurnRuns() throws Exception {
+        CountDownLatch turnStarted = new CountDownLatch(1);
+        CountDownLatch finishTurn = new CountDownLatch(1);
+        Mockito.when(mockGameEngine.processRequest(Mockito.any(), Mockito.anyString(), Mockito.any(), Mockito.anyBoolean()))
+                .thenAnswer(invocation -> {
+                    turnStarted.countDown();
+                    finishTurn.await(10, TimeUnit.SECONDS);
+                    return GameResponse.reply("test");
+                });
+
+        CountDownLatch sessionLatch = new CountDownLatch(1);
+        CountDownLatch historyLatch = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(1);
+
+        String gameId = "test-game-" + UUID.randomUUID();
+        WebSocketClientConnection connection = connector
+                .baseUri(wsUri(gameId))
+                .onTextMessage((c, msg) -> {
+                    try {
+                        String type = objectMapper.readTree(msg).get("type").asText();
+                        switch (type) {
+                            case "session" -> sessionLatch.countDown();
+                            case "history" -> historyLatch.countDown();
+                            case "assistant_done" -> doneLatch.countDown();
+                            default -> {
+                            }
+                        }
+                    } catch (Exception e) {
+                        // ignore
+                    }
+                })
+                .connectAndAwait();
+
+        try {
+            assertTrue(sessionLatch.await(5, TimeUnit.SECONDS), "Should receive session message");
+
+            connection.sendTextAndAwait("{\"type\":\"user_message\",\"text\":\"hello\"}");
+            assertTrue(turnStarted.await(5, TimeUnit.SECONDS), "Turn should start");
+
+            // Same connection, while its turn is still running
+            connection.sendTextAndAwait("{\"type\":\"history_request\",\"limit\":100}");
+            assertTrue(historyLatch.await(5, TimeUnit.SECONDS), "History should not wait for the turn");
+
+            finishTurn.countDown();
+            assertTrue(doneLatch.await(5, TimeUnit.SECONDS), "Should receive assistant_done");
+        } finally {
+            finishTurn.countDown();
+            connection.closeAndAwait();
+        }
+    }
+
+    @Test
+    void testCancelFromConnectionRunningTheTurn() throws Exception {
+        CountDownLatch turnStarted = new CountDownLatch(1);
+        Mockito.when(mockGameEngine.processRequest(Mockito.any(), Mockito.anyString(), Mockito.any(), Mockito.anyBoolean()))
+                .thenAnswer(invocation -> {
+                    var emitter = (dev.ebullient.soloplay.play.GameEventEmitter) invocation.getArgument(2);
+                    turnStarted.countDown();
+                    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                    while (!emitter.cancellation().isCancelled() && System.nanoTime() < deadline) {
+                        Thread.sleep(10);
+                    }
+                    return emitter.cancellation().isCancelled()
+                            ? GameResponse.error("Turn cancelled.")
+                            : GameResponse.reply("not cancelled");
+                });
+
+        CountDownLatch sessionLatch = new CountDownLatch(1);
+        CountDownLatch endLatch = new CountDownLatch(1);
+        AtomicReference<String> ending = new AtomicReference<>();
+
+        String gameId = "test-game-" + UUID.randomUUID();
+        WebSocketClientConnection connection = connector
+                .baseUri(wsUri(gameId))
+                .onTextMessage((c, msg) -> {
+                    try {
+                        JsonNode json = objectMapper.readTree(msg);
+                        String type = json.get("type").asText();
+                        if ("session".equals(type)) {
+                            sessionLatch.countDown();
+                        } else if ("error".equals(type) || "assistant_done".equals(type)) {
+                            ending.set(msg);
+                            endLatch.countDown();
+                        }
+                    } catch (Exception e) {
+                        // ignore
+                    }
+                })
+                .connectAndAwait();
+
+        try {
+            assertTrue(sessionLatch.await(5, TimeUnit.SECONDS), "Should receive session message");
+
+            connection.sendTextAndAwait("{\"type\":\"user_message\",\"text\":\"hello\"}");
+            assertTrue(turnStarted.await(5, TimeUnit.SECONDS), "Turn should start");
+
+            // Escape in the client: cancel is sent on the connection running the turn
+            connection.sendTextAndAwait("{\"type\":\"cancel\"}");
+            assertTrue(endLatch.await(5, TimeUnit.SECONDS), "Turn should end");
+
+            JsonNode json = objectMapper.readTree(ending.get());
+            assertEquals("error", json.get("type").asText());
+            assertEquals("Turn cancelled.", json.get("message").asText());
+        } finally {
+            connection.closeAndAwait();
+        }
+    }
+
+    @Test
+    void testCancelFromAnotherConnectionIsRefused() throws Exception {
+        CountDownLatch turnStarted = new CountDownLatch(1);
+        CountDownLatch finishTurn = new CountDownLatch(1);
+        Mockito.when(mockGameEngine.processRequest(Mockito.any(), Mockito.anyString(), Mockito.any(), Mockito.anyBoolean()))
+                .thenAnswer(invocation -> {
+                    var emitter = (dev.ebullient.soloplay.play.GameEventEmitter) invocation.getArgument(2);
+                    turnStarted.countDown();
+                    finishTurn.await(10, TimeUnit.SECONDS);
+                    return emitter.cancellation().isCancelled()
+                            ? GameResponse.error("Turn cancelled.")
+                            : GameResponse.reply("not cancelled");
+                });
+
+        String gameId = "test-game-" + UUID.randomUUID();
+        CountDownLatch playerSession = new CountDownLatch(1);
+        CountDownLatch doneLatch = new CountDownLatch(1);
+        AtomicReference<String> ending = new AtomicReference<>();
+        WebSocketClientConnection player = connector
+                .baseUri(wsUri(gameId))
+                .onTextMessage((c, msg) -> {
+                    try {
+                        JsonNode json = objectMapper.readTree(msg);
+                        String type = json.get("type").asText();
+                        if ("session".equals(type)) {
+                            playerSession.countDown();
+                        } else if ("assistant_done".equals(type) || "error".equals(type)) {
+                            ending.set(msg);
+                            doneLatch.countDown();
+                        }
+                    } catch (Exception e) {
+                        // ignore
+                    }
+                })
+                .connectAndAwait();
+
+        CountDownLatch watcherSession = new CountDownLatch(1);
+        CountDownLatch refused = new CountDownLatch(1);
+        WebSocketClientConnection watcher = connector
+                .baseUri(wsUri(gameId))
+                .onTextMessage((c, msg) -> {
+                    try {
+                        JsonNode json = objectMapper.readTree(msg);
+                        String type = json.get("type").asText();
+                        if ("session".equals(type)) {
+                            watcherSession.countDown();
+                        } else if ("error".equals(type) && !json.has("id")) {
+                            refused.countDown();
+                        }
+                    } catch (Exception e) {
+                        // ignore
+                    }
+                })
+                .connectAndAwait();
+
+        try {
+            assertTrue(playerSession.await(5, TimeUnit.SECONDS), "Should receive session message");
+            assertTrue(watcherSession.await(5, TimeUnit.SECONDS), "Should receive session message");
+
+            player.sendTextAndAwait("{\"type\":\"user_message\",\"text\":\"hello\"}");
+            assertTrue(turnStarted.await(5, TimeUnit.SECONDS), "Turn should start");
+
+            watcher.sendTextAndAwait("{\"type\":\"cancel\"}");
+            assertTrue(refused.await(5, TimeUnit.SECONDS), "Cancel from another connection should be refused");
+
+            finishTurn.countDown();
+            assertTrue(doneLatch.await(5, TimeUnit.SECONDS), "Turn should end");
+            assertEquals("assistant_done", objectMapper.readTree(ending.get()).get("type").asText());
+        } finally {
+            finishTurn.countDown();
+            watcher.closeAndAwait();
+            player.closeAndAwait();
+        }
+    }
+
     private URI wsUri(String gameId) {
         return baseUri.resolve("ws/play/" + gameId);
     }
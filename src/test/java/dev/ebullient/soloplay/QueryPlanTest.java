@@ -0,0 +1,131 @@
+package dev.ebullient.soloplay;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.inject.Inject;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.summary.Plan;
+
+import dev.ebullient.soloplay.ai.LoreRetriever;
+import io.quarkus.test.junit.QuarkusTest;
+
+/**
+ * EXPLAIN the hot queries and fail if a plan stops using an index
+ * (e.g. a property was renamed, or an index was dropped from the migrations).
+ */
+@QuarkusTest
+public class QueryPlanTest {
+    static final List<String> SCANS = List.of("AllNodesScan", "NodeByLabelScan");
+
+    @Inject
+    Driver driver;
+
+    @Inject
+    SchemaManager schemaManager;
+
+    @ConfigProperty(name = "quarkus.langchain4j.neo4j.index-name", defaultValue = "document-index")
+    String indexName;
+
+    @ConfigProperty(name = "quarkus.langchain4j.neo4j.dimension")
+    int dimension;
+
+    @BeforeEach
+    void awaitIndexes() {
+        schemaManager.migrate();
+        schemaManager.verifyVectorIndex();
+        try (var session = driver.session()) {
+            session.run("CALL db.awaitIndexes(60)").consume();
+        }
+    }
+
+    @Test
+    void gameQueriesUseIndexes() {
+        Map<String, Object> gameId = Map.of("gameId", "g");
+        Map<String, Object> byName = Map.of("gameId", "g", "name", "n");
+        Map<String, Object> byTag = Map.of("gameId", "g", "tag", "t");
+
+        assertUsesIndex("FIND_GAME", GameRepository.FIND_GAME, gameId);
+        assertUsesIndex("GET_OR_CREATE_GAME", GameRepository.GET_OR_CREATE_GAME,
+                Map.of("gameId", "g", "gamePhase", "CHARACTER_CREATION"));
+        assertUsesIndex("LIST_GAME_SUMMARIES", GameRepository.LIST_GAME_SUMMARIES,
+                Map.of("afterPlayedAt", Long.MAX_VALUE, "afterGameId", "", "limit", 51));
+        assertUsesIndex("FIND_PARTY", GameRepository.FIND_PARTY, gameId);
+        assertUsesIndex("LIST_PLAYER_ACTORS", GameRepository.LIST_PLAYER_ACTORS, gameId);
+        assertUsesIndex("FIND_PLAYER_ACTOR_BY_NAME", GameRepository.FIND_PLAYER_ACTOR_BY_NAME, byName);
+        assertUsesIndex("LIST_ACTORS", GameRepository.LIST_ACTORS, gameId);
+        assertUsesIndex("FIND_ACTOR_BY_NAME", GameRepository.FIND_ACTOR_BY_NAME, byName);
+        assertUsesIndex("FIND_ACTORS_BY_TAG", GameRepository.FIND_ACTORS_BY_TAG, byTag);
+        assertUsesIndex("LIST_LOCATIONS", GameRepository.LIST_LOCATIONS, gameId);
+        assertUsesIndex("FIND_LOCATION_BY_NAME", GameRepository.FIND_LOCATION_BY_NAME, byName);
+        assertUsesIndex("FIND_LOCATIONS_BY_TAG", GameRepository.FIND_LOCATIONS_BY_TAG, byTag);
+        assertUsesIndex("LIST_EVENTS", GameRepository.LIST_EVENTS, gameId);
+        assertUsesIndex("FIND_EVENTS_BY_TAG", GameRepository.FIND_EVENTS_BY_TAG, byTag);
+        assertUsesIndex("FIND_LATEST_EVENT", GameRepository.FIND_LATEST_EVENT, gameId);
+        assertUsesIndex("FIND_MEMORY_SUMMARY", GameRepository.FIND_MEMORY_SUMMARY, byTag);
+        assertUsesIndex("LIST_PLAY_MESSAGES_BEFORE", GameRepository.LIST_PLAY_MESSAGES_BEFORE,
+                Map.of("gameId", "g", "before", 10L, "limit", 5));
+        assertUsesIndex("LIST_PLAY_MESSAGES_AFTER", GameRepository.LIST_PLAY_MESSAGES_AFTER,
+                Map.of("gameId", "g", "after", 10L, "limit", 5));
+    }
+
+    @Test
+    void loreQueriesUseIndexes() {
+        Map<String, Object> adventure = Map.of("adventureName", "a");
+
+        assertUsesIndex("DOCUMENT_BY_FILENAME", LoreRepository.DOCUMENT_BY_FILENAME, Map.of("filename", "f"));
+        assertUsesIndex("LIST_ADVENTURES", LoreRepository.LIST_ADVENTURES, Map.of());
+        assertUsesIndex("SEARCH_ADVENTURE_CONTENT", LoreRepository.SEARCH_ADVENTURE_CONTENT,
+                Map.of("adventureName", "a", "keyword", "k", "limit", 5));
+        assertUsesIndex("LIST_ADVENTURE_FILES", LoreRepository.LIST_ADVENTURE_FILES, adventure);
+        assertUsesIndex("LIST_ADVENTURE_CHAPTERS", LoreRepository.LIST_ADVENTURE_CHAPTERS, adventure);
+    }
+
+    @Test
+    void vectorQueriesUseIndexes() {
+        List<Double> embedding = Collections.nCopies(dimension, 0.1);
+        Map<String, Object> params = Map.of(
+                "indexName", indexName,
+                "embedding", embedding,
+                "maxResults", 5,
+                "minScore", 0.3,
+                "contentType", "monster");
+
+        assertUsesIndex("VECTOR_SEARCH", LoreRetriever.VECTOR_SEARCH, params);
+        assertUsesIndex("VECTOR_SEARCH_BY_CONTENT_TYPE", LoreRetriever.VECTOR_SEARCH_BY_CONTENT_TYPE, params);
+    }
+
+    void assertUsesIndex(String name, String cypher, Map<String, Object> params) {
+        Plan plan;
+        try (var session = driver.session()) {
+            plan = session.run("EXPLAIN " + cypher, params).consume().plan();
+        }
+        List<String> operators = new ArrayList<>();
+        collectOperators(plan, operators);
+
+        for (String operator : operators) {
+            assertFalse(SCANS.contains(operator),
+                    () -> "%s plan uses %s: %s".formatted(name, operator, operators));
+        }
+        assertTrue(operators.stream().anyMatch(o -> o.contains("Index") || o.equals("ProcedureCall")),
+                () -> "%s plan does not use an index: %s".formatted(name, operators));
+    }
+
+    void collectOperators(Plan plan, List<String> operators) {
+        String operator = plan.operatorType();
+        int at = operator.indexOf('@');
+        operators.add(at < 0 ? operator : operator.substring(0, at));
+        for (Plan child : plan.children()) {
+            collectOperators(child, operators);
+        }
+    }
+}
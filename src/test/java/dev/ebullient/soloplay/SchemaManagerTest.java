@@ -0,0 +1,40 @@
+package dev.ebullient.soloplay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SchemaManagerTest {
+
+    @Test
+    void statementsSplitOutsideLiteralsAndComments() {
+        List<String> statements = SchemaManager.Migration.parseStatements("""
+                // Leading comment; not a statement
+                MATCH (g:Game) WHERE g.note = 'a; b' SET g.other = "c;\\"d"; /* block;
+                comment */
+                CREATE INDEX `odd;name` IF NOT EXISTS FOR (g:Game) ON (g.note); // trailing; comment
+                """);
+
+        assertEquals(List.of(
+                "MATCH (g:Game) WHERE g.note = 'a; b' SET g.other = \"c;\\\"d\"",
+                "CREATE INDEX `odd;name` IF NOT EXISTS FOR (g:Game) ON (g.note)"),
+                statements);
+    }
+
+    @Test
+    void unterminatedLiteralIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SchemaManager.Migration.parseStatements("MATCH (n) WHERE n.name = 'open; RETURN n"));
+    }
+
+    @Test
+    void shippedMigrationsParse() {
+        for (SchemaManager.Migration migration : SchemaManager.migrations()) {
+            assertFalse(migration.statements().isEmpty(), migration.description());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package dev.ebullient.soloplay.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class IncrementalJsonParserTest {
+
+    static final String RESPONSE = """
+            {"turnSummary": "Aria enters the \\"Rusty Anchor\\".",
+             "patches": [{"type": "location", "name": "Rusty Anchor", "narration": "nested"}],
+             "narration": "Smoke curls\\nacross the room \\u2014 caf\\u00e9 regulars look up.",
+             "currentLocation": "Rusty Anchor"}
+            """;
+
+    static final String NARRATION = "Smoke curls\nacross the room — café regulars look up.";
+
+    @Test
+    void extractsFieldFromWholeResponse() {
+        List<String> emitted = new ArrayList<>();
+        IncrementalJsonParser parser = new IncrementalJsonParser("narration", emitted::add);
+        parser.accept(RESPONSE);
+
+        assertEquals(NARRATION, String.join("", emitted));
+        assertEquals(NARRATION, parser.text());
+        assertEquals(RESPONSE, parser.json());
+        assertTrue(parser.fieldComplete());
+    }
+
+    @Test
+    void extractsFieldFromSingleCharacterChunks() {
+        List<String> emitted = new ArrayList<>();
+        IncrementalJsonParser parser = new IncrementalJsonParser("narration", emitted::add);
+        for (int i = 0; i < RESPONSE.length(); i++) {
+            parser.accept(RESPONSE.substring(i, i + 1));
+        }
+
+        assertEquals(NARRATION, String.join("", emitted));
+        assertEquals(RESPONSE, parser.json());
+        assertTrue(emitted.size() > 1, "Narration should be emitted as it arrives");
+    }
+
+    @Test
+    void emitsBeforeResponseIsComplete() {
+        List<String> emitted = new ArrayList<>();
+        IncrementalJsonParser parser = new IncrementalJsonParser("narration", emitted::add);
+        parser.accept("{\"narr");
+        parser.accept("ation\": \"The door \\");
+        assertEquals("The door ", parser.text());
+
+        parser.accept("\"creaks");
+        assertEquals("The door \"creaks", parser.text());
+        assertFalse(parser.fieldComplete());
+
+        parser.accept("\", \"sources\": []}");
+        assertTrue(parser.fieldComplete());
+        assertEquals("The door \"creaks", String.join("", emitted));
+    }
+
+    @Test
+    void ignoresOtherFieldsAndMissingField() {
+        List<String> emitted = new ArrayList<>();
+        IncrementalJsonParser parser = new IncrementalJsonParser("narration", emitted::add);
+        parser.accept("{\"narrationX\": \"no\", \"notes\": {\"narration\": \"no\"}, \"narr\": \"no\"}");
+
+        assertTrue(emitted.isEmpty());
+        assertFalse(parser.streamed());
+        assertFalse(parser.fieldComplete());
+    }
+}
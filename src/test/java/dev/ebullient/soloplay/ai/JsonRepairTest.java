@@ -0,0 +1,44 @@
+package dev.ebullient.soloplay.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class JsonRepairTest {
+
+    @Test
+    void leavesValidJsonAlone() {
+        String json = "{\"narration\": \"ok\", \"sources\": []}";
+        assertEquals(json, JsonRepair.repair(json));
+    }
+
+    @Test
+    void stripsCodeFencesAndProse() {
+        assertEquals("{\"narration\": \"ok\"}",
+                JsonRepair.repair("```json\n{\"narration\": \"ok\"}\n```"));
+        assertEquals("{\"narration\": \"ok\"}",
+                JsonRepair.repair("Here is the response: {\"narration\": \"ok\"} Hope that helps!"));
+    }
+
+    @Test
+    void escapesControlCharactersInStrings() {
+        assertEquals("{\"narration\": \"line one\\nline two\\tend\"}",
+                JsonRepair.repair("{\"narration\": \"line one\nline two\tend\"}"));
+    }
+
+    @Test
+    void removesTrailingCommas() {
+        assertEquals("{\"sources\": [\"a.md\"]}",
+                JsonRepair.repair("{\"sources\": [\"a.md\",],}"));
+    }
+
+    @Test
+    void closesTruncatedResponse() {
+        assertEquals("{\"narration\": \"The door opens\"}",
+                JsonRepair.repair("{\"narration\": \"The door opens"));
+        assertEquals("{\"narration\": \"ok\", \"patches\": [{\"name\":null}]}",
+                JsonRepair.repair("{\"narration\": \"ok\", \"patches\": [{\"name\":"));
+        assertEquals("{\"narration\": \"ok\"}",
+                JsonRepair.repair("{\"narration\": \"ok\", "));
+    }
+}
@@ -0,0 +1,78 @@
+package dev.ebullient.soloplay.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.junit.jupiter.api.Test;
+
+class MarkdownAugmenterTest {
+
+    static final Parser PARSER = Parser.builder().build();
+    static final HtmlRenderer RENDERER = HtmlRenderer.builder().build();
+
+    static String whole(String markdown) {
+        return RENDERER.render(PARSER.parse(markdown));
+    }
+
+    @Test
+    void splitsAtBlankLinesBetweenBlocks() {
+        assertEquals(List.of("# The Crypt\n", "The door creaks open.\n", "- Enter\n- Flee\n"),
+                MarkdownAugmenter.blocks("# The Crypt\n\nThe door creaks open.\n\n- Enter\n- Flee\n"));
+    }
+
+    @Test
+    void keepsBlocksThatSpanBlankLines() {
+        String loose = "- Enter\n\n- Flee\n";
+        assertEquals(List.of(loose), MarkdownAugmenter.blocks(loose));
+
+        String fenced = "```\nline one\n\nline two\n```\n";
+        assertEquals(List.of(fenced), MarkdownAugmenter.blocks(fenced));
+
+        String indented = "    code\n\n    more code\n";
+        assertEquals(List.of(indented), MarkdownAugmenter.blocks(indented));
+    }
+
+    @Test
+    void splitFindsWhereTheLastBlockStarts() {
+        String markdown = "# The Crypt\n\n```\nDC 12\n\nadvantage\n```\n\n- Enter\n\n- Flee\n";
+        MarkdownAugmenter.Split split = MarkdownAugmenter.split(markdown);
+        assertEquals(markdown.indexOf("- Enter"), split.lastStart());
+
+        // Splitting again from there gives the same last block
+        String last = split.blocks().get(split.blocks().size() - 1);
+        assertEquals(List.of(last), MarkdownAugmenter.blocks(markdown.substring(split.lastStart())));
+    }
+
+    @Test
+    void blocksRenderLikeTheWholeDocument() {
+        List<String> samples = List.of(
+                "# The Crypt\n\nThe door *creaks* open.\n\n> A voice whispers\n\nWhat do you do?",
+                "Choose:\n\n1. Enter\n2. Flee\n\n   Quickly!\n\nOr wait.",
+                "Roll **Stealth**.\n\n```\nDC 12\n\nadvantage\n```\n\nGood luck.",
+                "See [the map][map].\n\n[map]: https://example.com/map",
+                "- a\n\n- b\n\nafter\n\n\n\n---\n\nend\n");
+        MarkdownAugmenter prettify = new MarkdownAugmenter();
+        for (String markdown : samples) {
+            assertEquals(whole(markdown), prettify.markdownToHtml(markdown), markdown);
+        }
+    }
+
+    @Test
+    void incrementalRenderMatchesWholeDocument() {
+        MarkdownAugmenter prettify = new MarkdownAugmenter();
+        prettify.init();
+        try {
+            String markdown = "The torch gutters.\n\nShadows move.\n\n- Hide\n- Fight\n";
+            MarkdownAugmenter.IncrementalRender narration = prettify.incremental();
+            for (String token : markdown.split("(?<=\\s)")) {
+                narration.append(token);
+            }
+            assertEquals(whole(markdown), narration.html(markdown));
+        } finally {
+            prettify.shutdown();
+        }
+    }
+}
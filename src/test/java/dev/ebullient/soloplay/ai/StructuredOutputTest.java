@@ -0,0 +1,126 @@
+package dev.ebullient.soloplay.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import dev.ebullient.soloplay.play.GamePlayResponse;
+import dev.ebullient.soloplay.play.model.PendingRoll;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.internal.JsonSchemaElementUtils;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import io.quarkiverse.langchain4j.ollama.OllamaStreamingChatLanguageModel;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class StructuredOutputTest {
+
+    @Inject
+    StructuredOutput structuredOutput;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fieldsAreRequiredUnlessMarkedOptional() {
+        Map<String, Object> response = JsonSchemaElementUtils.toMap(
+                StructuredOutput.jsonSchema(GamePlayResponse.class).rootElement());
+        List<String> required = (List<String>) response.get("required");
+        assertTrue(required.containsAll(List.of("narration", "turnSummary", "playerChoices", "sources")), required.toString());
+        assertFalse(required.contains("pendingRoll"), required.toString());
+
+        Map<String, Object> roll = JsonSchemaElementUtils.toMap(
+                StructuredOutput.jsonSchema(PendingRoll.class).rootElement());
+        List<String> rollRequired = (List<String>) roll.get("required");
+        assertTrue(rollRequired.containsAll(List.of("type", "ability", "context")), rollRequired.toString());
+        assertFalse(rollRequired.contains("onSuccess"), rollRequired.toString());
+        assertFalse(rollRequired.contains("onFailure"), rollRequired.toString());
+    }
+
+    @Test
+    void streamingModelIsBuiltWithTheSchema() {
+        assertInstanceOf(OllamaStreamingChatLanguageModel.class,
+                structuredOutput.streamingChatModel("gameplay", GamePlayResponse.class));
+    }
+
+    @Test
+    void streamedRequestSendsTheSchemaAsFormat() throws Exception {
+        CompletableFuture<String> body = new CompletableFuture<>();
+        HttpServer ollama = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        ollama.createContext("/api/chat", exchange -> {
+            body.complete(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] reply = """
+                    {"model":"test","message":{"role":"assistant","content":"{}"},"done":true}
+                    """.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, reply.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(reply);
+            } catch (IOException e) {
+                // the client may have given up
+            }
+        });
+        ollama.start();
+        try {
+            var model = structuredOutput.schemaStreamingChatModel(GamePlayResponse.class,
+                    "http://localhost:" + ollama.getAddress().getPort());
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            model.chat(ChatRequest.builder().messages(List.of(UserMessage.from("I open the door"))).build(),
+                    new StreamingChatResponseHandler() {
+                        @Override
+                        public void onPartialResponse(String partialResponse) {
+                        }
+
+                        @Override
+                        public void onCompleteResponse(ChatResponse completeResponse) {
+                            done.complete(null);
+                        }
+
+                        @Override
+                        public void onError(Throwable error) {
+                            done.complete(null);
+                        }
+                    });
+
+            JsonNode request = objectMapper.readTree(body.get(30, TimeUnit.SECONDS));
+            JsonNode format = request.get("format");
+            assertNotNull(format, request.toString());
+            assertEquals("object", format.path("type").asText(), format.toString());
+            assertTrue(format.path("properties").has("narration"), format.toString());
+            assertTrue(format.path("properties").path("pendingRoll").path("properties").has("onSuccess"),
+                    format.toString());
+
+            List<String> required = new ArrayList<>();
+            format.path("required").forEach(n -> required.add(n.asText()));
+            assertTrue(required.contains("narration"), required.toString());
+            assertFalse(required.contains("pendingRoll"), required.toString());
+
+            done.get(30, TimeUnit.SECONDS);
+        } finally {
+            ollama.stop(0);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package dev.ebullient.soloplay.ai.memory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+
+class ChatMemoryCompactionListenerTest {
+
+    @Test
+    void transcriptKeepsPlayerInputAndNarration() {
+        ChatMemoryCompactionListener listener = new ChatMemoryCompactionListener();
+        listener.objectMapper = new ObjectMapper();
+
+        String transcript = listener.transcript(List.of(
+                SystemMessage.from("You are an expert D&D Game Master"),
+                UserMessage.from("""
+                        === PLAYER ACTION ===
+                        Current Location: Rusty Anchor Tavern
+
+                        Player says:
+
+                        I ask Dolgrim about the haunted house
+                        """),
+                AiMessage.from("""
+                        {"narration": "Dolgrim scowls. 'Nobody goes there anymore.'", "turnSummary": "Asked about the house"}
+                        """),
+                AiMessage.from("The GM replied without JSON")));
+
+        assertEquals("""
+                Player: I ask Dolgrim about the haunted house
+
+                GM: Dolgrim scowls. 'Nobody goes there anymore.'
+
+                GM: The GM replied without JSON""", transcript);
+    }
+
+    @Test
+    void compactionDetectedBehindSystemMessage() {
+        // Windowed memories keep the system message first and evict the messages after it
+        List<ChatMessage> previous = List.of(
+                SystemMessage.from("You are the GM."),
+                UserMessage.from("first"),
+                AiMessage.from("first reply"),
+                UserMessage.from("second"),
+                AiMessage.from("second reply"));
+        List<ChatMessage> current = List.of(
+                SystemMessage.from("You are the GM."),
+                UserMessage.from("second"),
+                AiMessage.from("second reply"),
+                UserMessage.from("third"));
+
+        List<ChatMessage> dropped = Neo4jChatMemoryStore.detectDroppedMessages(previous, current);
+        assertEquals(2, dropped.size());
+        assertEquals("first", ((UserMessage) dropped.get(0)).singleText());
+        assertEquals("first reply", ((AiMessage) dropped.get(1)).text());
+
+        // Nothing evicted: only a new message was added
+        List<ChatMessage> next = new ArrayList<>(current);
+        next.add(AiMessage.from("third reply"));
+        assertTrue(Neo4jChatMemoryStore.detectDroppedMessages(current, next).isEmpty());
+    }
+}
@@ -0,0 +1,50 @@
+package dev.ebullient.soloplay.ai.memory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.ChatMemory;
+import dev.langchain4j.store.memory.chat.InMemoryChatMemoryStore;
+
+class TokenWindowMemoryTest {
+
+    @Test
+    void estimatesFromCharacters() {
+        CharsPerTokenEstimator estimator = new CharsPerTokenEstimator();
+        assertEquals(0, estimator.estimateTokenCountInText(""));
+        assertEquals(3, estimator.estimateTokenCountInText("0123456789"));
+        assertEquals(CharsPerTokenEstimator.MESSAGE_OVERHEAD + 3,
+                estimator.estimateTokenCountInMessage(UserMessage.from("0123456789")));
+    }
+
+    @Test
+    void keepsMemoryWithinBudget() {
+        TokenWindowMemory memory = new TokenWindowMemory();
+        memory.chatMemoryStore = new InMemoryChatMemoryStore();
+        memory.estimator = new CharsPerTokenEstimator();
+
+        int budget = 200;
+        ChatMemory chat = memory.provider(budget).get("game");
+        chat.add(SystemMessage.from("You are the GM."));
+        for (int i = 0; i < 20; i++) {
+            chat.add(UserMessage.from("Turn " + i + ": " + "x".repeat(100)));
+            chat.add(AiMessage.from("Narration " + i + ": " + "y".repeat(100)));
+        }
+        // One lore-heavy turn
+        chat.add(UserMessage.from("z".repeat(600)));
+
+        List<ChatMessage> messages = chat.messages();
+        assertTrue(memory.estimator.estimateTokenCountInMessages(messages) <= budget);
+        assertInstanceOf(SystemMessage.class, messages.get(0), "System message is kept");
+        assertEquals("z".repeat(600), ((UserMessage) messages.get(messages.size() - 1)).singleText());
+    }
+}
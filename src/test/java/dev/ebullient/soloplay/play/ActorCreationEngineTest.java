@@ -1,9 +1,24 @@
 package dev.ebullient.soloplay.play;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.ebullient.soloplay.ai.GuardrailMetrics;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.store.memory.chat.InMemoryChatMemoryStore;
+import io.smallrye.mutiny.Multi;
+
 class ActorCreationEngineTest {
 
     @Test
@@ -18,4 +33,62 @@ class ActorCreationEngineTest {
         assertTrue(markdown.contains("/confirm"));
         assertTrue(markdown.contains("/help"));
     }
+
+    @Test
+    void rejectedStreamedResponseRestoresChatMemory() {
+        ActorCreationEngine engine = new ActorCreationEngine();
+        InMemoryChatMemoryStore store = new InMemoryChatMemoryStore();
+        engine.memoryRollback = new ChatMemoryRollback();
+        engine.memoryRollback.chatMemoryStore = store;
+        engine.guardrail = new ActorCreationResponseGuardrail() {
+            {
+                objectMapper = new ObjectMapper();
+                metrics = new GuardrailMetrics() {
+                    @Override
+                    public void failure(String guardrail, String reason) {
+                    }
+
+                    @Override
+                    public void repaired(String guardrail) {
+                    }
+                };
+            }
+        };
+
+        List<ChatMessage> before = List.of(SystemMessage.from("You help create characters."));
+        store.updateMessages("draft", before);
+
+        String json = "{\"message\": \"\", \"patch\": {\"name\": \"Tamsin\"}}";
+        assertThrows(RejectedResponseException.class, () -> engine.streamResponse("draft", () -> {
+            // The AI service writes the exchange to chat memory as the stream completes
+            List<ChatMessage> messages = new ArrayList<>(before);
+            messages.add(UserMessage.from("Call her Tamsin"));
+            messages.add(AiMessage.from(json));
+            store.updateMessages("draft", messages);
+            return Multi.createFrom().item(json);
+        }, GameEventEmitter.noop()));
+
+        assertEquals(before, store.getMessages("draft"));
+    }
+
+    @Test
+    void failedStreamRestoresChatMemory() {
+        ActorCreationEngine engine = new ActorCreationEngine();
+        InMemoryChatMemoryStore store = new InMemoryChatMemoryStore();
+        engine.memoryRollback = new ChatMemoryRollback();
+        engine.memoryRollback.chatMemoryStore = store;
+
+        List<ChatMessage> before = List.of(SystemMessage.from("You help create characters."));
+        store.updateMessages("draft", before);
+
+        assertThrows(IllegalStateException.class, () -> engine.streamResponse("draft", () -> {
+            // The AI service writes the prompt to chat memory when the call starts
+            List<ChatMessage> messages = new ArrayList<>(before);
+            messages.add(UserMessage.from("Call her Tamsin"));
+            store.updateMessages("draft", messages);
+            return Multi.createFrom().failure(new IllegalStateException("model unavailable"));
+        }, GameEventEmitter.noop()));
+
+        assertEquals(before, store.getMessages("draft"));
+    }
 }
@@ -0,0 +1,75 @@
+package dev.ebullient.soloplay.play;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.store.memory.chat.InMemoryChatMemoryStore;
+
+class ChatMemoryRollbackTest {
+
+    @Test
+    void evictedMessagesStayEvicted() {
+        ChatMemoryRollback rollback = new ChatMemoryRollback();
+        rollback.chatMemoryStore = new InMemoryChatMemoryStore();
+
+        List<ChatMessage> snapshot = List.of(
+                SystemMessage.from("You are the GM."),
+                UserMessage.from("yes"),
+                AiMessage.from("first reply"),
+                UserMessage.from("look around"),
+                AiMessage.from("second reply"));
+        rollback.chatMemoryStore.updateMessages("game", snapshot);
+
+        // The cancelled turn's prompt evicted the oldest exchange (already sent to compaction)
+        rollback.chatMemoryStore.updateMessages("game", List.of(
+                SystemMessage.from("You are the GM."),
+                UserMessage.from("look around"),
+                AiMessage.from("second reply"),
+                UserMessage.from("yes")));
+
+        rollback.rollback("game", snapshot);
+        List<ChatMessage> expected = List.of(
+                SystemMessage.from("You are the GM."),
+                UserMessage.from("look around"),
+                AiMessage.from("second reply"));
+        assertEquals(expected, rollback.chatMemoryStore.getMessages("game"));
+
+        // The cancelled stream writes its reply after the rollback
+        List<ChatMessage> late = new ArrayList<>(expected);
+        late.add(AiMessage.from("late reply"));
+        rollback.chatMemoryStore.updateMessages("game", late);
+
+        assertEquals(expected, rollback.messages("game"));
+        assertEquals(expected, rollback.chatMemoryStore.getMessages("game"));
+    }
+
+    @Test
+    void rollbackIsSettledOnce() {
+        ChatMemoryRollback rollback = new ChatMemoryRollback();
+        rollback.chatMemoryStore = new InMemoryChatMemoryStore();
+
+        List<ChatMessage> snapshot = List.of(SystemMessage.from("You are the GM."));
+        rollback.chatMemoryStore.updateMessages("game", snapshot);
+        rollback.chatMemoryStore.updateMessages("game", List.of(
+                SystemMessage.from("You are the GM."),
+                UserMessage.from("look around")));
+        rollback.rollback("game", snapshot);
+        assertEquals(snapshot, rollback.messages("game"));
+
+        // The next call's exchange is not mistaken for a late write
+        List<ChatMessage> next = List.of(
+                SystemMessage.from("You are the GM."),
+                UserMessage.from("open the door"),
+                AiMessage.from("it creaks"));
+        rollback.chatMemoryStore.updateMessages("game", next);
+        assertEquals(next, rollback.messages("game"));
+    }
+}
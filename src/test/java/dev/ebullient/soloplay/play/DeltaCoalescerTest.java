@@ -0,0 +1,88 @@
+package dev.ebullient.soloplay.play;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class DeltaCoalescerTest {
+
+    @Test
+    void flushesBySizeAndOnClose() {
+        List<String> frames = new CopyOnWriteArrayList<>();
+        try (DeltaCoalescer deltas = new DeltaCoalescer(Duration.ofMinutes(1), 10, frames::add)) {
+            for (String token : List.of("The ", "door ", "creaks ", "open.")) {
+                deltas.append(token);
+            }
+            assertEquals(List.of("The door creaks "), frames); // 16 bytes >= 10
+        }
+        assertEquals(List.of("The door creaks ", "open."), frames);
+    }
+
+    @Test
+    void flushesAfterTheWindow() throws InterruptedException {
+        List<String> frames = new CopyOnWriteArrayList<>();
+        try (DeltaCoalescer deltas = new DeltaCoalescer(Duration.ofMillis(20), 1024, frames::add)) {
+            deltas.append("a");
+            deltas.append("b");
+            long deadline = System.currentTimeMillis() + 2000;
+            while (frames.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(List.of("ab"), frames);
+        }
+    }
+
+    @Test
+    void zeroWindowPassesThrough() {
+        List<String> frames = new CopyOnWriteArrayList<>();
+        DeltaCoalescer deltas = new DeltaCoalescer(Duration.ZERO, 1024, frames::add);
+        deltas.append("a");
+        deltas.append("b");
+        assertEquals(List.of("a", "b"), frames);
+
+        deltas.close();
+        deltas.append("c");
+        assertTrue(frames.contains("c"));
+    }
+
+    @Test
+    void slowSendDoesNotHoldUpOtherStreams() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> slowFrames = new CopyOnWriteArrayList<>();
+        DeltaCoalescer slow = new DeltaCoalescer(Duration.ofMillis(10), 1024, text -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            slowFrames.add(text);
+        });
+        List<String> frames = new CopyOnWriteArrayList<>();
+        DeltaCoalescer deltas = new DeltaCoalescer(Duration.ofMillis(20), 1024, frames::add);
+        try {
+            slow.append("stuck");
+            Thread.sleep(50); // the slow flush is now sending
+
+            deltas.append("a");
+            long deadline = System.currentTimeMillis() + 2000;
+            while (frames.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(List.of("a"), frames);
+            assertEquals(List.of(), slowFrames);
+        } finally {
+            release.countDown();
+        }
+        // Close waits for frames being sent
+        slow.close();
+        deltas.close();
+        assertEquals(List.of("stuck"), slowFrames);
+    }
+}
@@ -0,0 +1,190 @@
+package dev.ebullient.soloplay.play;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.neo4j.driver.Driver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.ebullient.soloplay.GameWriteBehind;
+import dev.ebullient.soloplay.SchemaManager;
+import dev.ebullient.soloplay.play.GameOwnership.Claim;
+import io.quarkus.test.junit.QuarkusTest;
+import io.vertx.core.Vertx;
+
+/**
+ * Several "instances" in one JVM, sharing the test database and Vert.x event bus,
+ * the way separate servers share them in a cluster.
+ */
+@QuarkusTest
+public class GameClusterTest {
+
+    @Inject
+    Driver driver;
+
+    @Inject
+    GameWriteBehind writeBehind;
+
+    @Inject
+    SchemaManager schemaManager;
+
+    @Inject
+    Vertx vertx;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    void migrate() {
+        schemaManager.migrate();
+    }
+
+    @Test
+    void concurrentClaimsHaveOneWinner() throws Exception {
+        String gameId = "lease-" + UUID.randomUUID();
+        List<GameOwnership> instances = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            instances.add(neo4jOwnership("node-" + i, Duration.ofMinutes(1)));
+        }
+
+        List<CompletableFuture<Claim>> claims = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (GameOwnership instance : instances) {
+                claims.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return instance.claim(gameId);
+                }, executor));
+            }
+            start.countDown();
+        }
+        List<Claim> results = claims.stream().map(CompletableFuture::join).toList();
+        assertEquals(1, results.stream().filter(c -> c == Claim.ACQUIRED).count(), results.toString());
+        assertEquals(3, results.stream().filter(c -> c == Claim.BUSY).count(), results.toString());
+
+        // The winner hands over; the next claimant must reload the game
+        int winner = results.indexOf(Claim.ACQUIRED);
+        GameOwnership next = instances.get((winner + 1) % instances.size());
+        assertEquals(Claim.RENEWED, instances.get(winner).claim(gameId));
+        instances.get(winner).release(gameId);
+        assertEquals(Claim.ACQUIRED, next.claim(gameId));
+        assertEquals(Claim.BUSY, instances.get(winner).claim(gameId));
+    }
+
+    @Test
+    void expiredLeaseIsTakenOver() throws Exception {
+        String gameId = "lease-" + UUID.randomUUID();
+        GameOwnership a = neo4jOwnership("a", Duration.ofMillis(200));
+        GameOwnership b = neo4jOwnership("b", Duration.ofMillis(200));
+
+        assertEquals(Claim.ACQUIRED, a.claim(gameId));
+        assertEquals(Claim.BUSY, b.claim(gameId));
+        Thread.sleep(400);
+        assertEquals(Claim.ACQUIRED, b.claim(gameId));
+    }
+
+    @Test
+    void turnWaitsForAnotherInstance() throws Exception {
+        String gameId = "lease-" + UUID.randomUUID();
+        GameOwnership a = neo4jOwnership("a", Duration.ofMinutes(1));
+        GameOwnership b = neo4jOwnership("b", Duration.ofMinutes(1));
+
+        // a is playing: b's turn gives up when the wait runs out
+        assertEquals(Claim.ACQUIRED, a.claim(gameId));
+        assertEquals(Claim.BUSY, b.awaitClaim(gameId, Duration.ofMillis(300)));
+
+        // a finishes while b waits: b takes over (and must reload the game)
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<Claim> waiting = CompletableFuture.supplyAsync(
+                    () -> b.awaitClaim(gameId, Duration.ofSeconds(10)), executor);
+            Thread.sleep(300);
+            assertFalse(waiting.isDone(), "b waits while a holds the game");
+            a.release(gameId);
+            assertEquals(Claim.ACQUIRED, waiting.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(Claim.BUSY, a.claim(gameId));
+    }
+
+    @Test
+    void turnTakesOverExpiredLease() {
+        String gameId = "lease-" + UUID.randomUUID();
+        GameOwnership a = neo4jOwnership("a", Duration.ofMillis(300));
+        GameOwnership b = neo4jOwnership("b", Duration.ofMinutes(1));
+
+        // a stops without releasing (e.g. it crashed): b waits for the lease to expire
+        assertEquals(Claim.ACQUIRED, a.claim(gameId));
+        assertEquals(Claim.ACQUIRED, b.awaitClaim(gameId, Duration.ofSeconds(5)));
+        assertEquals(Claim.BUSY, a.claim(gameId));
+    }
+
+    @Test
+    void broadcastsReachOtherInstances() throws Exception {
+        EventBusPlayBus a = eventBus("a");
+        EventBusPlayBus b = eventBus("b");
+        try {
+            CountDownLatch received = new CountDownLatch(1);
+            AtomicReference<PlayWsServerMessage> atB = new AtomicReference<>();
+            AtomicReference<PlayWsServerMessage> atA = new AtomicReference<>();
+            a.onMessage((gameId, message) -> atA.set(message));
+            b.onMessage((gameId, message) -> {
+                if ("g".equals(gameId)) {
+                    atB.set(message);
+                    received.countDown();
+                }
+            });
+
+            a.publish("g", new PlayWsServerMessage.AssistantDone("id", "The door opens.", "<p>The door opens.</p>", 3L));
+
+            assertTrue(received.await(5, TimeUnit.SECONDS), "other instance should receive the broadcast");
+            var done = assertInstanceOf(PlayWsServerMessage.AssistantDone.class, atB.get());
+            assertEquals(3L, done.seq());
+            assertNull(atA.get(), "an instance does not receive its own broadcasts");
+        } finally {
+            a.shutdown();
+            b.shutdown();
+        }
+    }
+
+    GameOwnership neo4jOwnership(String instanceId, Duration lease) {
+        Neo4jGameOwnership ownership = new Neo4jGameOwnership();
+        ownership.driver = driver;
+        ownership.writeBehind = writeBehind;
+        ownership.lease = lease;
+        ownership.configuredId = Optional.of(instanceId);
+        ownership.init();
+        return ownership;
+    }
+
+    EventBusPlayBus eventBus(String instanceId) {
+        EventBusPlayBus bus = new EventBusPlayBus();
+        bus.vertx = vertx;
+        bus.objectMapper = objectMapper;
+        bus.configuredId = Optional.of(instanceId);
+        bus.init();
+        return bus;
+    }
+}
@@ -0,0 +1,53 @@
+package dev.ebullient.soloplay.play;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import dev.ebullient.soloplay.play.GameOwnership.Claim;
+
+class GameOwnershipTest {
+
+    @Test
+    void oneInstanceRunsTurnsAtATime() {
+        AtomicLong now = new AtomicLong(1000);
+        Map<String, InMemoryGameOwnership.Lease> shared = new ConcurrentHashMap<>();
+        var a = new InMemoryGameOwnership("a", shared, now::get, Duration.ofSeconds(10));
+        var b = new InMemoryGameOwnership("b", shared, now::get, Duration.ofSeconds(10));
+
+        assertEquals(Claim.ACQUIRED, a.claim("g"));
+        assertEquals(Claim.BUSY, b.claim("g"));
+        assertEquals(Claim.RENEWED, a.claim("g"));
+        assertEquals(Claim.ACQUIRED, b.claim("other"));
+
+        // Released: b takes over, and a must reload when it gets the game back
+        a.release("g");
+        assertEquals(Claim.ACQUIRED, b.claim("g"));
+        assertEquals(Claim.BUSY, a.claim("g"));
+        b.release("g");
+        assertEquals(Claim.ACQUIRED, a.claim("g"));
+
+        // Released and reclaimed by the same instance: its state is still current
+        a.release("g");
+        assertEquals(Claim.RENEWED, a.claim("g"));
+    }
+
+    @Test
+    void expiredLeaseCanBeTaken() {
+        AtomicLong now = new AtomicLong(1000);
+        Map<String, InMemoryGameOwnership.Lease> shared = new ConcurrentHashMap<>();
+        var a = new InMemoryGameOwnership("a", shared, now::get, Duration.ofSeconds(10));
+        var b = new InMemoryGameOwnership("b", shared, now::get, Duration.ofSeconds(10));
+
+        assertEquals(Claim.ACQUIRED, a.claim("g"));
+        now.addAndGet(9_000);
+        assertEquals(Claim.BUSY, b.claim("g"));
+        now.addAndGet(2_000);
+        assertEquals(Claim.ACQUIRED, b.claim("g"));
+    }
+}
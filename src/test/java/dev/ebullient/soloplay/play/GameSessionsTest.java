@@ -0,0 +1,89 @@
+package dev.ebullient.soloplay.play;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import jakarta.inject.Inject;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import dev.ebullient.soloplay.GameRepository;
+import dev.ebullient.soloplay.play.model.GameState;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.test.junit.QuarkusTest;
+
+@QuarkusTest
+class GameSessionsTest {
+    final static String gameId = "GameSessionsTest";
+
+    @Inject
+    GameSessions gameSessions;
+
+    @Inject
+    GameRepository gameRepository;
+
+    @Inject
+    @CacheName("game-sessions")
+    Cache sessions;
+
+    @BeforeEach
+    void createGame() {
+        gameRepository.deleteGame(gameId);
+        gameRepository.createGame(gameId, "Test Adventure");
+    }
+
+    @AfterEach
+    void deleteGame() {
+        gameRepository.deleteGame(gameId);
+    }
+
+    @Test
+    void pinnedGameSurvivesCacheEviction() {
+        gameSessions.pin(gameId);
+        GameState live = gameSessions.get(gameId);
+        assertNotNull(live);
+
+        // The cache evicts the game (size or idle limit) while a connection is open
+        sessions.invalidate(gameId).await().indefinitely();
+        assertSame(live, gameSessions.get(gameId));
+
+        // Once unpinned, the same state stays cached until it is idle
+        gameSessions.unpin(gameId);
+        assertSame(live, gameSessions.get(gameId));
+
+        sessions.invalidate(gameId).await().indefinitely();
+        assertNotSame(live, gameSessions.get(gameId));
+    }
+
+    @Test
+    void pinnedGameIsDroppedWhenDeleted() {
+        gameSessions.pin(gameId);
+        try {
+            assertNotNull(gameSessions.get(gameId));
+            gameRepository.deleteGame(gameId);
+            assertNull(gameSessions.get(gameId));
+        } finally {
+            gameSessions.unpin(gameId);
+        }
+    }
+
+    @Test
+    void evictReloadsPinnedGame() {
+        gameSessions.pin(gameId);
+        try {
+            GameState live = gameSessions.get(gameId);
+            gameSessions.evict(gameId);
+            GameState reloaded = gameSessions.get(gameId);
+            assertNotNull(reloaded);
+            assertNotSame(live, reloaded);
+            assertSame(reloaded, gameSessions.get(gameId));
+        } finally {
+            gameSessions.unpin(gameId);
+        }
+    }
+}
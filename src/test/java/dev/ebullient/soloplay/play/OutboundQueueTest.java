@@ -0,0 +1,113 @@
+package dev.ebullient.soloplay.play;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import dev.ebullient.soloplay.play.OutboundQueue.OverflowPolicy;
+import dev.ebullient.soloplay.play.PlayWsCodec.Encoded;
+import dev.ebullient.soloplay.play.PlayWsCodec.Encoding;
+import dev.ebullient.soloplay.play.PlayWsServerMessage.AssistantDelta;
+import dev.ebullient.soloplay.play.PlayWsServerMessage.AssistantDone;
+import dev.ebullient.soloplay.play.PlayWsServerMessage.AssistantStart;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.websockets.next.WebSocketConnection;
+import io.smallrye.mutiny.Uni;
+
+class OutboundQueueTest {
+
+    SimpleMeterRegistry registry;
+    OutboundMetrics metrics;
+    WebSocketConnection connection;
+    List<String> sent;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        metrics = new OutboundMetrics();
+        metrics.registry = registry;
+        metrics.init();
+
+        // A stalled browser: the first write never completes, so everything else queues up
+        sent = new ArrayList<>();
+        connection = Mockito.mock(WebSocketConnection.class);
+        Mockito.when(connection.id()).thenReturn("slow");
+        Mockito.when(connection.isOpen()).thenReturn(true);
+        Mockito.when(connection.sendText(Mockito.anyString())).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(0));
+            return Uni.createFrom().nothing();
+        });
+        Mockito.when(connection.close()).thenReturn(Uni.createFrom().voidItem());
+    }
+
+    OutboundQueue queue(OverflowPolicy policy) {
+        return new OutboundQueue(connection, 3, policy, Encoding.JSON, (m, e) -> Encoded.text(m.toString()), metrics);
+    }
+
+    static void streamTurn(OutboundQueue queue) {
+        queue.offer(new AssistantStart("a"), Encoded.text("start"));
+        for (int i = 0; i < 10; i++) {
+            queue.offer(new AssistantDelta("a", "t" + i), Encoded.text("delta" + i));
+        }
+        queue.offer(new AssistantDone("a", "done", "<p>done</p>", 2L), Encoded.text("done"));
+    }
+
+    @Test
+    void mergesDeltasWhenFull() {
+        OutboundQueue queue = queue(OverflowPolicy.MERGE_DELTAS);
+        streamTurn(queue);
+
+        assertEquals(List.of("start"), sent);
+        assertEquals(4, queue.depth()); // delta0, delta1, merged delta2-9, done
+        assertTrue(registry.counter("soloplay.play.outbound.dropped", "policy", "merge_deltas").count() > 0);
+        assertEquals(4, registry.get("soloplay.play.outbound.depth").gauge().value());
+    }
+
+    @Test
+    void mergeStaysBoundedWhenDeltasInterleave() {
+        OutboundQueue queue = queue(OverflowPolicy.MERGE_DELTAS);
+        queue.offer(new AssistantStart("a"), Encoded.text("start"));
+        // Deltas for two responses alternate, so no two queued deltas are adjacent
+        for (int i = 0; i < 50; i++) {
+            queue.offer(new AssistantDelta("a", "a" + i), null);
+            queue.offer(new AssistantDelta("b", "b" + i), null);
+        }
+        assertEquals(3, queue.depth());
+
+        // Nothing to merge into: the delta is dropped, but done is still queued
+        OutboundQueue full = queue(OverflowPolicy.MERGE_DELTAS);
+        full.offer(new AssistantStart("c"), Encoded.text("start"));
+        for (int i = 0; i < 3; i++) {
+            full.offer(new PlayWsServerMessage.QueueStatus(i, 0), null);
+        }
+        full.offer(new AssistantDelta("c", "lost"), null);
+        full.offer(new AssistantDone("c", "done", "<p>done</p>", 2L), null);
+        assertEquals(4, full.depth());
+    }
+
+    @Test
+    void dropsDeltasButKeepsDone() {
+        OutboundQueue queue = queue(OverflowPolicy.DROP_DELTAS);
+        streamTurn(queue);
+
+        assertEquals(1, queue.depth()); // done only
+        assertEquals(10, registry.counter("soloplay.play.outbound.dropped", "policy", "drop_deltas").count());
+    }
+
+    @Test
+    void disconnectsSlowConnection() {
+        OutboundQueue queue = queue(OverflowPolicy.DISCONNECT);
+        streamTurn(queue);
+
+        assertEquals(0, queue.depth());
+        Mockito.verify(connection).close();
+        assertEquals(1, registry.counter("soloplay.play.outbound.disconnects").count());
+        assertEquals(0, registry.get("soloplay.play.outbound.depth").gauge().value());
+    }
+}
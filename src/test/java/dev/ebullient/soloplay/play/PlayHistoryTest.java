@@ -0,0 +1,63 @@
+package dev.ebullient.soloplay.play;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import dev.ebullient.soloplay.play.model.PlayMessage;
+
+class PlayHistoryTest {
+
+    static PlayHistory.Ring ring(int capacity, int messages) {
+        PlayHistory.Ring ring = new PlayHistory.Ring(capacity, List.of(), true);
+        for (int i = 0; i < messages; i++) {
+            ring.append("g", i % 2 == 0 ? "user" : "assistant", "m" + i, "<p>m" + i + "</p>");
+        }
+        return ring;
+    }
+
+    static List<Long> seqs(PlayHistory.Page page) {
+        return page.messages().stream().map(PlayMessage::seq).toList();
+    }
+
+    @Test
+    void assignsConsecutiveSequenceNumbers() {
+        PlayHistory.Ring ring = ring(10, 3);
+        assertEquals(4, ring.append("g", "user", "next", "").seq());
+    }
+
+    @Test
+    void pagesWithinTheBuffer() {
+        PlayHistory.Ring ring = ring(10, 8);
+
+        PlayHistory.Page latest = ring.before(Long.MAX_VALUE, 3);
+        assertEquals(List.of(6L, 7L, 8L), seqs(latest));
+        assertTrue(latest.more());
+
+        PlayHistory.Page older = ring.before(6, 10);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), seqs(older));
+        assertFalse(older.more());
+
+        PlayHistory.Page missed = ring.after(5, 2);
+        assertEquals(List.of(6L, 7L), seqs(missed));
+        assertTrue(missed.more());
+    }
+
+    @Test
+    void pagesPastTheBufferFallBack() {
+        PlayHistory.Ring ring = ring(4, 8); // holds 5..8
+
+        assertEquals(List.of(7L, 8L), seqs(ring.before(Long.MAX_VALUE, 2)));
+        assertNull(ring.before(6, 3), "messages before 5 are not in the buffer");
+        PlayHistory.Page exact = ring.before(Long.MAX_VALUE, 4);
+        assertEquals(List.of(5L, 6L, 7L, 8L), seqs(exact), "a page that fills exactly from the buffer");
+        assertTrue(exact.more());
+        assertNull(ring.after(2, 3), "messages 3 and 4 are not in the buffer");
+        assertEquals(List.of(5L, 6L), seqs(ring.after(4, 2)));
+    }
+}
@@ -0,0 +1,114 @@
+package dev.ebullient.soloplay.play;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class PlaySessionTest {
+
+    @Test
+    void releasedSessionIsReplaced() {
+        PlaySession.Registry registry = new PlaySession.Registry();
+        PlaySession first = registry.acquire("game");
+        assertSame(first, registry.acquire("game"));
+        assertEquals(2, first.refs());
+
+        registry.release(first);
+        registry.release(first);
+        assertNull(registry.get("game"));
+        assertNull(registry.retain(first));
+        assertEquals(0, registry.size());
+
+        PlaySession second = registry.acquire("game");
+        assertNotSame(first, second);
+        assertSame(second, registry.get("game"));
+    }
+
+    @Test
+    void startResetsWhenIdle() {
+        PlaySession session = new PlaySession("game");
+        assertTrue(session.resuming());
+        assertTrue(session.start());
+        assertFalse(session.start());
+        session.idle();
+        assertTrue(session.start());
+    }
+
+    @Test
+    void concurrentAcquireAndReleaseRunsOneTurnPerGame() throws Exception {
+        PlaySession.Registry registry = new PlaySession.Registry();
+        int games = 4;
+        int threads = 2_000;
+        int rounds = 20;
+
+        Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> processed = new ConcurrentHashMap<>();
+        AtomicInteger overlaps = new AtomicInteger();
+        for (int g = 0; g < games; g++) {
+            running.put("game-" + g, new AtomicInteger());
+            processed.put("game-" + g, new AtomicInteger());
+        }
+
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < threads; t++) {
+                String gameId = "game-" + (t % games);
+                futures.add(executor.submit(() -> {
+                    go.await();
+                    for (int r = 0; r < rounds; r++) {
+                        PlaySession session = registry.acquire(gameId);
+                        try {
+                            TurnMailbox mailbox = session.mailbox();
+                            var turn = new TurnMailbox.Turn(gameId, "/turn", Instant.now(), x -> {
+                                if (running.get(gameId).incrementAndGet() > 1) {
+                                    overlaps.incrementAndGet();
+                                }
+                                Thread.yield();
+                                processed.get(gameId).incrementAndGet();
+                                running.get(gameId).decrementAndGet();
+                            });
+                            if (mailbox.offer(turn)) {
+                                TurnMailbox.Turn next;
+                                while ((next = mailbox.next(Duration.ZERO)) != null) {
+                                    next.handler().process(next);
+                                }
+                            }
+                        } finally {
+                            registry.release(session);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            go.countDown();
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        }
+
+        assertEquals(0, overlaps.get(), "Turns for one game must never overlap");
+        for (AtomicInteger count : processed.values()) {
+            // every offered turn ran exactly once (none stranded in a dropped mailbox)
+            assertEquals(threads / games * rounds, count.get());
+        }
+        assertEquals(0, registry.size(), "Every session should be removed once released");
+    }
+}
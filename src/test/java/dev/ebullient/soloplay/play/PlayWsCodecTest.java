@@ -0,0 +1,71 @@
+package dev.ebullient.soloplay.play;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import dev.ebullient.soloplay.play.PlayWsCodec.Encoded;
+import dev.ebullient.soloplay.play.PlayWsCodec.Encoding;
+
+class PlayWsCodecTest {
+
+    PlayWsCodec codec;
+
+    @BeforeEach
+    void setup() {
+        codec = new PlayWsCodec();
+        codec.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        codec.init();
+    }
+
+    @Test
+    void readsOptionsFromQuery() {
+        assertEquals(PlayWsCodec.Options.DEFAULT, PlayWsCodec.options(null));
+        assertEquals(PlayWsCodec.Options.DEFAULT, PlayWsCodec.options("encoding=xml&other"));
+
+        PlayWsCodec.Options options = PlayWsCodec.options("encoding=CBOR&history=markdown");
+        assertEquals(Encoding.CBOR, options.encoding());
+        assertFalse(options.historyHtml());
+    }
+
+    @Test
+    void encodesCborWithTypeDiscriminator() throws Exception {
+        var history = new PlayWsServerMessage.History(List.of(
+                new PlayWsServerMessage.HistoryMessage(7, "assistant", "The *door* opens.", null, Instant.now())),
+                true);
+
+        Encoded json = codec.encode(history, Encoding.JSON);
+        assertFalse(json.isBinary());
+        Encoded cbor = codec.encode(history, Encoding.CBOR);
+        assertTrue(cbor.isBinary());
+        assertTrue(cbor.binary().length < json.text().length());
+
+        JsonNode node = new CBORMapper().readTree(cbor.binary());
+        assertEquals("history", node.get("type").asText());
+        assertEquals(7, node.get("messages").get(0).get("seq").asLong());
+        assertNull(node.get("messages").get(0).get("html"), "null html is left out");
+    }
+
+    @Test
+    void decodesCborClientMessages() throws Exception {
+        byte[] data = new CBORMapper().writeValueAsBytes(Map.of("type", "history_request", "after", 12));
+
+        var request = assertInstanceOf(PlayWsClientMessage.HistoryRequest.class, codec.decode(data));
+        assertEquals(12L, request.after());
+        assertEquals(100, request.limit());
+    }
+}
@@ -0,0 +1,60 @@
+package dev.ebullient.soloplay.play;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import dev.ebullient.soloplay.play.model.GameState;
+import dev.ebullient.soloplay.play.model.PendingRoll;
+import dev.ebullient.soloplay.play.model.RollOutcome;
+import dev.ebullient.soloplay.play.model.RollResult;
+
+class RollHandlerTest {
+
+    static final RollOutcome SUCCESS = new RollOutcome("She talks.", "She shares the map.", List.of(), null, null);
+    static final RollOutcome FAILURE = new RollOutcome("She leaves.", "She storms out.", List.of(), null, null);
+
+    final RollHandler rollHandler = new RollHandler();
+
+    GameState gameWith(PendingRoll roll) {
+        GameState game = new GameState();
+        game.setGameId("roll-test");
+        rollHandler.setPendingRoll(game, roll);
+        return game;
+    }
+
+    @Test
+    void settlesAgainstTheDc() {
+        PendingRoll roll = new PendingRoll("skill_check", "persuasion", "charisma", 15, "Hooded Woman",
+                "Convince her", SUCCESS, FAILURE);
+        GameState game = gameWith(roll);
+
+        RollResult high = rollHandler.handleRollCommand(game, "/roll 15");
+        assertTrue(high.success());
+        assertSame(SUCCESS, rollHandler.settle(roll, high));
+
+        RollResult low = rollHandler.handleRollCommand(game, "/roll 14");
+        assertFalse(low.success());
+        assertSame(FAILURE, rollHandler.settle(roll, low));
+    }
+
+    @Test
+    void leavesRollsWithoutDcOrOutcomesToTheGm() {
+        PendingRoll noDc = new PendingRoll("attack", null, "strength", null, "Goblin", "Hit it", SUCCESS, FAILURE);
+        assertNull(rollHandler.settle(noDc, rollHandler.handleRollCommand(gameWith(noDc), "12")));
+
+        PendingRoll noOutcomes = new PendingRoll("skill_check", "stealth", "dexterity", 12, null, "Sneak");
+        assertNull(rollHandler.settle(noOutcomes, rollHandler.handleRollCommand(gameWith(noOutcomes), "18")));
+
+        PendingRoll roll = new PendingRoll("skill_check", "stealth", "dexterity", 12, null, "Sneak", SUCCESS, FAILURE);
+        RollResult unreadable = rollHandler.handleRollCommand(gameWith(roll), "/roll lots");
+        assertEquals(RollHandler.INVALID_INPUT, unreadable.breakdown());
+        assertNull(rollHandler.settle(roll, unreadable));
+    }
+}
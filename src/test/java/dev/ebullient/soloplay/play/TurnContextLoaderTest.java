@@ -0,0 +1,63 @@
+package dev.ebullient.soloplay.play;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import dev.ebullient.soloplay.GameRepository;
+import dev.ebullient.soloplay.play.model.Event;
+import dev.ebullient.soloplay.play.model.GameState;
+
+class TurnContextLoaderTest {
+
+    @Test
+    void deadlineDoesNotWaitForBlockedLookups() {
+        CountDownLatch release = new CountDownLatch(1);
+
+        TurnContextLoader loader = new TurnContextLoader();
+        loader.timeout = Duration.ofMillis(100);
+        loader.gamePlayEngine = new GamePlayEngine() {
+            @Override
+            List<String> listTheParty(GameState game) {
+                return List.of();
+            }
+        };
+        loader.gameRepository = new GameRepository() {
+            @Override
+            public List<Event> listEvents(String gameId) {
+                // Like a blocked socket read: ignores interrupts
+                while (true) {
+                    try {
+                        release.await();
+                        return List.of();
+                    } catch (InterruptedException e) {
+                        // keep waiting
+                    }
+                }
+            }
+
+            @Override
+            public Event findMemorySummary(String gameId) {
+                return null;
+            }
+        };
+        loader.init();
+
+        GameState game = new GameState();
+        game.setGameId("slow");
+        try {
+            long start = System.nanoTime();
+            assertThrows(TurnContextTimeoutException.class, () -> loader.load(game, true, false));
+            long elapsed = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            assertTrue(elapsed < 2000, "Returned at the deadline, not when the lookup finished: " + elapsed + "ms");
+        } finally {
+            release.countDown();
+            loader.shutdown();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package dev.ebullient.soloplay.play;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+class TurnMailboxTest {
+
+    static TurnMailbox.Turn turn(String sender, String text) {
+        return new TurnMailbox.Turn(sender, text, Instant.now(), t -> {
+        });
+    }
+
+    @Test
+    void onlyFirstCallerDrains() {
+        TurnMailbox mailbox = new TurnMailbox();
+        assertTrue(mailbox.offer(turn("a", "first")));
+        assertFalse(mailbox.offer(turn("b", "second")));
+
+        assertEquals("first", mailbox.next(Duration.ZERO).text());
+        assertEquals(1, mailbox.status().depth());
+        assertEquals("second", mailbox.next(Duration.ZERO).text());
+        assertNull(mailbox.next(Duration.ZERO));
+        assertTrue(mailbox.idle());
+
+        // Empty mailbox: the next caller drains again
+        assertTrue(mailbox.offer(turn("a", "third")));
+    }
+
+    @Test
+    void inputDuringIdleActionIsDrainedByTheCaller() {
+        TurnMailbox mailbox = new TurnMailbox();
+        assertTrue(mailbox.offer(turn("a", "first")));
+        mailbox.next(Duration.ZERO);
+        assertNull(mailbox.next(Duration.ZERO));
+
+        // Input arrives while the game is being released: queued, not drained by the sender
+        boolean arrived = mailbox.ifIdle(() -> assertFalse(mailbox.offer(turn("b", "second"))));
+        assertTrue(arrived, "the releasing caller drains what arrived");
+        assertEquals("second", mailbox.next(Duration.ZERO).text());
+        assertNull(mailbox.next(Duration.ZERO));
+
+        assertFalse(mailbox.ifIdle(() -> {
+        }));
+        assertTrue(mailbox.idle());
+    }
+
+    @Test
+    void mergesPlainMessagesFromSameSender() {
+        TurnMailbox mailbox = new TurnMailbox();
+        mailbox.offer(turn("a", "I open the door"));
+        mailbox.offer(turn("a", "carefully"));
+        mailbox.offer(turn("a", "/status"));
+        mailbox.offer(turn("b", "hello"));
+
+        assertEquals("I open the door\ncarefully", mailbox.next(Duration.ofMillis(1)).text());
+        assertEquals("/status", mailbox.next(Duration.ofMillis(1)).text());
+        assertEquals("hello", mailbox.next(Duration.ofMillis(1)).text());
+        assertNull(mailbox.next(Duration.ofMillis(1)));
+    }
+}